@@ -0,0 +1,100 @@
+package com.dreamhouse.ai.authentication.security.token;
+
+import com.dreamhouse.ai.authentication.configuration.properties.TokenProperties;
+import com.dreamhouse.ai.authentication.configuration.properties.TokenProperties.TokenFormat;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Cost of issuing and verifying a bearer token as a JWE (A256CBC-HS512) and as an Ed25519 JWS.
+ * <p>
+ * With the cache on, {@link TokenVerifier#verify} answers from its verified-claims cache, as it does for every
+ * request after a token's first. With the cache off, the token is decrypted or its signature checked, which
+ * is what the verifier does on a miss; the Redis revocation lookup of a miss is not included.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class TokenFormatBenchmark {
+    private static final String USERNAME = "benchmark@example.com";
+    private static final List<String> AUTHORITIES = List.of("ROLE_USER", "READ_AUTHORITY", "WRITE_AUTHORITY");
+
+    @Param({"JWE", "JWS"})
+    public TokenFormat format;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private TokenIssuer issuer;
+    private TokenVerifier verifier;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        var secretKey = Jwts.ENC.A256CBC_HS512.key().build();
+        var signingKeyPair = Jwks.CRV.Ed25519.keyPair().build();
+        var meterRegistry = new SimpleMeterRegistry();
+
+        issuer = new TokenIssuer(new TokenProperties(format, Duration.ofHours(1), true),
+                secretKey, signingKeyPair, meterRegistry);
+        verifier = new TokenVerifier(secretKey, signingKeyPair, noRevocations(), meterRegistry);
+        parser = format == TokenFormat.JWS
+                ? Jwts.parser().verifyWith(signingKeyPair.getPublic()).build()
+                : Jwts.parser().decryptWith(secretKey).build();
+
+        token = issuer.issue(USERNAME, AUTHORITIES);
+        verifier.verify(token);
+    }
+
+    @Benchmark
+    public String issue() {
+        return issuer.issue(USERNAME, AUTHORITIES);
+    }
+
+    @Benchmark
+    public Object verify() {
+        if (cache) return verifier.verify(token);
+        return format == TokenFormat.JWS
+                ? parser.parseSignedClaims(token).getPayload()
+                : parser.parseEncryptedClaims(token).getPayload();
+    }
+
+    /**
+     * A Redis client whose revocation store is always empty.
+     */
+    @SuppressWarnings("unchecked")
+    private static RedissonClient noRevocations() {
+        var redissonClient = Mockito.mock(RedissonClient.class);
+        Mockito.when(redissonClient.getBucket(anyString(), any(Codec.class))).thenReturn(Mockito.mock(RBucket.class));
+        return redissonClient;
+    }
+}
@@ -0,0 +1,162 @@
+package com.dreamhouse.ai.house.service.impl;
+
+import com.dreamhouse.ai.cache.service.impl.QueryKeyServiceImpl;
+import com.dreamhouse.ai.house.configuration.properties.HouseAdWriteProperties;
+import com.dreamhouse.ai.house.configuration.properties.HouseAdWriteProperties.WriteMode;
+import com.dreamhouse.ai.house.model.entity.HouseAdEntity;
+import com.dreamhouse.ai.house.repository.HouseAdRepository;
+import com.dreamhouse.ai.llm.configuration.cache.RedissonConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent title/description updates to one hot listing through {@link HouseAdWriteExecutor}, once under the
+ * Redisson lock and once optimistically against the {@code @Version} column.
+ * <p>
+ * Needs the dev Postgres and Redis from DEVELOPER.md ({@code POSTGRESQL_URL}, {@code POSTGRESQL_USERNAME},
+ * {@code POSTGRESQL_PASSWORD}, {@code REDIS_SERVER}) with at least one house ad; the first one is updated and
+ * its description restored afterwards. Throughput is reported per mode, next to the optimistic retries and the
+ * writes that failed (lock not acquired, retries exhausted).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(8)
+public class HouseAdWriteBenchmark {
+
+    @Param({"LOCK", "OPTIMISTIC"})
+    public WriteMode mode;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private HouseAdWriteExecutor executor;
+    private HouseAdRepository repository;
+    private String houseAdId;
+    private String originalDescription;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WriteContext.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of("benchmark.write-mode", mode.name()))
+                .run();
+        executor = context.getBean(HouseAdWriteExecutor.class);
+        repository = context.getBean(HouseAdRepository.class);
+
+        var houseAd = repository.findAll(PageRequest.of(0, 1)).stream().findFirst()
+                .orElseThrow(() -> new IllegalStateException("The benchmark needs at least one house ad"));
+        houseAdId = houseAd.getHouseAdUid();
+        originalDescription = houseAd.getDescription();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.findByHouseAdUid(houseAdId).ifPresent(houseAd -> {
+            houseAd.setDescription(originalDescription);
+            repository.save(houseAd);
+        });
+        context.close();
+    }
+
+    @Benchmark
+    public boolean update(WriteCounters counters) {
+        var description = "benchmark write " + sequence.incrementAndGet();
+        try {
+            executor.execute("update", houseAdId, () -> {
+                counters.attempts++;
+                HouseAdEntity houseAd = repository.findByHouseAdUid(houseAdId).orElseThrow();
+                houseAd.setDescription(description);
+                return repository.save(houseAd);
+            });
+            counters.writes++;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            counters.failures++;
+            return false;
+        } catch (Exception e) {
+            counters.failures++;
+            return false;
+        }
+    }
+
+    /**
+     * Per-thread totals JMH prints next to the throughput; retries are the attempts beyond one per write.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WriteCounters {
+        public long writes;
+        public long failures;
+        public long attempts;
+
+        public long retries() {
+            return Math.max(0, attempts - writes - failures);
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            writes = 0;
+            failures = 0;
+            attempts = 0;
+        }
+    }
+
+    /**
+     * Only what a house ad write touches: the datasource, JPA, Redis and the executor.
+     */
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+    @EntityScan("com.dreamhouse.ai")
+    @EnableJpaRepositories(basePackageClasses = HouseAdRepository.class)
+    @Import({RedissonConfiguration.class, QueryKeyServiceImpl.class, HouseAdWriteExecutor.class})
+    static class WriteContext {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        HouseAdWriteProperties houseAdWriteProperties(Environment environment) {
+            var mode = WriteMode.valueOf(environment.getRequiredProperty("benchmark.write-mode"));
+            return new HouseAdWriteProperties(mode, Map.of(), null);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.dreamhouse.ai.llm.scan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Everything request validation and the input guardrails check on one message, done the old way (regexes,
+ * lowercase copies, split and {@code contains}, as kept in {@link TextScannerTest.Legacy}) and with one
+ * {@link TextScanner} pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class TextScannerBenchmark {
+    private static final String SEARCH = "3 bedroom house in Austin TX under $500k with parking, near good schools";
+
+    @Param({"greeting", "search", "long"})
+    public String input;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = switch (input) {
+            case "greeting" -> "hey there";
+            case "search" -> SEARCH;
+            default -> (SEARCH + ". ").repeat(2000 / (SEARCH.length() + 2));
+        };
+    }
+
+    @Benchmark
+    public int legacy() {
+        int verdicts = 0;
+        if (TextScannerTest.Legacy.controlCharacters(text)) verdicts |= 1;
+        if (!TextScannerTest.Legacy.ALLOWED.matcher(text).matches()) verdicts |= 2;
+        if (TextScannerTest.Legacy.unsafeHtml(text)) verdicts |= 4;
+        if (TextScannerTest.Legacy.promptLeak(text)) verdicts |= 8;
+        if (TextScannerTest.Legacy.words(text) > 10 && TextScannerTest.Legacy.repetitionRatio(text) > 0.6) verdicts |= 16;
+        if (text.chars().filter(ch -> ch == '\n').count() > 10) verdicts |= 32;
+        if (TextScannerTest.Legacy.promptInjection(text)) verdicts |= 64;
+        if (TextScannerTest.Legacy.greeting(text)) verdicts |= 128;
+        if (TextScannerTest.Legacy.redFlag(text)) verdicts |= 256;
+        return verdicts + text.codePointCount(0, text.length());
+    }
+
+    @Benchmark
+    public int scanner() {
+        var scan = TextScanner.scan(text);
+        int verdicts = 0;
+        if (scan.controlCharacters()) verdicts |= 1;
+        if (scan.unsupportedCharacters()) verdicts |= 2;
+        if (scan.has(Signal.UNSAFE_HTML)) verdicts |= 4;
+        if (scan.has(Signal.PROMPT_LEAK)) verdicts |= 8;
+        if (scan.words() > 10 && scan.repetitionRatio() > 0.6) verdicts |= 16;
+        if (scan.newlines() > 10) verdicts |= 32;
+        if (scan.has(Signal.PROMPT_INJECTION)) verdicts |= 64;
+        if (scan.has(Signal.GREETING)) verdicts |= 128;
+        if (scan.has(Signal.RED_FLAG)) verdicts |= 256;
+        return verdicts + scan.codePoints();
+    }
+}
@@ -1,12 +1,17 @@
 package com.dreamhouse.ai.authentication.configuration;
 
 import com.amazonaws.secretsmanager.caching.SecretCache;
+import com.dreamhouse.ai.authentication.configuration.properties.TokenProperties;
 import com.dreamhouse.ai.authentication.exception.SecurityKeyException;
 import com.dreamhouse.ai.cloud.service.SecretsService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -16,11 +21,18 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
 import java.util.Arrays;
 import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(TokenProperties.class)
 public class SecurityConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfiguration.class);
     private final SecretsService secretsService;
     private final String secretId;
 
@@ -65,6 +77,49 @@ public class SecurityConfiguration {
         }
     }
 
+    /**
+     * Ed25519 key pair used to sign and verify JWS tokens.
+     * Read from the {@code jwt-signing-private-key} (PKCS#8) and {@code jwt-signing-public-key} (X.509)
+     * fields of the JWT secret. Issuing JWS tokens without them fails startup, unless
+     * {@code security.token.ephemeral-signing-key} is set for local development. While JWE tokens are issued
+     * an ephemeral pair only backs verification, so no JWS token can pass until a key is configured.
+     */
+    @Bean
+    public KeyPair tokenSigningKeyPair(SecretCache cache, TokenProperties tokenProperties)
+            throws SecurityKeyException, JsonProcessingException {
+        String secretJson = cache.getSecretString(secretId);
+        String privateB64 = null;
+        String publicB64 = null;
+
+        if (secretJson != null && secretJson.trim().startsWith("{")) {
+            var node = new ObjectMapper().readTree(secretJson);
+            privateB64 = node.path("jwt-signing-private-key").asText(null);
+            publicB64 = node.path("jwt-signing-public-key").asText(null);
+        }
+
+        if (!StringUtils.hasText(privateB64) || !StringUtils.hasText(publicB64)) {
+            if (tokenProperties.format() == TokenProperties.TokenFormat.JWS && !tokenProperties.ephemeralSigningKey()) {
+                throw new SecurityKeyException("JWS tokens require jwt-signing-private-key and jwt-signing-public-key in " + secretId);
+            }
+            if (tokenProperties.format() == TokenProperties.TokenFormat.JWS) {
+                log.warn("No Ed25519 signing key configured; issuing JWS tokens with an ephemeral key pair (development only)");
+            }
+            return Jwts.SIG.EdDSA.keyPair().build();
+        }
+
+        byte[] rawPrivate = Decoders.BASE64.decode(privateB64.trim());
+        try {
+            var keyFactory = KeyFactory.getInstance("Ed25519");
+            var privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(rawPrivate));
+            var publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(Decoders.BASE64.decode(publicB64.trim())));
+            return new KeyPair(publicKey, privateKey);
+        } catch (GeneralSecurityException e) {
+            throw new SecurityKeyException("Invalid Ed25519 signing key: " + e.getMessage());
+        } finally {
+            Arrays.fill(rawPrivate, (byte)0);
+        }
+    }
+
 
     @Bean
     public UrlBasedCorsConfigurationSource corsConfiguration() {
@@ -0,0 +1,37 @@
+package com.dreamhouse.ai.authentication.configuration.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Format and lifetime of the bearer tokens issued at login.
+ * <p>
+ * {@code JWE} tokens are encrypted with the shared A256CBC-HS512 key. {@code JWS} tokens are compact
+ * Ed25519 signatures over the subject and authority codes only, which are cheaper to issue and verify.
+ * Both formats are always accepted, so the issued format can be switched without logging users out.
+ * </p>
+ *
+ * @param format              format of newly issued tokens
+ * @param ttl                 token lifetime
+ * @param ephemeralSigningKey development only: issue JWS tokens with a key pair generated at startup when no
+ *                            signing key is configured; such tokens are not accepted by other nodes or after
+ *                            a restart
+ */
+@ConfigurationProperties(prefix = "security.token")
+public record TokenProperties(
+        TokenFormat format,
+        Duration ttl,
+        Boolean ephemeralSigningKey
+) {
+    public TokenProperties {
+        if (format == null) format = TokenFormat.JWE;
+        if (ttl == null) ttl = Duration.ofHours(1);
+        if (ephemeralSigningKey == null) ephemeralSigningKey = false;
+    }
+
+    public enum TokenFormat {
+        JWE,
+        JWS
+    }
+}
@@ -49,6 +49,16 @@ public class UserAuthController {
         return ResponseEntity.ok(userService.editRoleAuthorities(roleAuthorityEditRequest));
     }
 
+    @WriteOperation
+    @PostMapping("/logout")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<String> logout() {
+        var authenticatedUsername = securityUtil.getAuthenticatedUser();
+        log.info("Logging out user");
+        userService.logout(authenticatedUsername);
+        return ResponseEntity.ok("Logged out");
+    }
+
     @DeleteOperation
     @DeleteMapping("/account-deletion/{userId}")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
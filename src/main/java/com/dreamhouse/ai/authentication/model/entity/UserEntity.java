@@ -1,5 +1,6 @@
 package com.dreamhouse.ai.authentication.model.entity;
 
+import com.dreamhouse.ai.authentication.security.principal.UserEntityListener;
 import com.dreamhouse.ai.house.model.entity.HouseAdEntity;
 import jakarta.persistence.*;
 import org.hibernate.annotations.Cache;
@@ -14,6 +15,7 @@ import java.util.*;
 @Entity
 @Cacheable
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(UserEntityListener.class)
 @Table(name = "users",
         indexes = {
                 @Index(name = "idx_users_userid", columnList = "users_id"),
@@ -2,8 +2,12 @@ package com.dreamhouse.ai.authentication.repository;
 
 import com.dreamhouse.ai.authentication.model.entity.UserEntity;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,4 +20,9 @@ public interface UserRepository extends CrudRepository<UserEntity, Long> {
     Optional<UserEntity> findByUserID(String userID);
     Boolean existsByUsername(String username);
     List<UserEntity> findAll();
+
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.authorizationToken = :token, u.version = u.version + 1 where u.userID = :userId")
+    int updateAuthorizationToken(@Param("userId") String userId, @Param("token") String token);
 }
@@ -4,8 +4,12 @@ import com.dreamhouse.ai.authentication.repository.UserRepository;
 import com.dreamhouse.ai.authentication.security.filter.AuthenticationFilter;
 import com.dreamhouse.ai.authentication.security.filter.AuthorizationFilter;
 import com.dreamhouse.ai.authentication.security.filter.ClientIpLoggingFilter;
+import com.dreamhouse.ai.authentication.security.token.TokenIssuer;
+import com.dreamhouse.ai.authentication.security.token.TokenVerifier;
+import com.dreamhouse.ai.authentication.service.impl.LoginActivityRecorder;
 import com.dreamhouse.ai.authentication.service.impl.UserServiceImpl;
 import com.dreamhouse.ai.authentication.util.SecurityUtil;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,8 +27,6 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import javax.crypto.SecretKey;
-
 
 @Configuration
 @EnableWebSecurity
@@ -34,7 +36,6 @@ public class WebSecurity {
     private final BCryptPasswordEncoder passwordEncoder;
     private final UserServiceImpl userService;
     private final UrlBasedCorsConfigurationSource corsConfigurationSource;
-    private final SecretKey key;
     private static final String AUTH_API_LOGIN_ENDPOINT = "/login";
     private static final String AUTH_API_REGISTER_ENDPOINT = "/api/v1/auth/register";
     private static final String HOUSE_ADS_API_GET_ENDPOINT = "/api/v1/houseAds";
@@ -42,12 +43,10 @@ public class WebSecurity {
     @Autowired
     public WebSecurity(BCryptPasswordEncoder passwordEncoder,
                        UserServiceImpl userService,
-                       UrlBasedCorsConfigurationSource corsConfigurationSource,
-                       SecretKey key) {
+                       UrlBasedCorsConfigurationSource corsConfigurationSource) {
         this.passwordEncoder = passwordEncoder;
         this.userService = userService;
         this.corsConfigurationSource = corsConfigurationSource;
-        this.key = key;
     }
 
 
@@ -55,7 +54,10 @@ public class WebSecurity {
     public SecurityFilterChain filterChain(HttpSecurity http,
                                            UserRepository userRepository,
                                            SecurityUtil securityUtil,
-                                           ClientIpLoggingFilter clientIpLoggingFilter) throws Exception {
+                                           ClientIpLoggingFilter clientIpLoggingFilter,
+                                           TokenIssuer tokenIssuer,
+                                           TokenVerifier tokenVerifier,
+                                           LoginActivityRecorder loginActivityRecorder) throws Exception {
         return http
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
@@ -63,14 +65,16 @@ public class WebSecurity {
                 .authenticationManager(authenticationManager(http))
                 .authorizeHttpRequests(request ->
                         request
+                                // completion of an already authorized async request (e.g. server-sent events)
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .requestMatchers(HttpMethod.POST,AUTH_API_LOGIN_ENDPOINT).permitAll()
                                 .requestMatchers(HttpMethod.POST, AUTH_API_REGISTER_ENDPOINT).permitAll()
                                 .requestMatchers(HttpMethod.GET, HOUSE_ADS_API_GET_ENDPOINT).permitAll()
                                 .anyRequest().authenticated())
                 .addFilterBefore(clientIpLoggingFilter, UsernamePasswordAuthenticationFilter.class)
-                .addFilterAt(new AuthenticationFilter(authenticationManager(http), userRepository, securityUtil, key),
+                .addFilterAt(new AuthenticationFilter(authenticationManager(http), userRepository, securityUtil, tokenIssuer, loginActivityRecorder),
                         UsernamePasswordAuthenticationFilter.class)
-                .addFilterAfter(new AuthorizationFilter(authenticationManager(http), key), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new AuthorizationFilter(authenticationManager(http), tokenVerifier), UsernamePasswordAuthenticationFilter.class)
                 .formLogin(AbstractHttpConfigurer::disable)
                 .build();
     }
@@ -3,15 +3,17 @@ package com.dreamhouse.ai.authentication.security.filter;
 import com.dreamhouse.ai.authentication.exception.AuthenticationFailedException;
 import com.dreamhouse.ai.authentication.model.request.LoginRequestModel;
 import com.dreamhouse.ai.authentication.repository.UserRepository;
+import com.dreamhouse.ai.authentication.security.token.TokenIssuer;
+import com.dreamhouse.ai.authentication.service.impl.LoginActivityRecorder;
 import com.dreamhouse.ai.authentication.util.SecurityUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -19,32 +21,30 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Date;
 
 public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
     private final Logger logger = LoggerFactory.getLogger(AuthenticationFilter.class);
     private static final String JWT_TOKEN_HEADER_PREFIX = "Bearer ";
-    private static final String JWT_TOKEN_CLAIMS_KEY = "Authorities";
     private static final String JWT_AUTHORIZATION_HEADER = "Authorization";
     private static final String JWT_CONTENT_TYPE = "application/json";
     private static final String AUTHENTICATION_FILTER_DEFAULT_LOGIN_URL = "/login";
     private final UserRepository userRepository;
     private final SecurityUtil securityUtil;
-    private final SecretKey key;
-
-    private static final long TOKEN_EXPIRATION = 3600000L;
+    private final TokenIssuer tokenIssuer;
+    private final LoginActivityRecorder loginActivityRecorder;
 
     public AuthenticationFilter(AuthenticationManager authenticationManager,
                                 UserRepository userRepository,
                                 SecurityUtil securityUtil,
-                                SecretKey key) {
+                                TokenIssuer tokenIssuer,
+                                LoginActivityRecorder loginActivityRecorder) {
         super.setAuthenticationManager(authenticationManager);
         this.userRepository = userRepository;
         this.securityUtil = securityUtil;
-        this.key = key;
+        this.tokenIssuer = tokenIssuer;
+        this.loginActivityRecorder = loginActivityRecorder;
         setFilterProcessesUrl(AUTHENTICATION_FILTER_DEFAULT_LOGIN_URL);
     }
 
@@ -52,8 +52,9 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
     public Authentication attemptAuthentication(HttpServletRequest request,
                                                 HttpServletResponse response) throws AuthenticationException {
 
+        LoginRequestModel credentials = null;
         try {
-            var credentials = new ObjectMapper()
+            credentials = new ObjectMapper()
                     .readValue(request.getInputStream(), LoginRequestModel.class);
 
             return getAuthenticationManager().authenticate(
@@ -66,6 +67,11 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
         } catch (IOException e) {
             logger.error("Failed to read login request body, details: {}", e.getMessage());
             throw new AuthenticationFailedException("Failed to read login request body");
+        } catch (BadCredentialsException e) {
+            if (credentials.username() != null && !credentials.username().isBlank())
+                loginActivityRecorder.recordFailure(credentials.username());
+            logger.error("Failed to authenticate user, details: {}", e.getMessage());
+            throw new AuthenticationFailedException("Failed to authenticate user");
         } catch (Exception e) {
             logger.error("Failed to authenticate user, details: {}", e.getMessage());
             throw new AuthenticationFailedException("Failed to authenticate user");
@@ -95,19 +101,12 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
             if (user.getAuthorizationToken() != null && securityUtil.isTokenValid(user.getAuthorizationToken())) {
                 tokenWithPrefix = user.getAuthorizationToken();
             } else {
-                String rawToken = Jwts.builder()
-                        .subject(username)
-                        .claim(JWT_TOKEN_CLAIMS_KEY, authorities)
-                        .issuedAt(new Date())
-                        .expiration(new Date(System.currentTimeMillis() + TOKEN_EXPIRATION))
-                        .encryptWith(key, Jwts.ENC.A256CBC_HS512)
-                        .compact();
+                String rawToken = tokenIssuer.issue(username, authorities);
                 tokenWithPrefix = JWT_TOKEN_HEADER_PREFIX + rawToken;
-                user.setAuthorizationToken(tokenWithPrefix);
+                loginActivityRecorder.storeToken(user, tokenWithPrefix);
             }
 
-            user.setLastLogin(new Date());
-            userRepository.save(user);
+            loginActivityRecorder.recordSuccess(username);
 
             response.addHeader(JWT_AUTHORIZATION_HEADER, tokenWithPrefix);
             response.setContentType(JWT_CONTENT_TYPE);
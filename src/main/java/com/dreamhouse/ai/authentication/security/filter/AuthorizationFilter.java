@@ -1,6 +1,6 @@
 package com.dreamhouse.ai.authentication.security.filter;
 
-import io.jsonwebtoken.Jwts;
+import com.dreamhouse.ai.authentication.security.token.TokenVerifier;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,29 +17,22 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.util.StringUtils;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-
-import static java.util.stream.Collectors.toList;
 
 public class AuthorizationFilter extends BasicAuthenticationFilter {
     private static final Logger log = LoggerFactory.getLogger(AuthorizationFilter.class);
     private static final String JWT_TOKEN_HEADER_PREFIX = "Bearer ";
     private static final String JWT_CONTENT_TYPE = "application/json";
-    private static final String JWT_TOKEN_CLAIMS_KEY = "Authorities";
     private static final String AUTH_API_LOGIN_ENDPOINT = "/login";
     private static final String AUTH_API_REGISTER_ENDPOINT = "/api/v1/auth/register";
     private static final String HOUSE_ADS_API_GET_ENDPOINT = "/api/v1/houseAds";
     private static final String HTTP_OPTIONS_HEADER = "OPTIONS";
     private static final String HTTP_GET_HEADER = "GET";
-    private final SecretKey key;
+    private final TokenVerifier tokenVerifier;
 
-    public AuthorizationFilter(AuthenticationManager authenticationManager, SecretKey key) {
+    public AuthorizationFilter(AuthenticationManager authenticationManager, TokenVerifier tokenVerifier) {
         super(authenticationManager);
-        this.key = key;
+        this.tokenVerifier = tokenVerifier;
     }
 
     @Override
@@ -74,13 +67,9 @@ public class AuthorizationFilter extends BasicAuthenticationFilter {
         }
 
         try {
-            var claims = Jwts.parser()
-                    .decryptWith(key)
-                    .build()
-                    .parseEncryptedClaims(token)
-                    .getPayload();
+            var verified = tokenVerifier.verify(token);
 
-            String username = claims.getSubject();
+            String username = verified.subject();
             if (!StringUtils.hasText(username)) {
                 log.error("Invalid token subject");
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -89,15 +78,9 @@ public class AuthorizationFilter extends BasicAuthenticationFilter {
                 return;
             }
 
-            Collection<SimpleGrantedAuthority> authorities = Collections.emptyList();
-            Object rawAuthorities = claims.get(JWT_TOKEN_CLAIMS_KEY);
-            if (rawAuthorities instanceof List<?> list) {
-                authorities = list.stream()
-                        .filter(String.class::isInstance)
-                        .map(String.class::cast)
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(toList());
-            }
+            var authorities = verified.authorities().stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .toList();
 
             var auth = new UsernamePasswordAuthenticationToken(username, null, authorities);
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
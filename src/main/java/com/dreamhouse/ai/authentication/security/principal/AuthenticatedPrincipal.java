@@ -0,0 +1,46 @@
+package com.dreamhouse.ai.authentication.security.principal;
+
+import com.dreamhouse.ai.authentication.model.entity.AuthorityEntity;
+import com.dreamhouse.ai.authentication.model.entity.UserEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the user fields needed to authorize a request.
+ *
+ * @param userId           public user id
+ * @param username         login name
+ * @param tokenFingerprint SHA-256 of the stored authorization token, or {@code null} if none is stored
+ * @param authorities      role names and authority codes granted through the user's roles
+ * @param version          {@code @Version} of the entity the snapshot was taken from
+ */
+public record AuthenticatedPrincipal(String userId,
+                                     String username,
+                                     String tokenFingerprint,
+                                     List<String> authorities,
+                                     long version) {
+
+    public static AuthenticatedPrincipal of(UserEntity entity) {
+        var authorities = entity.getRoles().stream()
+                .flatMap(role -> {
+                    var grants = new ArrayList<String>();
+                    grants.add(role.getName());
+                    if (role.getAuthorities() != null) {
+                        role.getAuthorities().stream()
+                                .map(AuthorityEntity::getName)
+                                .forEach(grants::add);
+                    }
+                    return grants.stream();
+                })
+                .distinct()
+                .toList();
+
+        return new AuthenticatedPrincipal(
+                entity.getUserID(),
+                entity.getUsername(),
+                PrincipalCache.fingerprint(entity.getAuthorizationToken()),
+                authorities,
+                entity.getVersion() == null ? 0L : entity.getVersion());
+    }
+}
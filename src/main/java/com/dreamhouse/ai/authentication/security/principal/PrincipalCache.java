@@ -0,0 +1,192 @@
+package com.dreamhouse.ai.authentication.security.principal;
+
+import com.dreamhouse.ai.authentication.exception.UserIDNotFoundException;
+import com.dreamhouse.ai.authentication.model.entity.UserEntity;
+import com.dreamhouse.ai.authentication.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Shared cache of {@link AuthenticatedPrincipal} snapshots, so a request resolves its user once instead of
+ * once per filter, utility and service it passes through.
+ * <p>
+ * Lookups are memoized on the current request first, then served from a node-local cache, and only then
+ * loaded from the database. Every {@link UserEntity} change is reported by {@link UserEntityListener} with
+ * the new {@code @Version}; the cached snapshot is dropped on every node through a Redis topic, and the
+ * version is kept as a floor so that a concurrent load which still reads the pre-commit row is not cached.
+ * Role authority edits affect many users at once and clear the whole cache.
+ * </p>
+ */
+@Component
+public class PrincipalCache {
+    private static final Logger log = LoggerFactory.getLogger(PrincipalCache.class);
+    private static final String INVALIDATION_TOPIC = "auth:principal:invalidate";
+    private static final String INVALIDATE_ALL = "*";
+    private static final String REQUEST_ATTRIBUTE_PREFIX = PrincipalCache.class.getName() + ".";
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final UserRepository userRepository;
+    private final RedissonClient redissonClient;
+    private final Cache<String, AuthenticatedPrincipal> byUsername;
+    private final Cache<String, String> usernamesByUserId;
+    private final Cache<String, Long> versionFloors;
+    private RTopic invalidations;
+    private int listenerId = -1;
+
+    @Autowired
+    public PrincipalCache(UserRepository userRepository,
+                          RedissonClient redissonClient) {
+        this.userRepository = userRepository;
+        this.redissonClient = redissonClient;
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(TTL)
+                .build();
+        this.usernamesByUserId = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(TTL)
+                .build();
+        this.versionFloors = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(TTL)
+                .build();
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        invalidations = redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+        listenerId = invalidations.addListener(String.class, (channel, message) -> {
+            if (INVALIDATE_ALL.equals(message)) {
+                clear();
+                return;
+            }
+            var parts = message.split("\\|", 3);
+            if (parts.length == 3) {
+                forget(parts[1], parts[2], Long.parseLong(parts[0]));
+            }
+        });
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        if (invalidations != null && listenerId != -1) invalidations.removeListener(listenerId);
+    }
+
+    /**
+     * Resolves the principal for a username.
+     * @throws UsernameNotFoundException if no such user exists
+     */
+    public AuthenticatedPrincipal findByUsername(String username) {
+        return memoized("username:" + username, () -> {
+            var cached = byUsername.getIfPresent(username);
+            if (cached != null) return cached;
+
+            var loaded = userRepository.findByUsername(username)
+                    .map(AuthenticatedPrincipal::of)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            return remember(loaded);
+        });
+    }
+
+    /**
+     * Resolves the principal for a public user id.
+     * @throws UserIDNotFoundException if no such user exists
+     */
+    public AuthenticatedPrincipal findByUserId(String userId) {
+        return memoized("userId:" + userId, () -> {
+            var username = usernamesByUserId.getIfPresent(userId);
+            var cached = username == null ? null : byUsername.getIfPresent(username);
+            if (cached != null) return cached;
+
+            var loaded = userRepository.findByUserID(userId)
+                    .map(AuthenticatedPrincipal::of)
+                    .orElseThrow(() -> new UserIDNotFoundException("User not found"));
+            return remember(loaded);
+        });
+    }
+
+    /**
+     * Drops a user's snapshot on every node and refuses snapshots older than {@code version}.
+     */
+    public void changed(String userId, String username, Long version) {
+        long floor = version == null ? Long.MAX_VALUE : version;
+        forget(userId, username, floor);
+        invalidations.publish(floor + "|" + userId + "|" + username);
+    }
+
+    /**
+     * Drops every snapshot on every node, for changes that affect many users such as role edits.
+     */
+    public void invalidateAll() {
+        clear();
+        invalidations.publish(INVALIDATE_ALL);
+    }
+
+    /**
+     * SHA-256 of a stored or presented token, so snapshots never hold the token itself.
+     * @return the hex digest, or {@code null} for a {@code null} token
+     */
+    public static String fingerprint(String token) {
+        if (token == null) return null;
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private AuthenticatedPrincipal remember(AuthenticatedPrincipal principal) {
+        var floor = versionFloors.getIfPresent(principal.userId());
+        if (floor != null && principal.version() < floor) {
+            log.debug("Not caching stale principal snapshot v{} < v{}", principal.version(), floor);
+            return principal;
+        }
+        byUsername.put(principal.username(), principal);
+        usernamesByUserId.put(principal.userId(), principal.username());
+        return principal;
+    }
+
+    private void forget(String userId, String username, long floor) {
+        versionFloors.asMap().merge(userId, floor, Math::max);
+        byUsername.invalidate(username);
+        usernamesByUserId.invalidate(userId);
+    }
+
+    private void clear() {
+        byUsername.invalidateAll();
+        usernamesByUserId.invalidateAll();
+    }
+
+    private static AuthenticatedPrincipal memoized(String key, Supplier<AuthenticatedPrincipal> lookup) {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return lookup.get();
+
+        var attribute = REQUEST_ATTRIBUTE_PREFIX + key;
+        if (attributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST) instanceof AuthenticatedPrincipal principal) {
+            return principal;
+        }
+        var principal = lookup.get();
+        attributes.setAttribute(attribute, principal, RequestAttributes.SCOPE_REQUEST);
+        return principal;
+    }
+}
@@ -0,0 +1,31 @@
+package com.dreamhouse.ai.authentication.security.principal;
+
+import com.dreamhouse.ai.authentication.model.entity.UserEntity;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports every change to a {@link UserEntity} to the {@link PrincipalCache}.
+ * The cache is resolved lazily because entity listeners are created while the persistence unit,
+ * which the cache depends on, is still being built.
+ */
+@Component
+public class UserEntityListener {
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public UserEntityListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    void onUpdate(UserEntity entity) {
+        principalCache.ifAvailable(cache -> cache.changed(entity.getUserID(), entity.getUsername(), entity.getVersion()));
+    }
+
+    @PostRemove
+    void onRemove(UserEntity entity) {
+        principalCache.ifAvailable(cache -> cache.changed(entity.getUserID(), entity.getUsername(), Long.MAX_VALUE));
+    }
+}
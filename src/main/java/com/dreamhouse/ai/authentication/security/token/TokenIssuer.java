@@ -0,0 +1,66 @@
+package com.dreamhouse.ai.authentication.security.token;
+
+import com.dreamhouse.ai.authentication.configuration.properties.TokenProperties;
+import com.dreamhouse.ai.authentication.configuration.properties.TokenProperties.TokenFormat;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Issues bearer tokens in the format selected by {@code security.token.format}.
+ * <p>
+ * JWE tokens are encrypted with the shared A256CBC-HS512 key. JWS tokens are signed with Ed25519 and carry
+ * only the subject, the authority codes and the issue/expiry times, since nothing in them is secret.
+ * </p>
+ */
+@Component
+public class TokenIssuer {
+    private static final String JWT_TOKEN_CLAIMS_KEY = "Authorities";
+    private final TokenProperties properties;
+    private final SecretKey secretKey;
+    private final KeyPair signingKeyPair;
+    private final Timer issueTimer;
+
+    @Autowired
+    public TokenIssuer(TokenProperties properties,
+                       SecretKey secretKey,
+                       KeyPair tokenSigningKeyPair,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.secretKey = secretKey;
+        this.signingKeyPair = tokenSigningKeyPair;
+        this.issueTimer = Timer.builder("auth.token.issue")
+                .description("Time spent issuing bearer tokens")
+                .tag("format", properties.format().name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Issues a compact token for the user.
+     *
+     * @param username    token subject
+     * @param authorities authority codes granted to the user
+     * @return the compact token, without the {@code Bearer } prefix
+     */
+    public String issue(String username, Collection<String> authorities) {
+        return issueTimer.record(() -> {
+            var now = System.currentTimeMillis();
+            var builder = Jwts.builder()
+                    .subject(username)
+                    .claim(JWT_TOKEN_CLAIMS_KEY, authorities)
+                    .issuedAt(new Date(now))
+                    .expiration(new Date(now + properties.ttl().toMillis()));
+
+            return properties.format() == TokenFormat.JWS
+                    ? builder.signWith(signingKeyPair.getPrivate(), Jwts.SIG.EdDSA).compact()
+                    : builder.encryptWith(secretKey, Jwts.ENC.A256CBC_HS512).compact();
+        });
+    }
+}
@@ -0,0 +1,290 @@
+package com.dreamhouse.ai.authentication.security.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Verifies bearer tokens and remembers the verified claims until the token expires.
+ * <p>
+ * Decrypting an A256CBC-HS512 JWE is the most expensive step of every authenticated request, and the same
+ * token is presented again and again for its whole lifetime. Verified claims are cached under the SHA-256
+ * of the compact token, so the token itself is never held as a key, and each entry expires at the token's
+ * {@code exp}. Parsers are built once and shared, since {@link JwtParser} is immutable and thread-safe.
+ * </p>
+ * <p>
+ * Both encrypted (JWE, five segments) and Ed25519-signed (JWS, three segments) tokens are accepted, whatever
+ * format is currently issued, so switching formats does not invalidate tokens already handed out.
+ * </p>
+ * <p>
+ * Revoked tokens (logout, account deletion) are recorded in Redis under their hash, with a TTL of the token's
+ * remaining lifetime, and the store is checked before a token is verified and cached. The revocation is also
+ * broadcast on a Redis topic so other nodes drop their cached entry at once; a node that misses the message
+ * still consults the store once its entry is rechecked, at most {@code VERIFIED_RECHECK} later. If Redis is
+ * unreachable, tokens are accepted on their signature alone.
+ * </p>
+ */
+@Component
+public class TokenVerifier {
+    private static final Logger log = LoggerFactory.getLogger(TokenVerifier.class);
+    private static final String BEARER_TOKEN_PREFIX = "Bearer ";
+    private static final String JWT_TOKEN_CLAIMS_KEY = "Authorities";
+    private static final String REVOCATION_TOPIC = "auth:token:revoke";
+    private static final String REVOKED_KEY_PREFIX = "auth:token:revoked:";
+    private static final Duration VERIFIED_RECHECK = Duration.ofMinutes(5);
+    private static final long CLOCK_SKEW_SECONDS = 60;
+    private static final long MAX_CACHED_TOKENS = 50_000;
+
+    private final JwtParser jweParser;
+    private final JwtParser jwsParser;
+    private final RedissonClient redissonClient;
+    private final Cache<String, VerifiedToken> verified;
+    private final Cache<String, Instant> revoked;
+    private final Timer jweTimer;
+    private final Timer jwsTimer;
+    private final Counter hits;
+    private final Counter misses;
+    private RTopic revocations;
+    private int listenerId = -1;
+
+    @Autowired
+    public TokenVerifier(SecretKey secretKey,
+                         KeyPair tokenSigningKeyPair,
+                         RedissonClient redissonClient,
+                         MeterRegistry meterRegistry) {
+        this.jweParser = Jwts.parser()
+                .decryptWith(secretKey)
+                .clockSkewSeconds(CLOCK_SKEW_SECONDS)
+                .build();
+        this.jwsParser = Jwts.parser()
+                .verifyWith(tokenSigningKeyPair.getPublic())
+                .clockSkewSeconds(CLOCK_SKEW_SECONDS)
+                .build();
+        this.redissonClient = redissonClient;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_TOKENS)
+                .expireAfter(TokenVerifier.<VerifiedToken>untilExpiry(TokenVerifier::recheckAt))
+                .build();
+        this.revoked = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_TOKENS)
+                .expireAfter(TokenVerifier.<Instant>untilExpiry(Function.identity()))
+                .build();
+        this.jweTimer = verifyTimer("jwe", meterRegistry);
+        this.jwsTimer = verifyTimer("jws", meterRegistry);
+        this.hits = Counter.builder("auth.token.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.token.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void subscribeToRevocations() {
+        revocations = redissonClient.getTopic(REVOCATION_TOPIC, StringCodec.INSTANCE);
+        listenerId = revocations.addListener(String.class, (channel, message) -> {
+            int separator = message.indexOf(':');
+            if (separator < 0) return;
+            var hash = message.substring(0, separator);
+            var expiresAt = Instant.ofEpochMilli(Long.parseLong(message.substring(separator + 1)));
+            forget(hash, expiresAt);
+        });
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        if (revocations != null && listenerId != -1) revocations.removeListener(listenerId);
+    }
+
+    /**
+     * Returns the verified claims of a compact token, decrypting it only on a cache miss.
+     *
+     * @param token compact token, with or without the {@code Bearer } prefix
+     * @return the verified claims
+     * @throws JwtException if the token is malformed, expired, tampered with or revoked
+     */
+    public VerifiedToken verify(String token) {
+        var compact = stripPrefix(token);
+        if (compact.isEmpty()) {
+            throw new JwtException("Empty token");
+        }
+
+        var hash = hash(compact);
+        if (revoked.getIfPresent(hash) != null) {
+            throw new JwtException("Token has been revoked");
+        }
+
+        var cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        var revokedUntil = revokedInStore(hash);
+        if (revokedUntil != null) {
+            revoked.put(hash, revokedUntil);
+            throw new JwtException("Token has been revoked");
+        }
+        var claims = isSigned(compact)
+                ? jwsTimer.record(() -> jwsParser.parseSignedClaims(compact).getPayload())
+                : jweTimer.record(() -> jweParser.parseEncryptedClaims(compact).getPayload());
+        var verifiedToken = toVerifiedToken(claims);
+        verified.put(hash, verifiedToken);
+        return verifiedToken;
+    }
+
+    /**
+     * Stops accepting a token on every node until it expires.
+     * Tokens that cannot be verified are ignored, since they are rejected anyway.
+     *
+     * @param token compact token, with or without the {@code Bearer } prefix
+     */
+    public void revoke(String token) {
+        if (token == null) return;
+        var compact = stripPrefix(token);
+        if (compact.isEmpty()) return;
+
+        Instant expiresAt;
+        try {
+            expiresAt = verify(compact).expiresAt();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("revoke - token not verifiable, nothing to revoke: {}", e.getMessage());
+            return;
+        }
+
+        var hash = hash(compact);
+        forget(hash, expiresAt);
+        var until = expiresAt.plusSeconds(CLOCK_SKEW_SECONDS);
+        var remaining = Duration.between(Instant.now(), until);
+        if (!remaining.isNegative() && !remaining.isZero()) {
+            redissonClient.<String>getBucket(REVOKED_KEY_PREFIX + hash, StringCodec.INSTANCE)
+                    .set(Long.toString(until.toEpochMilli()), remaining);
+        }
+        revocations.publish(hash + ":" + expiresAt.toEpochMilli());
+    }
+
+    /**
+     * @return until when the token is revoked, or {@code null} if it is not or Redis cannot be reached
+     */
+    private Instant revokedInStore(String hash) {
+        try {
+            var until = redissonClient.<String>getBucket(REVOKED_KEY_PREFIX + hash, StringCodec.INSTANCE).get();
+            return until == null ? null : Instant.ofEpochMilli(Long.parseLong(until));
+        } catch (RedisException e) {
+            log.warn("verify - Redis unavailable, revocations not checked", e);
+            return null;
+        }
+    }
+
+    private void forget(String hash, Instant expiresAt) {
+        verified.invalidate(hash);
+        revoked.put(hash, expiresAt.plusSeconds(CLOCK_SKEW_SECONDS));
+    }
+
+    /**
+     * Verified claims are dropped at the token's expiry or after {@code VERIFIED_RECHECK}, whichever comes
+     * first, so a missed revocation broadcast is caught by the next lookup in the store.
+     */
+    private static Instant recheckAt(VerifiedToken token) {
+        var recheck = Instant.now().plus(VERIFIED_RECHECK);
+        return token.expiresAt().isBefore(recheck) ? token.expiresAt() : recheck;
+    }
+
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        List<String> authorities = Collections.emptyList();
+        if (claims.get(JWT_TOKEN_CLAIMS_KEY) instanceof List<?> list) {
+            authorities = list.stream()
+                    .filter(String.class::isInstance)
+                    .map(String.class::cast)
+                    .toList();
+        }
+        var expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new JwtException("Token has no expiration");
+        }
+        return new VerifiedToken(claims.getSubject(), authorities, expiration.toInstant());
+    }
+
+    /**
+     * A compact JWS has three segments, a compact JWE five.
+     */
+    private static boolean isSigned(String compact) {
+        int dots = 0;
+        for (int i = 0; i < compact.length(); i++) {
+            if (compact.charAt(i) == '.') dots++;
+        }
+        return dots == 2;
+    }
+
+    private static Timer verifyTimer(String format, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.token.verify")
+                .description("Time spent decrypting or verifying bearer tokens on a cache miss")
+                .tag("format", format)
+                .register(meterRegistry);
+    }
+
+    private static String stripPrefix(String token) {
+        var trimmed = token == null ? "" : token.trim();
+        return trimmed.startsWith(BEARER_TOKEN_PREFIX)
+                ? trimmed.substring(BEARER_TOKEN_PREFIX.length()).trim()
+                : trimmed;
+    }
+
+    private static String hash(String compact) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(compact.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static <V> Expiry<String, V> untilExpiry(Function<V, Instant> expiresAt) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, V value, long currentTime) {
+                return Math.max(0, Duration.between(Instant.now(), expiresAt.apply(value)).toNanos());
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
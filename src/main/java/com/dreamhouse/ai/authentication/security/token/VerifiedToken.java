@@ -0,0 +1,14 @@
+package com.dreamhouse.ai.authentication.security.token;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a bearer token that has already passed cryptographic verification.
+ *
+ * @param subject     username the token was issued to
+ * @param authorities authority codes carried by the token
+ * @param expiresAt   instant after which the token must no longer be accepted
+ */
+public record VerifiedToken(String subject, List<String> authorities, Instant expiresAt) {
+}
@@ -40,6 +40,12 @@ public interface UserService {
      * @param userId the unique identifier of the user to delete
      */
     void deleteAccount(String userId);
+
+    /**
+     * Logs a user out by discarding their stored authorization token and revoking it on every node.
+     * @param username the username of the authenticated user
+     */
+    void logout(String username);
     
     /**
      * Adds or updates the billing address for a user.
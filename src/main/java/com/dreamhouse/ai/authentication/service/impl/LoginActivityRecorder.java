@@ -0,0 +1,203 @@
+package com.dreamhouse.ai.authentication.service.impl;
+
+import com.dreamhouse.ai.authentication.model.entity.UserEntity;
+import com.dreamhouse.ai.authentication.repository.UserRepository;
+import com.dreamhouse.ai.authentication.security.principal.PrincipalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for login bookkeeping (last login time, failed attempts and account lockout).
+ * <p>
+ * Saving the whole {@link UserEntity} on every login bumps its {@code @Version} and makes concurrent logins
+ * of one account fail with optimistic-lock errors, while the login response waits on the write. Instead,
+ * outcomes are folded into one pending record per username in memory and flushed every few seconds as a
+ * single set-based {@code UPDATE ... FROM unnest(...)} that touches only the bookkeeping columns and leaves
+ * the version alone. Failure counts are deltas, so several nodes flushing the same account add up correctly.
+ * A crash loses at most one flush interval of bookkeeping, which is acceptable for this data.
+ * </p>
+ */
+@Component
+public class LoginActivityRecorder {
+    private static final Logger log = LoggerFactory.getLogger(LoginActivityRecorder.class);
+    private static final Duration FLUSH_INTERVAL = Duration.ofSeconds(5);
+    private static final int MAX_FAILED_ATTEMPTS = 5;
+    private static final Duration LOCKOUT = Duration.ofMinutes(15);
+    private static final String FLUSH_SQL = """
+            UPDATE users u SET
+                last_login = COALESCE(v.last_login, u.last_login),
+                failed_login_attempts = CASE WHEN v.reset THEN 0 ELSE COALESCE(u.failed_login_attempts, 0) END + v.failures,
+                account_locked_until = CASE
+                    WHEN (CASE WHEN v.reset THEN 0 ELSE COALESCE(u.failed_login_attempts, 0) END + v.failures) >= :maxFailures
+                        THEN :lockedUntil
+                    WHEN v.reset THEN NULL
+                    ELSE u.account_locked_until
+                END
+            FROM unnest(cast(:usernames as text[]),
+                        cast(:lastLogins as timestamp[]),
+                        cast(:resets as boolean[]),
+                        cast(:failures as integer[])) AS v(username, last_login, reset, failures)
+            WHERE u.username = v.username
+            """;
+
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter flushedRows;
+    private final ConcurrentHashMap<String, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        var t = new Thread(r, "login-activity-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    public LoginActivityRecorder(UserRepository userRepository,
+                                 PrincipalCache principalCache,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushedRows = Counter.builder("auth.login.bookkeeping.flushed")
+                .description("User rows updated by login bookkeeping flushes")
+                .register(meterRegistry);
+        long period = FLUSH_INTERVAL.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushSafely, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a successful login; clears failed attempts and any lockout on the next flush.
+     */
+    public void recordSuccess(String username) {
+        var now = LocalDateTime.now();
+        pending.compute(username, (name, current) -> {
+            var next = current == null ? new Pending() : current;
+            next.lastLogin = now;
+            next.reset = true;
+            next.failures = 0;
+            return next;
+        });
+    }
+
+    /**
+     * Records a failed login attempt; the account is locked once the stored count reaches the limit.
+     */
+    public void recordFailure(String username) {
+        pending.compute(username, (name, current) -> {
+            var next = current == null ? new Pending() : current;
+            next.failures++;
+            return next;
+        });
+    }
+
+    /**
+     * Persists a newly issued authorization token right away, since the next request is validated against it.
+     * Only the token column is written; the version is bumped so cached principals are refreshed.
+     */
+    public void storeToken(UserEntity user, String tokenWithPrefix) {
+        userRepository.updateAuthorizationToken(user.getUserID(), tokenWithPrefix);
+        long version = user.getVersion() == null ? 1L : user.getVersion() + 1;
+        principalCache.changed(user.getUserID(), user.getUsername(), version);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flushSafely();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Login bookkeeping flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) return;
+
+        var usernames = new ArrayList<String>();
+        var lastLogins = new ArrayList<LocalDateTime>();
+        var resets = new ArrayList<Boolean>();
+        var failures = new ArrayList<Integer>();
+        for (var username : pending.keySet()) {
+            var drained = pending.remove(username);
+            if (drained == null) continue;
+            usernames.add(username);
+            lastLogins.add(drained.lastLogin);
+            resets.add(drained.reset);
+            failures.add(drained.failures);
+        }
+        if (usernames.isEmpty()) return;
+
+        try {
+            Integer updated = transactionTemplate.execute(status -> em.createNativeQuery(FLUSH_SQL)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(UserEntity.class)
+                    .setParameter("usernames", usernames.toArray(String[]::new))
+                    .setParameter("lastLogins", lastLogins.toArray(LocalDateTime[]::new))
+                    .setParameter("resets", resets.toArray(Boolean[]::new))
+                    .setParameter("failures", failures.toArray(Integer[]::new))
+                    .setParameter("maxFailures", MAX_FAILED_ATTEMPTS)
+                    .setParameter("lockedUntil", LocalDateTime.now().plus(LOCKOUT))
+                    .executeUpdate());
+            flushedRows.increment(updated == null ? 0 : updated);
+            log.debug("Flushed login bookkeeping for {} users", usernames.size());
+        } catch (RuntimeException e) {
+            for (int i = 0; i < usernames.size(); i++) {
+                requeue(usernames.get(i), lastLogins.get(i), resets.get(i), failures.get(i));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Puts a drained record back after a failed flush, merged with anything recorded since.
+     */
+    private void requeue(String username, LocalDateTime lastLogin, boolean reset, int failures) {
+        pending.compute(username, (name, newer) -> {
+            if (newer == null) {
+                var restored = new Pending();
+                restored.lastLogin = lastLogin;
+                restored.reset = reset;
+                restored.failures = failures;
+                return restored;
+            }
+            if (!newer.reset) {
+                newer.reset = reset;
+                newer.failures += failures;
+                if (newer.lastLogin == null) newer.lastLogin = lastLogin;
+            }
+            return newer;
+        });
+    }
+
+    private static final class Pending {
+        private LocalDateTime lastLogin;
+        private boolean reset;
+        private int failures;
+    }
+}
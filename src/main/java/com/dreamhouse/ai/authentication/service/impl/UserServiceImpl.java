@@ -15,6 +15,8 @@ import com.dreamhouse.ai.authentication.model.security.User;
 import com.dreamhouse.ai.authentication.repository.AuthorityRepository;
 import com.dreamhouse.ai.authentication.repository.RoleRepository;
 import com.dreamhouse.ai.authentication.repository.UserRepository;
+import com.dreamhouse.ai.authentication.security.principal.PrincipalCache;
+import com.dreamhouse.ai.authentication.security.token.TokenVerifier;
 import com.dreamhouse.ai.authentication.service.UserService;
 import com.dreamhouse.ai.cache.service.impl.QueryKeyServiceImpl;
 import com.dreamhouse.ai.house.model.entity.HouseAdImageEntity;
@@ -57,6 +59,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     private final QueryKeyServiceImpl queryKeyService;
     private final ApplicationEventPublisher eventPublisher;
     private final UserMapper userMapper;
+    private final TokenVerifier tokenVerifier;
+    private final PrincipalCache principalCache;
     private final ConcurrentHashMap<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
 
     @Autowired
@@ -67,7 +71,9 @@ public class UserServiceImpl implements UserService, UserDetailsService {
                            RedissonClient redissonClient,
                            QueryKeyServiceImpl queryKeyService,
                            ApplicationEventPublisher eventPublisher,
-                           UserMapper userMapper) {
+                           UserMapper userMapper,
+                           TokenVerifier tokenVerifier,
+                           PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.authorityRepository = authorityRepository;
@@ -76,6 +82,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         this.queryKeyService = queryKeyService;
         this.eventPublisher = eventPublisher;
         this.userMapper = userMapper;
+        this.tokenVerifier = tokenVerifier;
+        this.principalCache = principalCache;
     }
 
     @Transactional
@@ -164,6 +172,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
             }
 
             roleRepository.save(role);
+            principalCache.invalidateAll();
 
             log.info("editRoleAuthorities - {} authorities on role", add ? "added" : "removed");
             return Boolean.TRUE;
@@ -197,13 +206,31 @@ public class UserServiceImpl implements UserService, UserDetailsService {
                 .distinct()
                 .toList();
 
+        var authorizationToken = userEntity.getAuthorizationToken();
         userRepository.delete(userEntity);
+        tokenVerifier.revoke(authorizationToken);
         if (!storageKeys.isEmpty()) {
                 eventPublisher.publishEvent(new ImageDeleteBatchEvent(storageKeys));
                 log.info("S3 images queued to be deleted");
         }
     }
 
+    @Override
+    @Transactional
+    public void logout(String username) {
+        var userEntity = userRepository
+                .findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        var authorizationToken = userEntity.getAuthorizationToken();
+        if (authorizationToken == null) return;
+
+        userEntity.setAuthorizationToken(null);
+        userRepository.save(userEntity);
+        tokenVerifier.revoke(authorizationToken);
+        log.info("logout - Authorization token revoked");
+    }
+
     @Override
     @Cacheable(value = "users", key = "#username")
     @Transactional(readOnly = true)
@@ -265,17 +292,12 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     @Transactional(readOnly = true)
     @Override
     public UserDetails loadUserByUsername(String username) {
-        if (!userRepository.existsByUsername(username)) {
-            log.warn("loadUserByUsername - User not found: {}", username);
-            throw new UsernameNotFoundException("User not found");
-        }
-
         return userRepository
                 .findByUsername(username)
                 .map(User::new)
                 .orElseThrow(() -> {
-                    log.info("loadUserByUsername - User found");
-                    return new UsernameNotFoundException("User couldn't be fetched");
+                    log.warn("loadUserByUsername - User not found: {}", username);
+                    return new UsernameNotFoundException("User not found");
                 });
     }
 
@@ -1,37 +1,34 @@
 package com.dreamhouse.ai.authentication.util;
 
 import com.dreamhouse.ai.authentication.exception.AuthenticatedUserNotFound;
-import com.dreamhouse.ai.authentication.exception.UserIDNotFoundException;
-import com.dreamhouse.ai.authentication.repository.UserRepository;
-import io.jsonwebtoken.Jwts;
+import com.dreamhouse.ai.authentication.security.principal.PrincipalCache;
+import com.dreamhouse.ai.authentication.security.token.TokenVerifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import javax.crypto.SecretKey;
 import java.time.Instant;
-import java.util.Date;
+
 
 @Component
 public class SecurityUtil {
     private static final Logger log = LoggerFactory.getLogger(SecurityUtil.class);
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_TOKEN_PREFIX = "Bearer ";
-    private final UserRepository userRepository;
-    private final SecretKey secretKey;
+    private final PrincipalCache principalCache;
+    private final TokenVerifier tokenVerifier;
 
 
     @Autowired
-    public SecurityUtil(UserRepository userRepository,
-                        SecretKey secretKey) {
-        this.userRepository = userRepository;
-        this.secretKey = secretKey;
+    public SecurityUtil(PrincipalCache principalCache,
+                        TokenVerifier tokenVerifier) {
+        this.principalCache = principalCache;
+        this.tokenVerifier = tokenVerifier;
     }
 
     public boolean isTokenValid(String rawToken) {
@@ -39,11 +36,7 @@ public class SecurityUtil {
         final String token = rawToken.replaceFirst("^Bearer\\s+", "");
 
         try {
-            Jwts.parser()
-                    .decryptWith(secretKey)
-                    .clockSkewSeconds(60)
-                    .build()
-                    .parseEncryptedClaims(token);
+            tokenVerifier.verify(token);
             return true;
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
             log.info("Token expired at {}", e.getClaims().getExpiration());
@@ -75,12 +68,13 @@ public class SecurityUtil {
 
 
     private Boolean isUserTokenValid(String token, String queriedUserId, String username) {
-        var user = userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        var userQueried = userRepository.findByUserID(queriedUserId).orElseThrow(() -> new UserIDNotFoundException("User not found"));
+        var user = principalCache.findByUsername(username);
+        var userQueried = principalCache.findByUserId(queriedUserId);
+        var presented = PrincipalCache.fingerprint(token);
 
-        if (user.getAuthorizationToken() == null ||
-                !user.getAuthorizationToken().equals(token) ||
-                !user.getAuthorizationToken().equals(userQueried.getAuthorizationToken())) {
+        if (user.tokenFingerprint() == null ||
+                !user.tokenFingerprint().equals(presented) ||
+                !user.tokenFingerprint().equals(userQueried.tokenFingerprint())) {
             log.error("Invalid token");
             return Boolean.FALSE;
         }
@@ -95,20 +89,15 @@ public class SecurityUtil {
         }
 
         try {
-            var claims = Jwts.parser()
-                    .decryptWith(secretKey)
-                    .build()
-                    .parseEncryptedClaims(token)
-                    .getPayload();
-
+            var verified = tokenVerifier.verify(token);
 
-            String subject = claims.getSubject();
+            String subject = verified.subject();
             if (!StringUtils.hasText(subject) || !subject.equals(username)) {
                 log.error("Invalid token subject");
                 return Boolean.FALSE;
             }
 
-            if (claims.getExpiration().before(Date.from(Instant.now()))) {
+            if (verified.expiresAt().isBefore(Instant.now())) {
                 log.error("Token expired");
                 return Boolean.FALSE;
             }
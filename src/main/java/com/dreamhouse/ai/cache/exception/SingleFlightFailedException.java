@@ -0,0 +1,5 @@
+package com.dreamhouse.ai.cache.exception;
+
+public class SingleFlightFailedException extends RuntimeException {
+    public SingleFlightFailedException(String message) {super(message);}
+}
@@ -0,0 +1,9 @@
+package com.dreamhouse.ai.cache.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.function.Supplier;
+
+public interface SingleFlightService {
+    <T> T execute(String name, String key, TypeReference<T> type, Supplier<T> loader) throws InterruptedException;
+}
@@ -0,0 +1,233 @@
+package com.dreamhouse.ai.cache.service.impl;
+
+import com.dreamhouse.ai.cache.exception.SingleFlightFailedException;
+import com.dreamhouse.ai.cache.service.SingleFlightService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads across every node of the cluster.
+ * <p>
+ * Within one JVM callers share a single {@link CompletableFuture}. Across JVMs the first caller claims a
+ * short-lived leader key in Redis, computes the value, stores it under a short-TTL result key and announces
+ * it on a shared topic; callers on other nodes wait for that announcement instead of being throttled.
+ * If the leader's loader throws, it stores a short-lived failure marker instead, and its waiters fail at once
+ * with a {@link SingleFlightFailedException} rather than all retrying the load together. Only a leader that
+ * goes silent makes its waiters compute the value themselves. The leader key is released with a
+ * compare-and-delete, so a leader that outlived its key never removes a successor's claim.
+ */
+@Service
+public class SingleFlightServiceImpl implements SingleFlightService {
+    private static final Logger log = LoggerFactory.getLogger(SingleFlightServiceImpl.class);
+    private static final String TOPIC = "single-flight:done";
+    private static final String LEADER_PREFIX = "single-flight:leader:";
+    private static final String RESULT_PREFIX = "single-flight:result:";
+    private static final String METRIC_NAME = "singleflight.requests";
+    private static final Duration LEADER_TTL = Duration.ofSeconds(30);
+    private static final Duration RESULT_TTL = Duration.ofSeconds(5);
+    private static final Duration FAILURE_TTL = Duration.ofSeconds(1);
+    /** Stored in place of a result when the leader's loader threw; never valid JSON. */
+    private static final String FAILED = "!failed";
+    private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(10);
+
+    /*
+     * KEYS[1] leader key, ARGV[1] node id. Deletes the key only while this node still holds it.
+     */
+    private static final String RELEASE_LEADER_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """;
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> localInflight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> remoteWaiters = new ConcurrentHashMap<>();
+    private RTopic topic;
+    private int listenerId = -1;
+
+    @Autowired
+    public SingleFlightServiceImpl(RedissonClient redissonClient,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        topic = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+        listenerId = topic.addListener(String.class, (channel, key) -> {
+            var waiter = remoteWaiters.remove(key);
+            if (waiter != null) waiter.complete(null);
+        });
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        if (topic != null && listenerId != -1) topic.removeListener(listenerId);
+    }
+
+    /**
+     * Runs {@code loader} at most once per key across the cluster for all callers that arrive while it is running.
+     * @param name the logical operation name, used as the metric tag
+     * @param key the coalescing key, usually built with {@link QueryKeyServiceImpl#build}
+     * @param type the result type, used to decode results computed on other nodes
+     * @param loader computes the value when this caller is the leader
+     * @return the computed or shared value
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, String key, TypeReference<T> type, Supplier<T> loader) throws InterruptedException {
+        var mine = new CompletableFuture<Object>();
+        var existing = localInflight.putIfAbsent(key, mine);
+        if (existing != null) {
+            count(name, "local");
+            return (T) await(existing);
+        }
+
+        try {
+            var value = resolve(name, key, type, loader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } catch (InterruptedException e) {
+            mine.completeExceptionally(e);
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            localInflight.remove(key, mine);
+        }
+    }
+
+    private <T> T resolve(String name, String key, TypeReference<T> type, Supplier<T> loader) throws InterruptedException {
+        RBucket<String> result = redissonClient.getBucket(RESULT_PREFIX + key, StringCodec.INSTANCE);
+        RBucket<String> leader = redissonClient.getBucket(LEADER_PREFIX + key, StringCodec.INSTANCE);
+
+        // a failure marker is only meant for the waiters of that leader; a new caller tries again
+        var shared = result.get();
+        if (shared != null && !FAILED.equals(shared)) {
+            count(name, "remote");
+            return decode(shared, type);
+        }
+
+        if (leader.setIfAbsent(nodeId, LEADER_TTL)) {
+            count(name, "leader");
+            return lead(key, result, loader);
+        }
+
+        var stale = shared;
+        var waiter = remoteWaiters.computeIfAbsent(key, __ -> new CompletableFuture<>());
+        try {
+            // the leader may have published between our first read and the subscription
+            shared = result.get();
+            if (shared == null || shared.equals(stale)) {
+                waiter.get(WAIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                shared = result.get();
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("single-flight - leader for {} did not answer in time", key);
+        } finally {
+            remoteWaiters.remove(key, waiter);
+        }
+
+        if (FAILED.equals(shared)) {
+            count(name, "failed");
+            throw new SingleFlightFailedException("Shared computation failed for " + name);
+        }
+        if (shared != null) {
+            count(name, "remote");
+            return decode(shared, type);
+        }
+
+        count(name, "fallback");
+        return loader.get();
+    }
+
+    private <T> T lead(String key, RBucket<String> result, Supplier<T> loader) {
+        try {
+            var value = loader.get();
+            result.set(encode(value), RESULT_TTL);
+            return value;
+        } catch (RuntimeException e) {
+            result.set(FAILED, FAILURE_TTL);
+            throw e;
+        } finally {
+            releaseLeader(key);
+            topic.publish(key);
+        }
+    }
+
+    private void releaseLeader(String key) {
+        redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, RELEASE_LEADER_SCRIPT,
+                RScript.ReturnType.INTEGER, List.of(LEADER_PREFIX + key), nodeId);
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * A {@code null} value is encoded as JSON {@code null}, so waiters share it instead of loading again.
+     */
+    private String encode(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode single-flight result", e);
+        }
+    }
+
+    private <T> T decode(String json, TypeReference<T> type) {
+        if (json == null) return null;
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to decode single-flight result", e);
+        }
+    }
+
+    private void count(String name, String outcome) {
+        Counter.builder(METRIC_NAME)
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
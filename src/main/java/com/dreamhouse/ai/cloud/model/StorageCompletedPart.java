@@ -0,0 +1,13 @@
+package com.dreamhouse.ai.cloud.model;
+
+import java.util.Objects;
+
+public record StorageCompletedPart(int partNumber, String eTag) {
+    public StorageCompletedPart {
+        Objects.requireNonNull(eTag, "eTag cannot be null");
+
+        if (partNumber < 1) {
+            throw new IllegalArgumentException("Part number must be positive");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.dreamhouse.ai.cloud.model;
+
+import io.micrometer.common.lang.Nullable;
+
+import java.util.Objects;
+
+public record StorageObjectMetadata(String key,
+                                    String url,
+                                    long contentLength,
+                                    @Nullable String contentType,
+                                    @Nullable String eTag) {
+    public StorageObjectMetadata {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(url, "url cannot be null");
+    }
+}
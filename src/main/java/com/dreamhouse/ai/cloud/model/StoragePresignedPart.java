@@ -0,0 +1,13 @@
+package com.dreamhouse.ai.cloud.model;
+
+import java.util.Objects;
+
+public record StoragePresignedPart(int partNumber, String url) {
+    public StoragePresignedPart {
+        Objects.requireNonNull(url, "url cannot be null");
+
+        if (partNumber < 1) {
+            throw new IllegalArgumentException("Part number must be positive");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.dreamhouse.ai.cloud.model;
+
+import io.micrometer.common.lang.Nullable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Presigned upload target handed to a client so it can write an object straight to storage.
+ * Single-part uploads carry a {@code url} and the {@code headers} the client must send with the PUT;
+ * multipart uploads carry an {@code uploadId} and one presigned URL per part instead.
+ */
+public record StoragePresignedUpload(String key,
+                                     @Nullable String url,
+                                     @Nullable String uploadId,
+                                     List<StoragePresignedPart> parts,
+                                     Map<String, String> headers,
+                                     Instant expiresAt) {
+    public StoragePresignedUpload {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(expiresAt, "expiresAt cannot be null");
+
+        if (url == null && uploadId == null) {
+            throw new IllegalArgumentException("Either url or uploadId is required");
+        }
+
+        parts = parts != null ? List.copyOf(parts) : List.of();
+        headers = headers != null ? Map.copyOf(headers) : Map.of();
+    }
+}
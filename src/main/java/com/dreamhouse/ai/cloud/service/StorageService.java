@@ -1,8 +1,12 @@
 package com.dreamhouse.ai.cloud.service;
 
+import com.dreamhouse.ai.cloud.model.StorageCompletedPart;
+import com.dreamhouse.ai.cloud.model.StorageObjectMetadata;
+import com.dreamhouse.ai.cloud.model.StoragePresignedUpload;
 import com.dreamhouse.ai.cloud.model.StoragePutResponse;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 public interface StorageService {
@@ -28,4 +32,52 @@ public interface StorageService {
      * @param key the storage key/path of the object to delete
      */
     void deleteObject(String key);
+
+    /**
+     * Generates a presigned URL the client can use to PUT an object directly into storage.
+     * @param key the storage key/path where the object should be stored
+     * @param contentType the MIME type the client must upload with
+     * @param contentLength the exact size in bytes the client must upload
+     * @param duration the duration for which the URL should be valid
+     * @return Optional containing the presigned upload if successful
+     */
+    Optional<StoragePresignedUpload> presignedPutUrl(String key, String contentType, long contentLength, Duration duration);
+
+    /**
+     * Starts a multipart upload and presigns one URL per part so the client can upload the parts directly.
+     * @param key the storage key/path where the object should be stored
+     * @param contentType the MIME type of the object
+     * @param partCount the number of parts the client will upload
+     * @param duration the duration for which the part URLs should be valid
+     * @return Optional containing the presigned multipart upload if successful
+     */
+    Optional<StoragePresignedUpload> presignedMultipartUpload(String key, String contentType, int partCount, Duration duration);
+
+    /**
+     * Completes a multipart upload once the client has uploaded every part.
+     * @param key the storage key/path of the object
+     * @param uploadId the multipart upload identifier returned when the upload was started
+     * @param parts the part numbers and ETags reported by the client
+     */
+    void completeMultipartUpload(String key, String uploadId, List<StorageCompletedPart> parts);
+
+    /**
+     * Aborts a multipart upload and discards any parts already uploaded.
+     * @param key the storage key/path of the object
+     * @param uploadId the multipart upload identifier
+     */
+    void abortMultipartUpload(String key, String uploadId);
+
+    /**
+     * Removes the pending tag from a confirmed upload, so the bucket's lifecycle rule no longer expires it.
+     * @param key the storage key/path of the object
+     */
+    void clearPendingUpload(String key);
+
+    /**
+     * Reads the stored metadata of an object without downloading it.
+     * @param key the storage key/path of the object
+     * @return Optional containing the object metadata, or empty if the object does not exist
+     */
+    Optional<StorageObjectMetadata> headObject(String key);
 }
@@ -2,6 +2,10 @@ package com.dreamhouse.ai.cloud.service.impl;
 
 import com.dreamhouse.ai.cache.service.impl.QueryKeyServiceImpl;
 import com.dreamhouse.ai.cloud.exception.CloudException;
+import com.dreamhouse.ai.cloud.model.StorageCompletedPart;
+import com.dreamhouse.ai.cloud.model.StorageObjectMetadata;
+import com.dreamhouse.ai.cloud.model.StoragePresignedPart;
+import com.dreamhouse.ai.cloud.model.StoragePresignedUpload;
 import com.dreamhouse.ai.cloud.model.StoragePutResponse;
 import com.dreamhouse.ai.cloud.service.SecretsService;
 import com.dreamhouse.ai.cloud.service.StorageService;
@@ -11,7 +15,6 @@ import org.redisson.api.RedissonClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,15 +26,20 @@ import software.amazon.awssdk.services.s3.S3Utilities;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
 
 import java.net.URL;
 import java.sql.SQLException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -39,6 +47,10 @@ public class StorageServiceImpl implements StorageService {
     private static final String AWS_BUCKET_JSON_FIELD = "bucket_name";
     private static final String BASE_PATH_JSON_FIELD = "basePath";
     private static final String SERVER_ENCRYPTION_TYPE = "AES256";
+    private static final String HOST_HEADER = "host";
+    /** Set on direct uploads until they are confirmed; a bucket lifecycle rule expires objects still carrying it. */
+    private static final String PENDING_UPLOAD_TAGGING = "upload=pending";
+    private static final Duration DEFAULT_UPLOAD_EXPIRY = Duration.ofMinutes(15);
     private final String secretId;
     private final static Logger log = LoggerFactory.getLogger(StorageServiceImpl.class);
     private final S3Client s3Client;
@@ -47,8 +59,6 @@ public class StorageServiceImpl implements StorageService {
     private final SecretsService secretsService;
     private final RedissonClient redissonClient;
     private final QueryKeyServiceImpl queryKeyService;
-    private final Executor executor;
-    private final ConcurrentHashMap<String, CompletableFuture<String>> storageInflight;
 
 
 
@@ -58,9 +68,7 @@ public class StorageServiceImpl implements StorageService {
                               SecretsService secretsService,
                               @Value("${security.jwt.secret-id}") String secretId,
                               RedissonClient redissonClient,
-                              QueryKeyServiceImpl queryKeyService,
-                              @Qualifier("storageExecutor") Executor executor,
-                              ConcurrentHashMap<String, CompletableFuture<String>> storageInflight
+                              QueryKeyServiceImpl queryKeyService
                               ) {
         this.s3Client = s3Client;
         this.s3Utilities = s3Client.utilities();
@@ -69,68 +77,34 @@ public class StorageServiceImpl implements StorageService {
         this.secretId = secretId;
         this.redissonClient = redissonClient;
         this.queryKeyService = queryKeyService;
-        this.executor = executor;
-        this.storageInflight = storageInflight;
     }
 
     @Override
     public Optional<String> presignedGetUrl(String key, Duration expiry) {
-        String lockKey = queryKeyService.lockKey("storage-get-url",1, key.toLowerCase().trim());
-        RLock lock = redissonClient.getLock(lockKey);
+        Objects.requireNonNull(key, "key must not be null");
+        if (expiry == null || expiry.isNegative() || expiry.isZero()) {
+            expiry = Duration.ofMinutes(15);
+        }
 
         try {
-            if(!lock.tryLock(3,10, TimeUnit.SECONDS)) {
-                log.warn("Get presigned URL request throttled for username: {}", lockKey);
-                throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
-            }
-
-            Objects.requireNonNull(key, "key must not be null");
-            if (expiry == null || expiry.isNegative() || expiry.isZero()) {
-                expiry = Duration.ofMinutes(15);
-            }
-
-            Duration finalExpiry = expiry;
-            CompletableFuture<String> presignedURLReply = storageInflight.computeIfAbsent(lockKey, __ ->
-                    CompletableFuture.supplyAsync(() -> {
-
-                                var bucket = secretsService.getSecret(secretId, AWS_BUCKET_JSON_FIELD).replace("\"", "");
-
-                                log.info("Bucket {}", bucket);
-
-                                GetObjectRequest getReq = GetObjectRequest.builder()
-                                        .bucket(bucket)
-                                        .key(key)
-                                        .responseContentType("image/jpeg")
-                                        .responseContentDisposition("inline")
-                                        .build();
-
-                                log.info("presignedGetUrl getReq = {}", getReq);
-
-                                GetObjectPresignRequest presignReq = GetObjectPresignRequest.builder()
-                                        .signatureDuration(finalExpiry)
-                                        .getObjectRequest(getReq)
-                                        .build();
-
-                                log.info("presignedGetUrl presignReq = {}", presignReq.getObjectRequest());
+            var bucket = secretsService.getSecret(secretId, AWS_BUCKET_JSON_FIELD).replace("\"", "");
 
-                                var url = s3Presigner.presignGetObject(presignReq).url().toString();
-                                log.info("presignedGetUrl url = {}", url);
-                                return url;
-                    }, executor)
-            );
+            GetObjectRequest getReq = GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .responseContentType("image/jpeg")
+                    .responseContentDisposition("inline")
+                    .build();
 
-            return Optional.of(presignedURLReply.join());
+            GetObjectPresignRequest presignReq = GetObjectPresignRequest.builder()
+                    .signatureDuration(expiry)
+                    .getObjectRequest(getReq)
+                    .build();
 
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            log.error("Get presigned URL interrupted for key: {}", lockKey);
-            throw new CloudException("Interrupted");
+            return Optional.of(s3Presigner.presignGetObject(presignReq).url().toString());
         } catch (Exception e) {
             log.error("presignedGetUrl - Error creating presigned get url for key: {}", key, e);
             throw new CloudException("Error creating presigned get url for key");
-        } finally {
-            if (lock.isHeldByCurrentThread())
-                lock.unlock();
         }
     }
 
@@ -195,13 +169,12 @@ public class StorageServiceImpl implements StorageService {
                 throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
             }
 
-            var basePath = secretsService.getSecret(secretId, BASE_PATH_JSON_FIELD).replace("\"", "");
             var bucket = secretsService.getSecret(secretId, AWS_BUCKET_JSON_FIELD).replace("\"", "");
-            String objectKey = (basePath.isEmpty() ? "" : basePath) + key;
 
+            // objects are stored under the bare key by putObject and the presigned uploads alike
             DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
                     .bucket(bucket)
-                    .key(objectKey)
+                    .key(key)
                     .build();
 
             s3Client.deleteObject(deleteObjectRequest);
@@ -223,4 +196,216 @@ public class StorageServiceImpl implements StorageService {
                 lock.unlock();
         }
     }
+
+    @Override
+    public Optional<StoragePresignedUpload> presignedPutUrl(String key, String contentType, long contentLength, Duration expiry) {
+        Objects.requireNonNull(key, "key must not be null");
+
+        try {
+            var bucket = secretsService.getSecret(secretId, AWS_BUCKET_JSON_FIELD).replace("\"", "");
+
+            PutObjectRequest putReq = PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength(contentLength)
+                    .serverSideEncryption(SERVER_ENCRYPTION_TYPE)
+                    .tagging(PENDING_UPLOAD_TAGGING)
+                    .build();
+
+            PutObjectPresignRequest presignReq = PutObjectPresignRequest.builder()
+                    .signatureDuration(uploadExpiry(expiry))
+                    .putObjectRequest(putReq)
+                    .build();
+
+            var presigned = s3Presigner.presignPutObject(presignReq);
+            log.info("presignedPutUrl - presigned upload for key: {}", key);
+
+            return Optional.of(new StoragePresignedUpload(
+                    key,
+                    presigned.url().toString(),
+                    null,
+                    List.of(),
+                    clientHeaders(presigned.signedHeaders()),
+                    presigned.expiration()));
+        } catch (SdkClientException e) {
+            log.error("presignedPutUrl - Error creating presigned put url for key: {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<StoragePresignedUpload> presignedMultipartUpload(String key, String contentType, int partCount, Duration expiry) {
+        Objects.requireNonNull(key, "key must not be null");
+        if (partCount < 1) {
+            throw new IllegalArgumentException("partCount must be positive");
+        }
+
+        try {
+            var bucket = secretsService.getSecret(secretId, AWS_BUCKET_JSON_FIELD).replace("\"", "");
+
+            CreateMultipartUploadRequest createReq = CreateMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(contentType)
+                    .serverSideEncryption(SERVER_ENCRYPTION_TYPE)
+                    .tagging(PENDING_UPLOAD_TAGGING)
+                    .build();
+
+            String uploadId = s3Client.createMultipartUpload(createReq).uploadId();
+            Duration finalExpiry = uploadExpiry(expiry);
+
+            List<StoragePresignedPart> parts = new ArrayList<>(partCount);
+            Instant expiresAt = Instant.now().plus(finalExpiry);
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                UploadPartRequest partReq = UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .build();
+
+                UploadPartPresignRequest presignReq = UploadPartPresignRequest.builder()
+                        .signatureDuration(finalExpiry)
+                        .uploadPartRequest(partReq)
+                        .build();
+
+                var presigned = s3Presigner.presignUploadPart(presignReq);
+                parts.add(new StoragePresignedPart(partNumber, presigned.url().toString()));
+                expiresAt = presigned.expiration();
+            }
+
+            log.info("presignedMultipartUpload - presigned {} parts for key: {}", partCount, key);
+            return Optional.of(new StoragePresignedUpload(key, null, uploadId, parts, Map.of(), expiresAt));
+        } catch (AwsServiceException e) {
+            log.error("presignedMultipartUpload - Error starting multipart upload for key: {}", key, e);
+            throw new CloudException("Aws service exception: " + e.getMessage());
+        } catch (SdkClientException e) {
+            log.error("presignedMultipartUpload - Error starting multipart upload for key: {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, List<StorageCompletedPart> parts) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(uploadId, "uploadId must not be null");
+
+        try {
+            var bucket = secretsService.getSecret(secretId, AWS_BUCKET_JSON_FIELD).replace("\"", "");
+
+            var completedParts = parts.stream()
+                    .sorted(Comparator.comparingInt(StorageCompletedPart::partNumber))
+                    .map(part -> CompletedPart.builder()
+                            .partNumber(part.partNumber())
+                            .eTag(part.eTag())
+                            .build())
+                    .toList();
+
+            CompleteMultipartUploadRequest completeReq = CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build();
+
+            s3Client.completeMultipartUpload(completeReq);
+        } catch (AwsServiceException e) {
+            log.error("completeMultipartUpload - Error completing multipart upload for key: {}", key, e);
+            throw new CloudException("Aws service exception: " + e.getMessage());
+        } catch (SdkClientException e) {
+            log.error("completeMultipartUpload - Error completing multipart upload for key: {}", key, e);
+            throw new CloudException("Sdk client exception :" + e.getMessage());
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        try {
+            var bucket = secretsService.getSecret(secretId, AWS_BUCKET_JSON_FIELD).replace("\"", "");
+
+            AbortMultipartUploadRequest abortReq = AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build();
+
+            s3Client.abortMultipartUpload(abortReq);
+        } catch (AwsServiceException | SdkClientException e) {
+            log.warn("abortMultipartUpload - Error aborting multipart upload for key: {}", key, e);
+        }
+    }
+
+    @Override
+    public void clearPendingUpload(String key) {
+        Objects.requireNonNull(key, "key must not be null");
+
+        try {
+            var bucket = secretsService.getSecret(secretId, AWS_BUCKET_JSON_FIELD).replace("\"", "");
+
+            DeleteObjectTaggingRequest untagReq = DeleteObjectTaggingRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build();
+
+            s3Client.deleteObjectTagging(untagReq);
+        } catch (AwsServiceException e) {
+            log.error("clearPendingUpload - Error removing pending tag for key: {}", key, e);
+            throw new CloudException("Aws service exception: " + e.getMessage());
+        } catch (SdkClientException e) {
+            log.error("clearPendingUpload - Error removing pending tag for key: {}", key, e);
+            throw new CloudException("Sdk client exception :" + e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<StorageObjectMetadata> headObject(String key) {
+        Objects.requireNonNull(key, "key must not be null");
+
+        try {
+            var bucket = secretsService.getSecret(secretId, AWS_BUCKET_JSON_FIELD).replace("\"", "");
+
+            HeadObjectRequest headReq = HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build();
+
+            var resp = s3Client.headObject(headReq);
+            URL url = s3Utilities.getUrl(b -> b.bucket(bucket).key(key));
+
+            return Optional.of(new StorageObjectMetadata(
+                    key,
+                    url.toString(),
+                    resp.contentLength() != null ? resp.contentLength() : 0L,
+                    resp.contentType(),
+                    resp.eTag()));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                log.warn("headObject - Object does not exist: {}", key);
+                return Optional.empty();
+            }
+            log.error("headObject - Error reading object metadata: {}", key, e);
+            throw new CloudException("Aws service exception: " + e.getMessage());
+        } catch (SdkClientException e) {
+            log.error("headObject - Error reading object metadata: {}", key, e);
+            throw new CloudException("Sdk client exception :" + e.getMessage());
+        }
+    }
+
+    private static Duration uploadExpiry(Duration expiry) {
+        return (expiry == null || expiry.isNegative() || expiry.isZero()) ? DEFAULT_UPLOAD_EXPIRY : expiry;
+    }
+
+    /**
+     * Headers the client has to replay on the presigned request; {@code host} is implied by the URL.
+     */
+    private static Map<String, String> clientHeaders(Map<String, List<String>> signedHeaders) {
+        Map<String, String> headers = new HashMap<>();
+        signedHeaders.forEach((name, values) -> {
+            if (!HOST_HEADER.equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return headers;
+    }
 }
@@ -1,12 +1,14 @@
 package com.dreamhouse.ai.house.configuration;
 
-
+import com.dreamhouse.ai.house.configuration.properties.HouseAdWriteProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties(HouseAdWriteProperties.class)
 public class HouseAdConfiguration {
 
     @Bean
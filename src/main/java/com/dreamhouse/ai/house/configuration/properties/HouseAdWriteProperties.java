@@ -0,0 +1,37 @@
+package com.dreamhouse.ai.house.configuration.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "house-ads.write")
+public record HouseAdWriteProperties(
+        WriteMode defaultMode,
+        Map<String, WriteMode> operations,
+        RetryProperties retry
+) {
+    public enum WriteMode { LOCK, OPTIMISTIC }
+
+    public record RetryProperties(
+            int maxAttempts,
+            Duration baseBackoff,
+            Duration maxBackoff
+    ) {
+        public RetryProperties {
+            if (maxAttempts < 1) maxAttempts = 1;
+            if (baseBackoff == null) baseBackoff = Duration.ofMillis(20);
+            if (maxBackoff == null) maxBackoff = Duration.ofMillis(500);
+        }
+    }
+
+    public HouseAdWriteProperties {
+        if (defaultMode == null) defaultMode = WriteMode.LOCK;
+        operations = operations == null ? Map.of() : Map.copyOf(operations);
+        if (retry == null) retry = new RetryProperties(5, null, null);
+    }
+
+    public WriteMode modeFor(String operation) {
+        return operations.getOrDefault(operation, defaultMode);
+    }
+}
@@ -4,11 +4,15 @@ import com.dreamhouse.ai.cloud.service.StorageService;
 import com.dreamhouse.ai.house.dto.HouseAdDTO;
 import com.dreamhouse.ai.house.dto.HouseAdImageDTO;
 import com.dreamhouse.ai.house.dto.HouseAdMessageDTO;
+import com.dreamhouse.ai.house.model.request.ConfirmHouseAdImageUploadRequestModel;
 import com.dreamhouse.ai.house.model.request.CreateHouseAdRequestModel;
+import com.dreamhouse.ai.house.model.request.HouseAdImageUploadRequestModel;
 import com.dreamhouse.ai.house.model.request.HouseAdMessageSendRequestModel;
 import com.dreamhouse.ai.house.model.request.UpdateHouseAdTitleAndDescriptionRequestModel;
+import com.dreamhouse.ai.house.model.response.HouseAdImageUploadResponse;
 import com.dreamhouse.ai.house.model.response.LikeHouseAdResponse;
 import com.dreamhouse.ai.house.service.HouseAdsService;
+import com.dreamhouse.ai.ratelimit.annotation.RateLimited;
 import jakarta.validation.Valid;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
@@ -50,6 +54,7 @@ public class HouseAdController {
 
     @WriteOperation
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER','ROLE_ADMIN')")
+    @RateLimited("house-create")
     @PostMapping("/create")
     public ResponseEntity<HouseAdDTO> createHouseAd(@RequestBody CreateHouseAdRequestModel requestModel) {
         log.info("createHouseAd - Creating house ad: {}", requestModel.title());
@@ -83,6 +88,30 @@ public class HouseAdController {
     }
 
 
+    @WriteOperation
+    @PreAuthorize("hasAnyAuthority('ROLE_OWNER','ROLE_ADMIN')")
+    @PostMapping("/{houseAdId}/images/uploads")
+    public ResponseEntity<List<HouseAdImageUploadResponse>> requestImageUploads(
+            @PathVariable String houseAdId,
+            @RequestBody List<HouseAdImageUploadRequestModel> files) {
+        log.info("requestImageUploads - houseAdId={}, files={}", houseAdId, files.size());
+        var uploads = houseAdsService.createHouseAdImageUploads(houseAdId, files);
+        return ResponseEntity.ok(uploads);
+    }
+
+
+    @WriteOperation
+    @PreAuthorize("hasAnyAuthority('ROLE_OWNER','ROLE_ADMIN')")
+    @PostMapping("/{houseAdId}/images/uploads/confirm")
+    public ResponseEntity<List<HouseAdImageDTO>> confirmImageUploads(
+            @PathVariable String houseAdId,
+            @RequestBody List<ConfirmHouseAdImageUploadRequestModel> uploads) {
+        log.info("confirmImageUploads - houseAdId={}, uploads={}", houseAdId, uploads.size());
+        var dtos = houseAdsService.confirmHouseAdImageUploads(houseAdId, uploads);
+        return ResponseEntity.status(HttpStatus.CREATED).body(dtos);
+    }
+
+
     @ReadOperation
     @GetMapping("/{houseAdId}/images")
     public ResponseEntity<List<HouseAdImageDTO>> listImages(@PathVariable String houseAdId) {
@@ -143,6 +172,7 @@ public class HouseAdController {
 
     @WriteOperation
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_ADMIN')")
+    @RateLimited("house-message")
     @PostMapping("/message")
     public ResponseEntity<HouseAdMessageDTO> sendHouseAdMessage(@RequestBody HouseAdMessageSendRequestModel requestModel) {
         log.info("sendHouseAdMessage - Sending house ad message: {}", requestModel);
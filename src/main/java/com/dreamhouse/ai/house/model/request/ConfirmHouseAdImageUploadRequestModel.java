@@ -0,0 +1,23 @@
+package com.dreamhouse.ai.house.model.request;
+
+import com.dreamhouse.ai.cloud.model.StorageCompletedPart;
+import io.micrometer.common.lang.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+
+public record ConfirmHouseAdImageUploadRequestModel(String storageKey,
+                                                    @Nullable String imageName,
+                                                    @Nullable String caption,
+                                                    @Nullable String uploadId,
+                                                    @Nullable List<StorageCompletedPart> parts) {
+    public ConfirmHouseAdImageUploadRequestModel {
+        Objects.requireNonNull(storageKey, "Storage key is required");
+
+        if (uploadId != null && (parts == null || parts.isEmpty())) {
+            throw new IllegalArgumentException("Parts are required to complete a multipart upload");
+        }
+
+        parts = parts != null ? List.copyOf(parts) : List.of();
+    }
+}
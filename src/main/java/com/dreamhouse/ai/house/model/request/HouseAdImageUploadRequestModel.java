@@ -0,0 +1,14 @@
+package com.dreamhouse.ai.house.model.request;
+
+import java.util.Objects;
+
+public record HouseAdImageUploadRequestModel(String fileName, String contentType, long size) {
+    public HouseAdImageUploadRequestModel {
+        Objects.requireNonNull(fileName, "File name is required");
+        Objects.requireNonNull(contentType, "Content type is required");
+
+        if (size < 0) {
+            throw new IllegalArgumentException("File size cannot be negative");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.dreamhouse.ai.house.model.response;
+
+import com.dreamhouse.ai.cloud.model.StoragePresignedUpload;
+
+import java.util.Objects;
+
+public record HouseAdImageUploadResponse(String fileName, StoragePresignedUpload upload) {
+    public HouseAdImageUploadResponse {
+        Objects.requireNonNull(fileName, "File name cannot be null");
+        Objects.requireNonNull(upload, "Upload cannot be null");
+    }
+}
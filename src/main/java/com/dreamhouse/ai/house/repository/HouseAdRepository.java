@@ -21,6 +21,7 @@ import java.util.Optional;
 public interface HouseAdRepository extends JpaRepository<HouseAdEntity, Long>, JpaSpecificationExecutor<HouseAdEntity> {
     @EntityGraph(attributePaths = {"images", "messages"})
     Optional<HouseAdEntity> findByHouseAdUid(String houseAdId);
+    boolean existsByHouseAdUid(String houseAdId);
     @Query("""
         select h from HouseAdEntity h
         where lower(h.title) like lower(concat('%', :q, '%'))
@@ -4,9 +4,12 @@ import com.dreamhouse.ai.authentication.dto.UserDTO;
 import com.dreamhouse.ai.house.dto.HouseAdDTO;
 import com.dreamhouse.ai.house.dto.HouseAdImageDTO;
 import com.dreamhouse.ai.house.dto.HouseAdMessageDTO;
+import com.dreamhouse.ai.house.model.request.ConfirmHouseAdImageUploadRequestModel;
 import com.dreamhouse.ai.house.model.request.CreateHouseAdRequestModel;
+import com.dreamhouse.ai.house.model.request.HouseAdImageUploadRequestModel;
 import com.dreamhouse.ai.house.model.request.HouseAdMessageSendRequestModel;
 import com.dreamhouse.ai.house.model.request.UpdateHouseAdTitleAndDescriptionRequestModel;
+import com.dreamhouse.ai.house.model.response.HouseAdImageUploadResponse;
 import com.dreamhouse.ai.house.model.response.LikeHouseAdResponse;
 import io.micrometer.common.lang.Nullable;
 import org.springframework.data.domain.Sort;
@@ -49,6 +52,26 @@ public interface HouseAdsService {
     List<HouseAdImageDTO> addHouseAdImages(String houseAdId,
                                            List<MultipartFile> files,
                                            @Nullable List<String> captions) throws IOException;
+
+    /**
+     * Issues presigned upload targets so the client can upload images for a house advertisement
+     * directly to object storage. Files above the multipart threshold get one presigned URL per part.
+     * @param houseAdId the unique identifier of the house advertisement
+     * @param files the name, content type and size of each image the client intends to upload
+     * @return List of HouseAdImageUploadResponse in the same order as the requested files
+     */
+    List<HouseAdImageUploadResponse> createHouseAdImageUploads(String houseAdId,
+                                                               List<HouseAdImageUploadRequestModel> files);
+
+    /**
+     * Confirms images the client uploaded directly to object storage. Each object is verified with a
+     * metadata lookup for size and content type before it is attached to the house advertisement.
+     * @param houseAdId the unique identifier of the house advertisement
+     * @param uploads the storage keys (and multipart completion details) returned by the upload step
+     * @return List of HouseAdImageDTO containing the attached image information
+     */
+    List<HouseAdImageDTO> confirmHouseAdImageUploads(String houseAdId,
+                                                     List<ConfirmHouseAdImageUploadRequestModel> uploads);
     
     /**
      * Removes an image from a house advertisement and deletes it from object storage.
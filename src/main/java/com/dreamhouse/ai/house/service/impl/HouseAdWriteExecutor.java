@@ -0,0 +1,150 @@
+package com.dreamhouse.ai.house.service.impl;
+
+import com.dreamhouse.ai.cache.service.impl.QueryKeyServiceImpl;
+import com.dreamhouse.ai.house.configuration.properties.HouseAdWriteProperties;
+import com.dreamhouse.ai.house.configuration.properties.HouseAdWriteProperties.WriteMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs house ad mutations in their own transaction, either under a Redisson lock or optimistically against
+ * the entity {@code @Version} column with bounded, jittered retries. The mode is chosen per operation
+ * through {@code house-ads.write.*}.
+ */
+@Component
+public class HouseAdWriteExecutor {
+    private static final Logger log = LoggerFactory.getLogger(HouseAdWriteExecutor.class);
+    private static final String LOCK_NAMESPACE = "house-%s";
+    private static final String WRITE_METRIC = "houseads.write";
+    private static final String RETRY_METRIC = "houseads.write.retries";
+
+    private final HouseAdWriteProperties properties;
+    private final RedissonClient redissonClient;
+    private final QueryKeyServiceImpl queryKeyService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public HouseAdWriteExecutor(HouseAdWriteProperties properties,
+                                RedissonClient redissonClient,
+                                QueryKeyServiceImpl queryKeyService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redissonClient = redissonClient;
+        this.queryKeyService = queryKeyService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Executes a write with the mode configured for the operation.
+     * @param operation the operation name, e.g. {@code update} or {@code send-message}
+     * @param lockPart the value the lock key is derived from when the operation runs in lock mode
+     * @param write the transactional body; it is re-run from scratch on optimistic conflicts
+     * @return the value produced by the write
+     * @throws Exception whatever the write throws, or the last optimistic conflict once retries are exhausted
+     */
+    public <T> T execute(String operation, Object lockPart, Callable<T> write) throws Exception {
+        var mode = properties.modeFor(operation);
+        var sample = Timer.start(meterRegistry);
+        var outcome = "failure";
+
+        try {
+            T result = mode == WriteMode.OPTIMISTIC
+                    ? optimistically(operation, write)
+                    : underLock(operation, lockPart, write);
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder(WRITE_METRIC)
+                    .tag("operation", operation)
+                    .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private <T> T underLock(String operation, Object lockPart, Callable<T> write) throws Exception {
+        final String lockKey = queryKeyService.lockKey(LOCK_NAMESPACE.formatted(operation), 1, lockPart);
+        RLock lock = redissonClient.getLock(lockKey);
+
+        try {
+            if (!lock.tryLock(2, 10, TimeUnit.SECONDS)) {
+                log.warn("HouseAd {} request throttled for: {}", operation, lockKey);
+                throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
+            }
+            return inTransaction(write);
+        } finally {
+            if (lock.isHeldByCurrentThread())
+                lock.unlock();
+        }
+    }
+
+    private <T> T optimistically(String operation, Callable<T> write) throws Exception {
+        var retry = properties.retry();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return inTransaction(write);
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= retry.maxAttempts()) {
+                    log.warn("HouseAd {} gave up after {} optimistic attempts", operation, attempt);
+                    throw e;
+                }
+                Counter.builder(RETRY_METRIC).tag("operation", operation).register(meterRegistry).increment();
+                TimeUnit.MILLISECONDS.sleep(backoffMillis(attempt, retry));
+            }
+        }
+    }
+
+    /**
+     * Full jitter: a random delay between zero and the capped exponential backoff for this attempt.
+     */
+    private static long backoffMillis(int attempt, HouseAdWriteProperties.RetryProperties retry) {
+        long base = retry.baseBackoff().toMillis();
+        long cap = retry.maxBackoff().toMillis();
+        long ceiling = Math.min(cap, base << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private <T> T inTransaction(Callable<T> write) throws Exception {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return write.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedWriteException(e);
+                }
+            });
+        } catch (CheckedWriteException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static final class CheckedWriteException extends RuntimeException {
+        private CheckedWriteException(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.dreamhouse.ai.house.service.impl;
 
 import com.dreamhouse.ai.authentication.dto.UserDTO;
 import com.dreamhouse.ai.authentication.repository.UserRepository;
-import com.dreamhouse.ai.cache.service.impl.QueryKeyServiceImpl;
+import com.dreamhouse.ai.cloud.exception.CloudException;
 import com.dreamhouse.ai.cloud.exception.EmptyFileException;
 import com.dreamhouse.ai.cloud.exception.NoFilesException;
 import com.dreamhouse.ai.cloud.exception.UnsupportedContentException;
@@ -13,10 +13,13 @@ import com.dreamhouse.ai.house.exception.*;
 import com.dreamhouse.ai.house.model.entity.HouseAdEntity;
 import com.dreamhouse.ai.house.model.entity.HouseAdImageEntity;
 import com.dreamhouse.ai.house.model.entity.HouseAdMessageEntity;
+import com.dreamhouse.ai.house.model.response.HouseAdImageUploadResponse;
 import com.dreamhouse.ai.house.model.response.LikeHouseAdResponse;
 import com.dreamhouse.ai.listener.event.ImageDeleteBatchEvent;
 import com.dreamhouse.ai.listener.event.ImageDeleteEvent;
+import com.dreamhouse.ai.house.model.request.ConfirmHouseAdImageUploadRequestModel;
 import com.dreamhouse.ai.house.model.request.CreateHouseAdRequestModel;
+import com.dreamhouse.ai.house.model.request.HouseAdImageUploadRequestModel;
 import com.dreamhouse.ai.house.model.request.HouseAdMessageSendRequestModel;
 import com.dreamhouse.ai.house.model.request.UpdateHouseAdTitleAndDescriptionRequestModel;
 import com.dreamhouse.ai.cloud.model.StoragePutResponse;
@@ -30,10 +33,7 @@ import com.dreamhouse.ai.mapper.HouseAdMessageMapper;
 import com.dreamhouse.ai.mapper.UserMapper;
 import io.micrometer.common.lang.Nullable;
 import org.apache.commons.compress.utils.Sets;
-import org.hibernate.exception.LockAcquisitionException;
 import org.jetbrains.annotations.NotNull;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,10 +53,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.sql.SQLException;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 @Service
 public class HouseAdsServiceImpl implements HouseAdsService {
@@ -65,12 +63,15 @@ public class HouseAdsServiceImpl implements HouseAdsService {
     private final static Set<String> ALLOWED_SORT_ATTRIBUTES = Sets.newHashSet("price", "beds", "baths", "sqft", "yearBuilt", "title", "createdAt", "updatedAt");
     private final static String OBJECT_KEY_PREFIX = "house-ads/%s/%s%s";
     private final static String ALTERNATIVE_FILE_NAME = "image";
+    private final static String UPLOAD_KEY_PREFIX = "house-ads/%s/";
+    private final static long MAX_IMAGE_BYTES = 10 * 1024L * 1024L;
+    private final static long MULTIPART_PART_BYTES = 5 * 1024L * 1024L;
+    private final static Duration UPLOAD_URL_EXPIRY = Duration.ofMinutes(15);
     private final HouseAdRepository houseAdRepository;
     private final UserRepository userRepository;
     private final HouseAdMessageRepository houseAdMessageRepository;
     private final StorageService storageService;
-    private final RedissonClient redissonClient;
-    private final QueryKeyServiceImpl queryKeyService;
+    private final HouseAdWriteExecutor writeExecutor;
     private final HouseAdMapper houseMapper;
     private final HouseAdImageMapper houseImageMapper;
     private final HouseAdMessageMapper houseAdMessageMapper;
@@ -82,8 +83,7 @@ public class HouseAdsServiceImpl implements HouseAdsService {
                                UserRepository userRepository,
                                HouseAdMessageRepository houseAdMessageRepository,
                                StorageService storageService,
-                               RedissonClient redissonClient,
-                               QueryKeyServiceImpl queryKeyService,
+                               HouseAdWriteExecutor writeExecutor,
                                HouseAdMapper houseMapper,
                                HouseAdImageMapper houseImageMapper,
                                HouseAdMessageMapper houseAdMessageMapper,
@@ -92,8 +92,7 @@ public class HouseAdsServiceImpl implements HouseAdsService {
         this.userRepository = userRepository;
         this.houseAdMessageRepository = houseAdMessageRepository;
         this.storageService = storageService;
-        this.redissonClient = redissonClient;
-        this.queryKeyService = queryKeyService;
+        this.writeExecutor = writeExecutor;
         this.houseMapper = houseMapper;
         this.houseImageMapper = houseImageMapper;
         this.houseAdMessageMapper = houseAdMessageMapper;
@@ -106,75 +105,65 @@ public class HouseAdsServiceImpl implements HouseAdsService {
      * @param createHouseAdRequestModel the request model containing house ad details
      * @return HouseAdDTO containing the created house ad information
      */
-    @Transactional
     @CacheEvict(value = {"houseAdsList", "houseAdsSearch"}, allEntries = true)
     @Override
     public HouseAdDTO createHouseAd(CreateHouseAdRequestModel createHouseAdRequestModel) {
-        final String lockKey = queryKeyService.lockKey("house-create", 1, createHouseAdRequestModel.title());
-        RLock lock = redissonClient.getLock(lockKey);
-
         try {
-            if (!lock.tryLock(2, 10, TimeUnit.SECONDS)) {
-                log.warn("HouseAd create request throttled for user: {}", lockKey);
-                throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
-            }
-            log.info("Creating house ad with title: {}", createHouseAdRequestModel.title());
-
-            var auth = SecurityContextHolder.getContext().getAuthentication();
-            String username = (auth != null ? auth.getName() : null);
-
-            var user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UsernameNotFoundException("Authenticated user not found"));
-
-            HouseAdEntity houseAd = new HouseAdEntity();
-            houseAd.setHouseAdUid(UUID.randomUUID().toString());
-            houseAd.setTitle(createHouseAdRequestModel.title());
-            houseAd.setDescription(createHouseAdRequestModel.description());
-            houseAd.setType(createHouseAdRequestModel.type());
-            houseAd.setState(createHouseAdRequestModel.state());
-            houseAd.setCity(createHouseAdRequestModel.city());
-            houseAd.setNeighborhood(createHouseAdRequestModel.neighborhood());
-            houseAd.setBeds(createHouseAdRequestModel.beds());
-            houseAd.setBaths(createHouseAdRequestModel.baths());
-            houseAd.setSqft(createHouseAdRequestModel.sqft());
-            houseAd.setParking(createHouseAdRequestModel.parking());
-            houseAd.setPetsAllowed(createHouseAdRequestModel.petsAllowed());
-            houseAd.setWaterfront(createHouseAdRequestModel.waterfront());
-            houseAd.setYearBuilt(createHouseAdRequestModel.yearBuilt());
-            houseAd.setUser(user);
-
-            if (createHouseAdRequestModel.images() != null) {
-                createHouseAdRequestModel.images()
-                        .forEach(image -> {
-                            var key = image.getStorageKey();
-                            if (key != null && !key.isBlank()) {
-                                String viewUrl = storageService.presignedGetUrl(key, Duration.ofMinutes(30)).orElse("undefined");
-                                image.setViewUrl(viewUrl);
-                            }
-                            HouseAdImageEntity houseAdImageEntity = new HouseAdImageEntity();
-                            houseAdImageEntity.setHouseAdImageUid(UUID.randomUUID().toString());
-                            houseAdImageEntity.setImageName(image.getImageName());
-                            houseAdImageEntity.setImageURL(image.getImageURL());
-                            houseAdImageEntity.setImageDescription(image.getImageDescription());
-                            houseAdImageEntity.setImageType(image.getImageType());
-                            houseAdImageEntity.setImageThumbnail(image.getImageThumbnail());
-                            houseAd.addImage(houseAdImageEntity);
-                        });
-            }
-
-            var savedHouseAd = houseAdRepository.saveAndFlush(houseAd);
-            return houseMapper.apply(savedHouseAd);
+            return writeExecutor.execute("create", createHouseAdRequestModel.title(), () -> {
+                log.info("Creating house ad with title: {}", createHouseAdRequestModel.title());
+
+                var auth = SecurityContextHolder.getContext().getAuthentication();
+                String username = (auth != null ? auth.getName() : null);
+
+                var user = userRepository.findByUsername(username)
+                        .orElseThrow(() -> new UsernameNotFoundException("Authenticated user not found"));
+
+                HouseAdEntity houseAd = new HouseAdEntity();
+                houseAd.setHouseAdUid(UUID.randomUUID().toString());
+                houseAd.setTitle(createHouseAdRequestModel.title());
+                houseAd.setDescription(createHouseAdRequestModel.description());
+                houseAd.setType(createHouseAdRequestModel.type());
+                houseAd.setState(createHouseAdRequestModel.state());
+                houseAd.setCity(createHouseAdRequestModel.city());
+                houseAd.setNeighborhood(createHouseAdRequestModel.neighborhood());
+                houseAd.setBeds(createHouseAdRequestModel.beds());
+                houseAd.setBaths(createHouseAdRequestModel.baths());
+                houseAd.setSqft(createHouseAdRequestModel.sqft());
+                houseAd.setParking(createHouseAdRequestModel.parking());
+                houseAd.setPetsAllowed(createHouseAdRequestModel.petsAllowed());
+                houseAd.setWaterfront(createHouseAdRequestModel.waterfront());
+                houseAd.setYearBuilt(createHouseAdRequestModel.yearBuilt());
+                houseAd.setUser(user);
+
+                if (createHouseAdRequestModel.images() != null) {
+                    createHouseAdRequestModel.images()
+                            .forEach(image -> {
+                                var key = image.getStorageKey();
+                                if (key != null && !key.isBlank()) {
+                                    String viewUrl = storageService.presignedGetUrl(key, Duration.ofMinutes(30)).orElse("undefined");
+                                    image.setViewUrl(viewUrl);
+                                }
+                                HouseAdImageEntity houseAdImageEntity = new HouseAdImageEntity();
+                                houseAdImageEntity.setHouseAdImageUid(UUID.randomUUID().toString());
+                                houseAdImageEntity.setImageName(image.getImageName());
+                                houseAdImageEntity.setImageURL(image.getImageURL());
+                                houseAdImageEntity.setImageDescription(image.getImageDescription());
+                                houseAdImageEntity.setImageType(image.getImageType());
+                                houseAdImageEntity.setImageThumbnail(image.getImageThumbnail());
+                                houseAd.addImage(houseAdImageEntity);
+                            });
+                }
 
+                var savedHouseAd = houseAdRepository.saveAndFlush(houseAd);
+                return houseMapper.apply(savedHouseAd);
+            });
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.error("houseAd create interrupted for role: {}", lockKey);
+            log.error("houseAd create interrupted for title: {}", createHouseAdRequestModel.title());
             throw new HouseAdMessageException("Interrupted");
         } catch (Exception e) {
             log.error("Error creating house ad ");
             throw new HouseAdMessageException("Error creating house ad");
-        } finally {
-            if (lock.isHeldByCurrentThread())
-                lock.unlock();
         }
     }
 
@@ -200,49 +189,38 @@ public class HouseAdsServiceImpl implements HouseAdsService {
      * @param updateHouseAdRequestModel the request model containing updated title and description
      * @return HouseAdDTO containing the updated house ad information
      */
-    @Transactional
     @CacheEvict(value = {"houseAds", "houseAdsList", "houseAdsSearch"}, key = "#updateHouseAdRequestModel.houseAdId()")
     @Override
     public HouseAdDTO updateHouseAdTitleAndDescription(UpdateHouseAdTitleAndDescriptionRequestModel updateHouseAdRequestModel) {
-        final String lockKey = queryKeyService.lockKey("house-update-images", 1, updateHouseAdRequestModel.houseAdId());
-        RLock lock = redissonClient.getLock(lockKey);
-
         try {
-            if (!lock.tryLock(2, 10, TimeUnit.SECONDS)) {
-                log.warn("HouseAd add update request throttled for user: {}", lockKey);
-                throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
-            }
-
-            var house = houseAdRepository
-                    .findByHouseAdUid(updateHouseAdRequestModel.houseAdId())
-                    .orElseThrow(() ->
-                            new HouseAdNotFoundException("House ad not found")
-                    );
-
-            if (updateHouseAdRequestModel.title() != null && !updateHouseAdRequestModel.title().isBlank()) {
-                house.setTitle(updateHouseAdRequestModel.title());
-            }
-
-            if (updateHouseAdRequestModel.description() != null && !updateHouseAdRequestModel.description().isBlank()) {
-                house.setDescription(updateHouseAdRequestModel.description());
-            }
+            return writeExecutor.execute("update", updateHouseAdRequestModel.houseAdId(), () -> {
+                var house = houseAdRepository
+                        .findByHouseAdUid(updateHouseAdRequestModel.houseAdId())
+                        .orElseThrow(() ->
+                                new HouseAdNotFoundException("House ad not found")
+                        );
+
+                if (updateHouseAdRequestModel.title() != null && !updateHouseAdRequestModel.title().isBlank()) {
+                    house.setTitle(updateHouseAdRequestModel.title());
+                }
 
-            var savedHouseAdEntity = houseAdRepository.save(house);
-            return houseMapper.apply(savedHouseAdEntity);
+                if (updateHouseAdRequestModel.description() != null && !updateHouseAdRequestModel.description().isBlank()) {
+                    house.setDescription(updateHouseAdRequestModel.description());
+                }
 
+                var savedHouseAdEntity = houseAdRepository.save(house);
+                return houseMapper.apply(savedHouseAdEntity);
+            });
         } catch (HouseAdNotFoundException e) {
                 log.error("updateHouseAdTitleAndDescription - Error updating house ad title and description");
                 throw new HouseAdTitleAndDescriptionUpdateException("Error updating house ad title and description");
         } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                log.error("houseAd update interrupted for role: {}", lockKey);
+                log.error("houseAd update interrupted for houseAdId: {}", updateHouseAdRequestModel.houseAdId());
                 throw new HouseAdMessageException("Interrupted");
         } catch (Exception e) {
                 log.error("Error updating house ad ");
                 throw new HouseAdMessageException("Error updating house ad");
-        } finally {
-                if (lock.isHeldByCurrentThread())
-                    lock.unlock();
         }
     }
 
@@ -256,7 +234,6 @@ public class HouseAdsServiceImpl implements HouseAdsService {
      * @throws IOException if there's an error processing the files
      */
     @CacheEvict(cacheNames = {"houseAds","houseAdsList","houseAdsSearch"}, allEntries = true)
-    @Transactional
     @Override
     public List<HouseAdImageDTO> addHouseAdImages(String houseAdId,
                                                   List<MultipartFile> files,
@@ -264,121 +241,257 @@ public class HouseAdsServiceImpl implements HouseAdsService {
         if (files == null || files.isEmpty())
             throw new NoFilesException("No files provided");
 
-        final String lockKey = queryKeyService.lockKey("house-add-images",1, houseAdId);
-        RLock lock = redissonClient.getLock(lockKey);
-
         try {
-            if (!lock.tryLock(2, 10, TimeUnit.SECONDS)) {
-                log.warn("HouseAd add image request throttled for user: {}", lockKey);
-                throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
-            }
+            return writeExecutor.execute("add-images", houseAdId, () -> {
+                var ad = houseAdRepository.findByHouseAdUid(houseAdId)
+                        .orElseThrow(() -> new HouseAdNotFoundException("House ad not found"));
 
-            var ad = houseAdRepository.findByHouseAdUid(houseAdId)
-                    .orElseThrow(() -> new HouseAdNotFoundException("House ad not found"));
+                log.info("addHouseAdImages - houseAdId");
 
-            log.info("addHouseAdImages - houseAdId");
+                List<HouseAdImageEntity> entities = new ArrayList<>();
+                for (int i = 0; i < files.size(); i++) {
+                    MultipartFile file = files.get(i);
 
-            List<HouseAdImageEntity> entities = new ArrayList<>();
-            for (int i = 0; i < files.size(); i++) {
-                MultipartFile file = files.get(i);
+                    if (file.isEmpty()) throw new EmptyFileException("Empty file: " + file.getOriginalFilename());
 
-                if (file.isEmpty()) throw new EmptyFileException("Empty file: " + file.getOriginalFilename());
+                    String content = Optional.ofNullable(file.getContentType()).orElse("");
+                    if (!content.startsWith(ALTERNATIVE_FILE_NAME + "/")) {
+                        throw new UnsupportedContentException("Unsupported content type");
+                    }
 
-                String content = Optional.ofNullable(file.getContentType()).orElse("");
-                if (!content.startsWith(ALTERNATIVE_FILE_NAME + "/")) {
-                    throw new UnsupportedContentException("Unsupported content type");
-                }
+                    if (file.getSize() > MAX_IMAGE_BYTES)
+                        throw new UnsupportedEncodingException("File size exceeds limit of 10MB");
 
-                long maxBytes = 10 * 1024L * 1024L;
-                if (file.getSize() > maxBytes)
-                    throw new UnsupportedEncodingException("File size exceeds limit of 10MB");
-
-                var objectKey = OBJECT_KEY_PREFIX.formatted(
-                        houseAdId, UUID.randomUUID(), safeExtractFileName(file.getOriginalFilename()));
-                StoragePutResponse put = storageService
-                        .putObject(objectKey, file.getBytes(), content)
-                        .orElseThrow();
-
-                String thumbUrl = put.thumbnailUrl() != null ? put.thumbnailUrl() : "";
-
-
-                var img = new HouseAdImageEntity();
-                img.setHouseAdImageUid(UUID.randomUUID().toString());
-                img.setImageName(Optional.ofNullable(file.getOriginalFilename()).orElse(ALTERNATIVE_FILE_NAME));
-                img.setImageURL(put.url());
-                img.setImageType(content);
-                img.setImageThumbnail(thumbUrl);
-                img.setImageDescription(captions != null && i < captions.size() ? captions.get(i) : null);
-                img.setStorageKey(put.key());
-                ad.addImage(img);
-                entities.add(img);
-            }
+                    var objectKey = OBJECT_KEY_PREFIX.formatted(
+                            houseAdId, UUID.randomUUID(), safeExtractFileName(file.getOriginalFilename()));
+                    StoragePutResponse put = storageService
+                            .putObject(objectKey, file.getBytes(), content)
+                            .orElseThrow();
+
+                    String thumbUrl = put.thumbnailUrl() != null ? put.thumbnailUrl() : "";
 
-            houseAdRepository.save(ad);
-            log.info("New Images added to the house Ad - houseAdId");
-            return entities
-                    .stream()
-                    .map(houseImageMapper)
-                    .toList();
 
+                    var img = new HouseAdImageEntity();
+                    img.setHouseAdImageUid(UUID.randomUUID().toString());
+                    img.setImageName(Optional.ofNullable(file.getOriginalFilename()).orElse(ALTERNATIVE_FILE_NAME));
+                    img.setImageURL(put.url());
+                    img.setImageType(content);
+                    img.setImageThumbnail(thumbUrl);
+                    img.setImageDescription(captions != null && i < captions.size() ? captions.get(i) : null);
+                    img.setStorageKey(put.key());
+                    ad.addImage(img);
+                    entities.add(img);
+                }
+
+                houseAdRepository.save(ad);
+                log.info("New Images added to the house Ad - houseAdId");
+                return entities
+                        .stream()
+                        .map(houseImageMapper)
+                        .toList();
+            });
         }  catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.error("houseAd add image interrupted for role: {}", lockKey);
+            log.error("houseAd add image interrupted for houseAdId: {}", houseAdId);
             throw new HouseAdMessageException("Interrupted");
         } catch (Exception e) {
             log.error("Error adding house ad image");
             throw new HouseAdMessageException("Error adding house ad image");
-        } finally {
-            if (lock.isHeldByCurrentThread())
-                lock.unlock();
         }
 
     }
 
-    @CacheEvict(cacheNames = {"houseAds","houseAdsList","houseAdsSearch"}, allEntries = true)
-    @Transactional
+    /**
+     * Issues presigned upload targets so image bytes go straight from the client to object storage.
+     * @param houseAdId the unique identifier of the house advertisement
+     * @param files the name, content type and size of each image the client intends to upload
+     * @return List of HouseAdImageUploadResponse in the same order as the requested files
+     */
     @Override
-    public boolean removeHouseAdImageAndObjectStore(String houseAdId, String imageUid) {
-        final String lockKey = queryKeyService.lockKey("house-remove-S3",1, houseAdId);
-        RLock lock = redissonClient.getLock(lockKey);
+    public List<HouseAdImageUploadResponse> createHouseAdImageUploads(String houseAdId,
+                                                                      List<HouseAdImageUploadRequestModel> files) {
+        if (files == null || files.isEmpty())
+            throw new NoFilesException("No files provided");
 
-        try {
-            if (!lock.tryLock(2, 10, TimeUnit.SECONDS)) {
-                log.warn("Delete houseAd  S3 image request throttled for user: {}", lockKey);
-                throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
-            }
+        if (!houseAdRepository.existsByHouseAdUid(houseAdId))
+            throw new HouseAdNotFoundException("House ad not found");
 
-            var houseAd = houseAdRepository
-                    .findByHouseAdUid(houseAdId)
-                    .orElseThrow(() -> new HouseAdNotFoundException("House ad not found"));
+        List<HouseAdImageUploadResponse> uploads = new ArrayList<>(files.size());
+        for (var file : files) {
+            if (file.size() == 0) throw new EmptyFileException("Empty file: " + file.fileName());
 
-            var img = houseAd.getImages().stream()
-                    .filter(image -> imageUid.equals(image.getHouseAdImageUid()))
-                    .findFirst()
-                    .orElseThrow(() -> new HouseAdNotFoundException("House ad image not found"));
+            if (!file.contentType().startsWith(ALTERNATIVE_FILE_NAME + "/"))
+                throw new UnsupportedContentException("Unsupported content type");
 
-            var storageKey = img.getStorageKey();
-            houseAd.removeImage(img);
-            houseAdRepository.save(houseAd);
+            if (file.size() > MAX_IMAGE_BYTES)
+                throw new UnsupportedContentException("File size exceeds limit of 10MB");
 
-            if (storageKey != null && !storageKey.isBlank()) {
-                publisher.publishEvent(new ImageDeleteEvent(storageKey));
+            var objectKey = OBJECT_KEY_PREFIX.formatted(
+                    houseAdId, UUID.randomUUID(), safeExtractFileName(file.fileName()));
+
+            var upload = file.size() > MULTIPART_PART_BYTES
+                    ? storageService.presignedMultipartUpload(
+                            objectKey, file.contentType(), (int) Math.ceilDiv(file.size(), MULTIPART_PART_BYTES), UPLOAD_URL_EXPIRY)
+                    : storageService.presignedPutUrl(objectKey, file.contentType(), file.size(), UPLOAD_URL_EXPIRY);
+
+            uploads.add(new HouseAdImageUploadResponse(file.fileName(),
+                    upload.orElseThrow(() -> new CloudException("Unable to create upload url"))));
+        }
+
+        log.info("createHouseAdImageUploads - {} uploads issued", uploads.size());
+        return uploads;
+    }
+
+    /**
+     * Attaches images the client uploaded directly to object storage after verifying each object's
+     * size and content type with a metadata lookup. The batch is all or nothing: if any upload fails
+     * verification, or the images cannot be saved, every pending object of the batch is deleted and its
+     * multipart upload aborted. Uploads that are never confirmed keep their pending tag and are expired
+     * by the bucket's lifecycle rule.
+     * @param houseAdId the unique identifier of the house advertisement
+     * @param uploads the storage keys (and multipart completion details) returned by the upload step
+     * @return List of HouseAdImageDTO containing the attached image information
+     */
+    @CacheEvict(cacheNames = {"houseAds","houseAdsList","houseAdsSearch"}, allEntries = true)
+    @Override
+    public List<HouseAdImageDTO> confirmHouseAdImageUploads(String houseAdId,
+                                                            List<ConfirmHouseAdImageUploadRequestModel> uploads) {
+        if (uploads == null || uploads.isEmpty())
+            throw new NoFilesException("No uploads provided");
+
+        try {
+            return writeExecutor.execute("confirm-images", houseAdId, () -> {
+                var ad = houseAdRepository.findByHouseAdUid(houseAdId)
+                        .orElseThrow(() -> new HouseAdNotFoundException("House ad not found"));
+
+                final String keyPrefix = UPLOAD_KEY_PREFIX.formatted(houseAdId);
+                Set<String> attachedKeys = new HashSet<>();
+                ad.getImages().forEach(image -> attachedKeys.add(image.getStorageKey()));
+
+                final Set<String> confirmedKeys = new HashSet<>(attachedKeys);
+
+                List<HouseAdImageEntity> entities;
+                try {
+                    entities = attachUploads(ad, uploads, keyPrefix, attachedKeys);
+                    houseAdRepository.save(ad);
+                } catch (RuntimeException e) {
+                    discardUploads(uploads, keyPrefix, confirmedKeys);
+                    throw e;
+                }
+                log.info("confirmHouseAdImageUploads - {} images attached to houseAdId={}", entities.size(), houseAdId);
+                return entities
+                        .stream()
+                        .map(houseImageMapper)
+                        .toList();
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("houseAd confirm image interrupted for houseAdId: {}", houseAdId);
+            throw new HouseAdMessageException("Interrupted");
+        } catch (UnsupportedContentException | HouseAdNotFoundException | HouseAdImageNotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error confirming house ad image uploads");
+            throw new HouseAdMessageException("Error confirming house ad image uploads");
+        }
+    }
+
+    /**
+     * Verifies each upload and adds it to the house ad.
+     * @return the new image entities, in the order of the uploads
+     */
+    private List<HouseAdImageEntity> attachUploads(HouseAdEntity ad,
+                                                   List<ConfirmHouseAdImageUploadRequestModel> uploads,
+                                                   String keyPrefix,
+                                                   Set<String> attachedKeys) {
+        List<HouseAdImageEntity> entities = new ArrayList<>();
+        for (var upload : uploads) {
+            var key = upload.storageKey();
+            if (!key.startsWith(keyPrefix) || !attachedKeys.add(key))
+                throw new UnsupportedContentException("Storage key is not a pending upload for this house ad");
+
+            if (upload.uploadId() != null)
+                storageService.completeMultipartUpload(key, upload.uploadId(), upload.parts());
+
+            var object = storageService.headObject(key)
+                    .orElseThrow(() -> new HouseAdImageNotFoundException("Uploaded image not found"));
+
+            String content = Optional.ofNullable(object.contentType()).orElse("");
+            if (!content.startsWith(ALTERNATIVE_FILE_NAME + "/")
+                    || object.contentLength() <= 0
+                    || object.contentLength() > MAX_IMAGE_BYTES)
+                throw new UnsupportedContentException("Uploaded object is not a supported image");
+
+            storageService.clearPendingUpload(key);
+
+            var img = new HouseAdImageEntity();
+            img.setHouseAdImageUid(UUID.randomUUID().toString());
+            img.setImageName(Optional.ofNullable(upload.imageName()).orElse(ALTERNATIVE_FILE_NAME));
+            img.setImageURL(object.url());
+            img.setImageType(content);
+            img.setImageThumbnail("");
+            img.setImageDescription(upload.caption());
+            img.setStorageKey(key);
+            ad.addImage(img);
+            entities.add(img);
+        }
+        return entities;
+    }
+
+    /**
+     * Removes every pending upload of a rejected batch. Keys outside the house ad's prefix and images that
+     * were attached before this batch are left alone.
+     */
+    private void discardUploads(List<ConfirmHouseAdImageUploadRequestModel> uploads, String keyPrefix,
+                                Set<String> confirmedKeys) {
+        Set<String> discarded = new HashSet<>();
+        for (var upload : uploads) {
+            var key = upload.storageKey();
+            if (key == null || !key.startsWith(keyPrefix) || confirmedKeys.contains(key) || !discarded.add(key))
+                continue;
+
+            if (upload.uploadId() != null)
+                storageService.abortMultipartUpload(key, upload.uploadId());
+            try {
+                storageService.deleteObject(key);
+            } catch (CloudException e) {
+                log.debug("discardUploads - Nothing to delete for rejected upload: {}", key);
             }
+        }
+        log.info("discardUploads - {} pending uploads discarded", discarded.size());
+    }
 
+    @CacheEvict(cacheNames = {"houseAds","houseAdsList","houseAdsSearch"}, allEntries = true)
+    @Override
+    public boolean removeHouseAdImageAndObjectStore(String houseAdId, String imageUid) {
+        try {
+            return writeExecutor.execute("remove-image", houseAdId, () -> {
+                var houseAd = houseAdRepository
+                        .findByHouseAdUid(houseAdId)
+                        .orElseThrow(() -> new HouseAdNotFoundException("House ad not found"));
+
+                var img = houseAd.getImages().stream()
+                        .filter(image -> imageUid.equals(image.getHouseAdImageUid()))
+                        .findFirst()
+                        .orElseThrow(() -> new HouseAdNotFoundException("House ad image not found"));
+
+                var storageKey = img.getStorageKey();
+                houseAd.removeImage(img);
+                houseAdRepository.save(houseAd);
+
+                if (storageKey != null && !storageKey.isBlank()) {
+                    publisher.publishEvent(new ImageDeleteEvent(storageKey));
+                }
+                return Boolean.TRUE;
+            });
         }  catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.error("Delete houseAd S3 image interrupted for role: {}", lockKey);
+            log.error("Delete houseAd S3 image interrupted for houseAdId: {}", houseAdId);
             throw new HouseAdMessageException("Interrupted");
         } catch (Exception e) {
             log.error("Error Deleting house ad S3 image");
             throw new HouseAdMessageException("Error Deleting house ad S3 image");
-        } finally {
-            if (lock.isHeldByCurrentThread())
-                lock.unlock();
         }
-
-
-        return Boolean.TRUE;
     }
 
     @NotNull
@@ -416,48 +529,37 @@ public class HouseAdsServiceImpl implements HouseAdsService {
      */
     @Override
     @CacheEvict(value = {"houseAds", "houseAdsList", "houseAdsSearch"}, allEntries = true)
-    @Transactional
     public Boolean deleteHouseAd(String houseAdId) {
         log.info("Deleting house ad");
-        final String lockKey = queryKeyService.lockKey("house-delete",1, houseAdId);
-        RLock lock = redissonClient.getLock(lockKey);
-
         try {
-            if(!lock.tryLock(2,10, TimeUnit.SECONDS)) {
-                log.warn("Delete houseAd  request throttled for user: {}", lockKey);
-                throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
-            }
-
-            var houseAdEntity = houseAdRepository
-                    .findByHouseAdUid(houseAdId)
-                    .orElseThrow(() -> new HouseAdNotFoundException("House ad not found"));
-
-            var storageKeys = houseAdEntity.getImages()
-                    .stream()
-                    .filter(Objects::nonNull)
-                    .map(HouseAdImageEntity::getStorageKey)
-                    .distinct()
-                    .toList();
-
-            houseAdRepository.delete(houseAdEntity);
-
-            if (!storageKeys.isEmpty()) {
-                publisher.publishEvent(new ImageDeleteBatchEvent(storageKeys));
-                log.info("S3 House Ad images queued to be deleted");
-            }
+            return writeExecutor.execute("delete", houseAdId, () -> {
+                var houseAdEntity = houseAdRepository
+                        .findByHouseAdUid(houseAdId)
+                        .orElseThrow(() -> new HouseAdNotFoundException("House ad not found"));
+
+                var storageKeys = houseAdEntity.getImages()
+                        .stream()
+                        .filter(Objects::nonNull)
+                        .map(HouseAdImageEntity::getStorageKey)
+                        .distinct()
+                        .toList();
+
+                houseAdRepository.delete(houseAdEntity);
+
+                if (!storageKeys.isEmpty()) {
+                    publisher.publishEvent(new ImageDeleteBatchEvent(storageKeys));
+                    log.info("S3 House Ad images queued to be deleted");
+                }
+                return Boolean.TRUE;
+            });
         }  catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.error("Delete houseAd  interrupted for role: {}", lockKey);
+            log.error("Delete houseAd  interrupted for houseAdId: {}", houseAdId);
             throw new HouseAdMessageException("Interrupted");
         } catch (Exception e) {
             log.error("Error Deleting house ad message");
             throw new HouseAdMessageException("Error Deleting house ad message");
-        } finally {
-            if (lock.isHeldByCurrentThread())
-                lock.unlock();
         }
-
-        return Boolean.TRUE;
     }
 
     /**
@@ -465,38 +567,31 @@ public class HouseAdsServiceImpl implements HouseAdsService {
      * @param requestModel the request model containing message details
      * @return HouseAdMessageDTO containing the sent message information
      */
-    @Transactional
     @Override
     public HouseAdMessageDTO sendHouseAdMessage(HouseAdMessageSendRequestModel requestModel) {
         final String normalizedSenderName = requestModel.getSenderName().trim().toLowerCase();
-        final String lockKey = queryKeyService.lockKey("house-send-message",1, normalizedSenderName);
-        RLock lock = redissonClient.getLock(lockKey);
-
         try {
-            if(!lock.tryLock(2,10, TimeUnit.SECONDS)) {
-                log.warn("Send houseAd message request throttled for user: {}", normalizedSenderName);
-                throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
-            }
-
-            var receiverHouseAd = houseAdRepository
-                    .findByHouseAdUid(requestModel.getReceiverHouseAdUid())
-                    .orElseThrow(() ->
-                            new HouseAdNotFoundException("House ad not found"));
-
-            var message = new HouseAdMessageEntity();
-            message.setMessageUid(UUID.randomUUID().toString());
-            message.setMessageDate(requestModel.getMessageDate());
-            message.setSenderEmail(requestModel.getSenderEmail());
-            message.setSenderName(requestModel.getSenderName());
-            message.setSenderPhone(requestModel.getSenderPhone());
-            message.setSubject(requestModel.getSubject());
-            message.setMessage(requestModel.getMessage());
-            message.setHouseAd(receiverHouseAd);
-            receiverHouseAd.addMessage(message);
-
-            var savedMessage = houseAdMessageRepository.save(message);
-            houseAdRepository.save(receiverHouseAd);
-            return houseAdMessageMapper.apply(savedMessage);
+            return writeExecutor.execute("send-message", normalizedSenderName, () -> {
+                var receiverHouseAd = houseAdRepository
+                        .findByHouseAdUid(requestModel.getReceiverHouseAdUid())
+                        .orElseThrow(() ->
+                                new HouseAdNotFoundException("House ad not found"));
+
+                var message = new HouseAdMessageEntity();
+                message.setMessageUid(UUID.randomUUID().toString());
+                message.setMessageDate(requestModel.getMessageDate());
+                message.setSenderEmail(requestModel.getSenderEmail());
+                message.setSenderName(requestModel.getSenderName());
+                message.setSenderPhone(requestModel.getSenderPhone());
+                message.setSubject(requestModel.getSubject());
+                message.setMessage(requestModel.getMessage());
+                message.setHouseAd(receiverHouseAd);
+                receiverHouseAd.addMessage(message);
+
+                var savedMessage = houseAdMessageRepository.save(message);
+                houseAdRepository.save(receiverHouseAd);
+                return houseAdMessageMapper.apply(savedMessage);
+            });
         }  catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.error("Send houseAd message  interrupted for role: {}", normalizedSenderName);
@@ -504,9 +599,6 @@ public class HouseAdsServiceImpl implements HouseAdsService {
         } catch (Exception e) {
             log.error("Error sending house ad message");
             throw new HouseAdMessageException("Error sending house ad message");
-        } finally {
-            if (lock.isHeldByCurrentThread())
-                lock.unlock();
         }
     }
 
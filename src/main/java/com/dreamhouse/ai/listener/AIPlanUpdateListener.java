@@ -44,7 +44,7 @@ public class AIPlanUpdateListener {
     public void on(@NonNull AIPlanUpdateEvent event) {
         var userId = event.userId();
         var planCode = event.planCode();
-        aiTokenService.updateTokenPlanAndQuota(userId, planCode);
+        aiTokenService.updateUserPlanAndQuota(userId, planCode);
         log.info("User {}'s plan has been updated to {}", userId, planCode);
     }
 }
@@ -4,9 +4,13 @@ import com.dreamhouse.ai.llm.configuration.guardrails.LengthAndRateGuardrail;
 import com.dreamhouse.ai.llm.configuration.guardrails.OutputFormattingGuardrail;
 import com.dreamhouse.ai.llm.configuration.guardrails.PromptInjectionGuardrail;
 import com.dreamhouse.ai.llm.configuration.guardrails.SafetyGuardrail;
+import com.dreamhouse.ai.llm.configuration.guardrails.SpeculativeSafetyGuard;
+import com.dreamhouse.ai.llm.metrics.LlmMetrics;
 import dev.langchain4j.agentic.AgenticServices;
 import dev.langchain4j.memory.chat.ChatMemoryProvider;
-import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.service.AiServices;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -17,29 +21,63 @@ import org.springframework.context.annotation.Configuration;
 public class ConversationAgentConfig {
     private static final Logger log = LoggerFactory.getLogger(ConversationAgentConfig.class);
     @Bean
-    public ConversationalistAgent conversationalistAgent(@Qualifier("qwenChatModel") OllamaChatModel ollamaChatModel,
+    public ConversationalistAgent conversationalistAgent(@Qualifier("qwenChatModel") ChatModel chatModel,
                                                          ChatMemoryProvider chatMemoryProvider,
                                                          LengthAndRateGuardrail lengthAndRateGuardrail,
                                                          PromptInjectionGuardrail promptInjectionGuardrail,
                                                          SafetyGuardrail safetyGuardrail,
-                                                         OutputFormattingGuardrail outputFormattingGuardrail) {
+                                                         OutputFormattingGuardrail outputFormattingGuardrail,
+                                                         SpeculativeSafetyGuard speculativeSafetyGuard,
+                                                         LlmMetrics llmMetrics) {
         return AgenticServices
                 .agentBuilder(ConversationalistAgent.class)
-                .chatModel(ollamaChatModel)
+                .chatModel(llmMetrics.instrument(chatModel, "chat"))
                 .chatMemoryProvider(chatMemoryProvider)
                 .async(Boolean.TRUE)
-                .inputGuardrails(lengthAndRateGuardrail, promptInjectionGuardrail, safetyGuardrail)
+                .inputGuardrails(speculativeSafetyGuard.inputGuardrails(lengthAndRateGuardrail, promptInjectionGuardrail, safetyGuardrail))
                 .outputGuardrails(outputFormattingGuardrail)
                 .beforeAgentInvocation(e -> {
                     var message = e.inputs().get("message");
-                    log.info("Invoking ConversationalistAgent with message: {}", message);
+                    log.debug("Invoking ConversationalistAgent with message: {}", message);
                 })
                 .afterAgentInvocation(e -> {
                     var chatResponse = e.output();
-                    log.info("ConversationalistAgent response: {}", chatResponse);
+                    log.debug("ConversationalistAgent response: {}", chatResponse);
                 })
                 .outputKey("chat")
                 .build();
     }
 
+    /**
+     * Stateless: it is handed the previous summary and the turns to fold in, and has no memory of its own.
+     */
+    @Bean
+    public ConversationSummarizerAgent conversationSummarizerAgent(@Qualifier("qwenChatModel") ChatModel chatModel,
+                                                                   LlmMetrics llmMetrics) {
+        return AgenticServices
+                .agentBuilder(ConversationSummarizerAgent.class)
+                .chatModel(llmMetrics.instrument(chatModel, "summarizer"))
+                .outputKey("summary")
+                .build();
+    }
+
+    /**
+     * Output guardrails need the complete reply, so only the input guardrails apply to the streaming agent;
+     * the output length cap is enforced while relaying tokens. A started stream cannot be cancelled, so the
+     * safety check stays in front of generation here even when {@link SpeculativeSafetyGuard} is enabled.
+     */
+    @Bean
+    public StreamingConversationalistAgent streamingConversationalistAgent(@Qualifier("qwenStreamingChatModel") StreamingChatModel streamingChatModel,
+                                                                           ChatMemoryProvider chatMemoryProvider,
+                                                                           LengthAndRateGuardrail lengthAndRateGuardrail,
+                                                                           PromptInjectionGuardrail promptInjectionGuardrail,
+                                                                           SafetyGuardrail safetyGuardrail,
+                                                                           LlmMetrics llmMetrics) {
+        return AiServices.builder(StreamingConversationalistAgent.class)
+                .streamingChatModel(llmMetrics.instrument(streamingChatModel, "chat"))
+                .chatMemoryProvider(chatMemoryProvider)
+                .inputGuardrails(lengthAndRateGuardrail, promptInjectionGuardrail, safetyGuardrail)
+                .build();
+    }
+
 }
@@ -0,0 +1,19 @@
+package com.dreamhouse.ai.llm.agent.conversation;
+
+import dev.langchain4j.agentic.Agent;
+import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.V;
+
+public interface ConversationSummarizerAgent {
+    @UserMessage("""
+                    You maintain the running summary of a conversation between a house hunter and Maria, a real estate assistant.
+                    Previous summary: '{{summary}}'
+                    Newer turns to fold in:
+                    {{transcript}}
+                    Write the updated summary in at most 120 words. Keep every preference, requirement and fact the user
+                    gave (locations, budget, bedrooms, property types, must-haves, names) and any open question.
+                    Respond with the summary only.
+                """)
+    @Agent("summarize")
+    String summarize(@V("summary") String summary, @V("transcript") String transcript);
+}
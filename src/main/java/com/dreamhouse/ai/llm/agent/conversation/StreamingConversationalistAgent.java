@@ -0,0 +1,15 @@
+package com.dreamhouse.ai.llm.agent.conversation;
+
+import dev.langchain4j.service.MemoryId;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.V;
+
+/**
+ * Streaming twin of {@link ConversationalistAgent}: same prompt and chat memory, but the reply is delivered
+ * token by token as the model generates it.
+ */
+public interface StreamingConversationalistAgent {
+    @UserMessage(ConversationalistAgent.PROMPT)
+    TokenStream chat(@MemoryId String sessionId, @V("message") String message);
+}
@@ -1,28 +1,25 @@
 package com.dreamhouse.ai.llm.agent.house;
 
 import com.dreamhouse.ai.llm.model.auxilary.FilterSpec;
-import com.dreamhouse.ai.llm.model.dto.HouseSearchDTO;
 import dev.langchain4j.agentic.Agent;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
 
+/**
+ * Explains a page of search results. Listings are passed in as the compact table built by
+ * {@link ListingPromptSerializer}; the caller pairs the reply with the listings it already has.
+ */
 public interface HouseSearchAgent {
     @UserMessage("""
         You are a real-estate search assistant.
 
-        You will receive:
-        - A FilterSpec describing what the user is looking for.
-        - A HouseSearchDTO that already contains the matching houseAdDTOs from the database.
+        The listings below have already been fetched from the database and are returned to the user as they are.
+        Do NOT invent or modify them. Your only task is to write a short, helpful explanation for the user based on:
+        - The filters: '{{filterSpec}}'
+        - The listings, one row each: '{{listings}}'
 
-        The listings have already been fetched from the database — do NOT invent or modify them.
-        Your only task is to write a short, helpful explanation for the user based on:
-        - The filters in FilterSpec: '{{filterSpec}}'
-        - The list of houseAdDTOs in HouseSearchDTO: '{{houseSearchDTO}}'
-
-        Return ONLY a HouseSearchDTO object where:
-        - houseAdDTOs is exactly the same as the one you received
-        - agentReply is your concise explanation for the user
+        Reply with the explanation only; do not repeat the listings.
         """)
     @Agent("house-search-agent")
-    HouseSearchDTO houseSearch(@V("filterSpec") FilterSpec filterSpec, @V("houseSearchDTO") HouseSearchDTO houseSearchDTO);
+    String houseSearch(@V("filterSpec") FilterSpec filterSpec, @V("listings") String listings);
 }
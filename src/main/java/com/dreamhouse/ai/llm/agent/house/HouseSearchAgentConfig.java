@@ -1,16 +1,17 @@
 package com.dreamhouse.ai.llm.agent.house;
 
+import com.dreamhouse.ai.llm.metrics.LlmMetrics;
 import com.dreamhouse.ai.llm.tool.HouseSearchTool;
 import dev.langchain4j.agentic.AgenticServices;
-import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.service.AiServices;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.List;
-
 
 @Configuration
 public class HouseSearchAgentConfig {
@@ -18,24 +19,32 @@ public class HouseSearchAgentConfig {
 
     @Bean
     public HouseSearchAgent houseSearchAgent(
-            @Qualifier("qwenChatModel") OllamaChatModel ollamaChatModel,
-            HouseSearchTool houseSearchTool) {
+            @Qualifier("qwenChatModel") ChatModel chatModel,
+            HouseSearchTool houseSearchTool,
+            LlmMetrics llmMetrics) {
         return AgenticServices
                 .agentBuilder(HouseSearchAgent.class)
-                .chatModel(ollamaChatModel)
+                .chatModel(llmMetrics.instrument(chatModel, "search"))
                 .tools(houseSearchTool)
                 .async(Boolean.TRUE)
                 .beforeAgentInvocation(e -> {
                     var filterSpec = e.inputs().get("filterSpec");
-                    var houseSearchDTO = e.inputs().get("houseSearchDTO");
-                    log.info("Invoking HouseSearchAgent with FilterSpec: {} and houseSearchDTO: {}", filterSpec, houseSearchDTO);
+                    var listings = e.inputs().get("listings");
+                    log.debug("Invoking HouseSearchAgent with FilterSpec: {} and listings: {}", filterSpec, listings);
                 })
                 .afterAgentInvocation(e -> {
                     var houseSearchResults = e.output();
-                    log.info("HouseSearchAgent returned {} house ads",
-                            houseSearchResults instanceof List<?> list ? list.size() : 0);
+                    log.debug("HouseSearchAgent reply: {}", houseSearchResults);
                 })
                 .outputKey("houseSearchResults")
                 .build();
     }
+
+    @Bean
+    public ListingsNarrator listingsNarrator(@Qualifier("qwenStreamingChatModel") StreamingChatModel streamingChatModel,
+                                             LlmMetrics llmMetrics) {
+        return AiServices.builder(ListingsNarrator.class)
+                .streamingChatModel(llmMetrics.instrument(streamingChatModel, "search"))
+                .build();
+    }
 }
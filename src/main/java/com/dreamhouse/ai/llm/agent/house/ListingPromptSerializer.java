@@ -0,0 +1,78 @@
+package com.dreamhouse.ai.llm.agent.house;
+
+import com.dreamhouse.ai.house.dto.HouseAdDTO;
+import com.dreamhouse.ai.llm.configuration.llm.properties.SearchPlanningProperties;
+import com.dreamhouse.ai.llm.memory.LocalTokenCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Renders found listings as a compact table for the models that explain search results.
+ * <p>
+ * Only what the model talks about goes in: title, city, likes and the start of the description. Image URLs,
+ * ids and liked-user lists stay out, since the client already has the full listings. Rows are added until
+ * the configured token budget, counted with the {@link LocalTokenCounter}, is spent; a row that does not fit
+ * is retried without its description before the table is cut off.
+ * </p>
+ */
+@Component
+public class ListingPromptSerializer {
+    private static final String HEADER = "#|title|city|likes|description";
+    /** Reserved for the "N found, M shown" line. */
+    private static final int SUMMARY_TOKENS = 8;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern SEPARATOR = Pattern.compile("\\|");
+
+    private final LocalTokenCounter tokenCounter;
+    private final SearchPlanningProperties.ListingPrompt properties;
+
+    @Autowired
+    public ListingPromptSerializer(LocalTokenCounter tokenCounter, SearchPlanningProperties searchPlanningProperties) {
+        this.tokenCounter = tokenCounter;
+        this.properties = searchPlanningProperties.listingPrompt();
+    }
+
+    /**
+     * @return the table, headed by how many listings were found and shown, or {@code "none"}
+     */
+    public String serialize(List<HouseAdDTO> houses) {
+        if (houses == null || houses.isEmpty()) return "none";
+
+        var rows = new StringBuilder();
+        int budget = properties.tokenBudget() - tokenCounter.estimateTokenCountInText(HEADER) - SUMMARY_TOKENS;
+        int shown = 0;
+        for (var house : houses) {
+            if (shown == properties.maxListings()) break;
+            var row = row(shown + 1, house, properties.descriptionChars());
+            int tokens = tokenCounter.estimateTokenCountInText(row);
+            if (tokens > budget) {
+                row = row(shown + 1, house, 0);
+                tokens = tokenCounter.estimateTokenCountInText(row);
+                if (tokens > budget) break;
+            }
+            rows.append('\n').append(row);
+            budget -= tokens;
+            shown++;
+        }
+        return houses.size() + " found, " + shown + " shown\n" + HEADER + rows;
+    }
+
+    private static String row(int number, HouseAdDTO house, int descriptionChars) {
+        return number + "|" + cell(house.getTitle(), 80) + "|" + cell(house.getCity(), 40) + "|"
+                + house.getNumberOfLikes() + "|" + cell(house.getDescription(), descriptionChars);
+    }
+
+    /**
+     * One line, no column separators, cut at a word boundary when longer than {@code maxChars}.
+     */
+    private static String cell(String value, int maxChars) {
+        if (value == null || maxChars == 0) return "";
+        var text = SEPARATOR.matcher(WHITESPACE.matcher(value).replaceAll(" ")).replaceAll("/").strip();
+        if (text.length() <= maxChars) return text;
+        int cut = text.lastIndexOf(' ', maxChars);
+        return text.substring(0, cut > maxChars / 2 ? cut : maxChars).strip() + "…";
+    }
+}
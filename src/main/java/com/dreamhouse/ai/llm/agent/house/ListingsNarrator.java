@@ -0,0 +1,24 @@
+package com.dreamhouse.ai.llm.agent.house;
+
+import com.dreamhouse.ai.llm.model.auxilary.FilterSpec;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.V;
+
+/**
+ * Streaming twin of {@link HouseSearchAgent}: the prose part of a search reply, delivered token by token while
+ * the listings themselves are sent to the client before narration starts.
+ */
+public interface ListingsNarrator {
+    @UserMessage("""
+        You are a real-estate search assistant.
+
+        The listings below have already been fetched from the database and shown to the user.
+        Do NOT invent or modify them. Write a short, helpful explanation of the results for the user
+        based on the filters and the listings. Reply with plain prose only.
+
+        Filters: '{{filterSpec}}'
+        Listings: '{{listings}}'
+        """)
+    TokenStream explain(@V("filterSpec") FilterSpec filterSpec, @V("listings") String listings);
+}
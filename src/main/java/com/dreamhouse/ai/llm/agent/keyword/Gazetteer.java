@@ -0,0 +1,123 @@
+package com.dreamhouse.ai.llm.agent.keyword;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * US states and cities from the bundled {@code gazetteer/us-places.tsv}, held in a word-level trie.
+ * <p>
+ * Place names span several words ("new york", "salt lake city"), so lookups walk the trie from a starting
+ * word and return the longest name that matches. A name may denote several places ("washington" is a state,
+ * "portland" a city in two states); all of them are kept on the node and the caller picks one.
+ * </p>
+ */
+@Component
+public class Gazetteer {
+    private static final Logger log = LoggerFactory.getLogger(Gazetteer.class);
+    private static final String RESOURCE = "gazetteer/us-places.tsv";
+
+    private final Node root = new Node();
+    private final Map<String, String> stateCodes = new HashMap<>();
+
+    public Gazetteer() {
+        int places = 0;
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(RESOURCE).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                var columns = line.split("\t");
+                if (columns.length != 3) continue;
+
+                var kind = PlaceKind.valueOf(columns[0].trim().toUpperCase(Locale.ROOT));
+                var name = columns[1].trim().toLowerCase(Locale.ROOT);
+                var state = columns[2].trim().toLowerCase(Locale.ROOT);
+                insert(name, new Place(kind, name, state));
+                if (kind == PlaceKind.STATE) {
+                    stateCodes.put(name, state);
+                    stateCodes.put(state, state);
+                }
+                places++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + RESOURCE, e);
+        }
+        log.info("Gazetteer loaded {} places", places);
+    }
+
+    /**
+     * Finds the longest place name starting at {@code words[start]}.
+     *
+     * @param words lowercase words of a message
+     * @param start index of the first word to match
+     * @return the longest match, or {@code null} if no place name starts there
+     */
+    public Match longestMatch(List<String> words, int start) {
+        Node node = root;
+        Match best = null;
+        for (int i = start; i < words.size(); i++) {
+            node = node.children.get(words.get(i));
+            if (node == null) break;
+            if (!node.places.isEmpty()) {
+                best = new Match(List.copyOf(node.places), i - start + 1);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Maps a state name or postal code to its lowercase two-letter code.
+     *
+     * @return the code, or {@code null} if {@code token} is not a US state
+     */
+    public String stateCode(String token) {
+        if (token == null) return null;
+        return stateCodes.get(token.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private void insert(String name, Place place) {
+        Node node = root;
+        for (var word : name.split("\\s+")) {
+            node = node.children.computeIfAbsent(word, w -> new Node());
+        }
+        node.places.add(place);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Place> places = new ArrayList<>(1);
+    }
+
+    public enum PlaceKind {
+        STATE,
+        CITY
+    }
+
+    /**
+     * @param kind  state or city
+     * @param name  lowercase name as listed
+     * @param state lowercase two-letter code of the state (the state itself for states)
+     */
+    public record Place(PlaceKind kind, String name, String state) {
+    }
+
+    /**
+     * @param places every place with the matched name
+     * @param length number of words the name spans
+     */
+    public record Match(List<Place> places, int length) {
+    }
+}
@@ -1,7 +1,8 @@
 package com.dreamhouse.ai.llm.agent.keyword;
 
+import com.dreamhouse.ai.llm.metrics.LlmMetrics;
 import dev.langchain4j.agentic.AgenticServices;
-import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.chat.ChatModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -13,18 +14,18 @@ public class KeywordExtractorAgentConfig {
     private static final Logger log = LoggerFactory.getLogger(KeywordExtractorAgentConfig.class);
 
     @Bean
-    public KeywordExtractorAgent keywordExtractorAgent(@Qualifier("qwenChatModel") OllamaChatModel ollamaChatModel) {
+    public KeywordExtractorAgent keywordExtractorAgent(@Qualifier("qwenChatModel") ChatModel chatModel, LlmMetrics llmMetrics) {
         return AgenticServices
                 .agentBuilder(KeywordExtractorAgent.class)
-                .chatModel(ollamaChatModel)
+                .chatModel(llmMetrics.instrument(chatModel, "extractor"))
                 .async(Boolean.TRUE)
                 .beforeAgentInvocation(e -> {
                     var message = e.inputs().get("message");
-                    log.info("Invoking KeywordExtractorAgent with user input: {}", message);
+                    log.debug("Invoking KeywordExtractorAgent with user input: {}", message);
                 })
                 .afterAgentInvocation(e -> {
                     var filterSpec = e.output();
-                    log.info("KeywordExtractorAgent produced FilterSpec: {}", filterSpec);
+                    log.debug("KeywordExtractorAgent produced FilterSpec: {}", filterSpec);
                 })
                 .outputKey("filterSpec")
                 .build();
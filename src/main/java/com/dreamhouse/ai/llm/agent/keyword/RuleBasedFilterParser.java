@@ -0,0 +1,291 @@
+package com.dreamhouse.ai.llm.agent.keyword;
+
+import com.dreamhouse.ai.llm.agent.keyword.Gazetteer.PlaceKind;
+import com.dreamhouse.ai.llm.model.auxilary.FilterSpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic alternative to {@link KeywordExtractorAgent} for plainly worded searches such as
+ * "3 bed 2 bath condo in Boston, MA under 600k with parking".
+ * <p>
+ * Numeric constraints and amenities are recognized by patterns and cut out of the message; what is left must
+ * consist entirely of property types, places from the {@link Gazetteer} and filler words. A spec is produced
+ * only when every word is accounted for, so anything the parser does not understand (a neighborhood, "no
+ * stairs", "close to a good school") sends the message to the agent instead of being silently dropped.
+ * </p>
+ */
+@Component
+public class RuleBasedFilterParser {
+    private static final int MAX_MESSAGE_LENGTH = 300;
+    private static final String AMOUNT = "\\$?\\s*(\\d[\\d,]*(?:\\.\\d+)?)\\s*(k|m|mil|million|thousand)?\\b";
+    private static final String AT_LEAST = "at least|min(?:imum)?|over|more than|above|from";
+    private static final String AT_MOST = "under|below|less than|max(?:imum)?|up to|at most|no more than";
+    private static final String BEDS = "(?:bed(?:room)?s?|br|bd)\\b";
+    private static final String BATHS = "(?:bath(?:room)?s?|ba)\\b";
+    private static final String SQFT = "(?:sq\\.?\\s*ft\\.?|sqft|square\\s+f(?:ee|oo)t|sf)(?=\\W|$)";
+
+    private static final Pattern NEGATION = Pattern.compile(
+            "\\b(?:no(?!\\s+more\\s+than)|not|without|except|excluding)\\b");
+    private static final Pattern BED_RANGE = Pattern.compile(
+            "\\b(\\d+)\\s*(?:-|to)\\s*(\\d+)\\s*-?\\s*" + BEDS);
+    private static final Pattern BEDS_BOUND = Pattern.compile(
+            "(?:\\b(" + AT_LEAST + "|" + AT_MOST + ")\\s+)?\\b(\\d+)\\s*(\\+)?\\s*-?\\s*" + BEDS);
+    private static final Pattern BATHS_BOUND = Pattern.compile(
+            "(?:\\b(" + AT_LEAST + ")\\s+)?\\b(\\d+)(?:\\.5)?\\s*(\\+)?\\s*-?\\s*" + BATHS);
+    private static final Pattern SQFT_BOUND = Pattern.compile(
+            "(?:\\b(" + AT_LEAST + "|" + AT_MOST + ")\\s+)?\\b(\\d[\\d,]*)\\s*(\\+)?\\s*" + SQFT);
+    private static final Pattern YEAR_BUILT = Pattern.compile(
+            "\\b(?:built\\s+(after|since|in|from)?\\s*|newer\\s+than\\s+|post-?)((?:18|19|20)\\d{2})(?:\\s+or\\s+(?:later|newer))?\\b");
+    private static final Pattern PRICE_RANGE = Pattern.compile(
+            "(?:\\b(?:between|from)\\s+)?" + AMOUNT + "\\s*(?:-|to|and)\\s*" + AMOUNT);
+    private static final Pattern PRICE_BOUND = Pattern.compile(
+            "\\b(" + AT_LEAST + "|" + AT_MOST + "|budget(?:\\s+of)?)\\s+" + AMOUNT);
+    private static final Pattern PRICE_BARE = Pattern.compile(
+            "\\$\\s*(\\d[\\d,]*(?:\\.\\d+)?)\\s*(k|m|mil|million|thousand)?\\b|\\b(\\d[\\d,]*(?:\\.\\d+)?)\\s*(k|m|mil|million|thousand)\\b");
+    private static final Pattern PARKING = Pattern.compile(
+            "\\b(?:parking|garage|driveway|carport)\\b");
+    private static final Pattern PETS = Pattern.compile(
+            "\\b(?:pets?[-\\s]?(?:friendly|allowed|ok|okay)|(?:dog|cat)[-\\s]friendly|allows?\\s+pets)\\b");
+    private static final Pattern WATERFRONT = Pattern.compile(
+            "\\b(?:waterfront|lakefront|beachfront|oceanfront|riverfront|on\\s+the\\s+water)\\b");
+    private static final Pattern WORD = Pattern.compile("[a-z0-9']+");
+
+    private static final Map<String, String> PROPERTY_TYPES = Map.ofEntries(
+            Map.entry("condo", "condo"), Map.entry("condos", "condo"),
+            Map.entry("condominium", "condo"), Map.entry("condominiums", "condo"),
+            Map.entry("apartment", "apartment"), Map.entry("apartments", "apartment"),
+            Map.entry("flat", "apartment"), Map.entry("flats", "apartment"),
+            Map.entry("townhouse", "townhouse"), Map.entry("townhouses", "townhouse"),
+            Map.entry("townhome", "townhouse"), Map.entry("townhomes", "townhouse"),
+            Map.entry("studio", "studio"), Map.entry("studios", "studio"),
+            Map.entry("villa", "villa"), Map.entry("villas", "villa"),
+            Map.entry("loft", "loft"), Map.entry("lofts", "loft"),
+            Map.entry("duplex", "duplex"), Map.entry("duplexes", "duplex"),
+            Map.entry("cottage", "cottage"), Map.entry("cottages", "cottage"),
+            Map.entry("bungalow", "bungalow"), Map.entry("bungalows", "bungalow"));
+    private static final Set<String> GENERIC_TYPES = Set.of(
+            "house", "houses", "home", "homes", "property", "properties", "listing", "listings", "place", "places");
+    private static final Set<String> FILLERS = Set.of(
+            "a", "an", "the", "in", "near", "around", "at", "of", "on", "for", "to", "and", "or", "with", "that",
+            "which", "has", "have", "having", "is", "are", "me", "my", "i", "i'm", "im", "we", "us", "you", "can",
+            "please", "show", "find", "search", "searching", "look", "looking", "want", "need", "get", "give",
+            "list", "buy", "some", "any", "all", "sale", "available", "located", "area", "city", "state", "only");
+
+    private final Gazetteer gazetteer;
+
+    @Autowired
+    public RuleBasedFilterParser(Gazetteer gazetteer) {
+        this.gazetteer = gazetteer;
+    }
+
+    /**
+     * Parses a search message into a filter when every word of it is understood.
+     *
+     * @param message the user's search message
+     * @return the filter, or empty when the message should go to {@link KeywordExtractorAgent}
+     */
+    public Optional<FilterSpec> parse(String message) {
+        if (message == null || message.isBlank() || message.length() > MAX_MESSAGE_LENGTH) {
+            return Optional.empty();
+        }
+        var text = new StringBuilder(message.toLowerCase(Locale.ROOT));
+        if (NEGATION.matcher(text).find()) {
+            return Optional.empty();
+        }
+
+        var spec = new FilterSpec();
+        var recognized = new boolean[1];
+
+        consume(text, BED_RANGE, m -> {
+            spec.setMinBeds(Integer.parseInt(m.group(1)));
+            spec.setMaxBeds(Integer.parseInt(m.group(2)));
+            return true;
+        }, recognized);
+        consume(text, BEDS_BOUND, m -> {
+            int beds = Integer.parseInt(m.group(2));
+            if (isAtMost(m.group(1))) spec.setMaxBeds(beds);
+            else spec.setMinBeds(beds);
+            return true;
+        }, recognized);
+        consume(text, BATHS_BOUND, m -> {
+            spec.setMinBaths(Integer.parseInt(m.group(2)));
+            return true;
+        }, recognized);
+        consume(text, SQFT_BOUND, m -> {
+            int sqft = Integer.parseInt(m.group(2).replace(",", ""));
+            if (isAtMost(m.group(1))) spec.setMaxSqft(sqft);
+            else spec.setMinSqft(sqft);
+            return true;
+        }, recognized);
+        consume(text, YEAR_BUILT, m -> {
+            int year = Integer.parseInt(m.group(2));
+            spec.setMinYearBuilt("after".equals(m.group(1)) ? year + 1 : year);
+            return true;
+        }, recognized);
+        consume(text, PRICE_RANGE, m -> {
+            var low = amount(m.group(1), m.group(2) != null ? m.group(2) : m.group(4));
+            var high = amount(m.group(3), m.group(4));
+            if (low == null || high == null || low > high) return false;
+            spec.setMinPrice(low);
+            spec.setMaxPrice(high);
+            return true;
+        }, recognized);
+        consume(text, PRICE_BOUND, m -> {
+            var price = amount(m.group(2), m.group(3));
+            if (price == null) return false;
+            if (isAtLeast(m.group(1))) spec.setMinPrice(price);
+            else spec.setMaxPrice(price);
+            return true;
+        }, recognized);
+        consume(text, PRICE_BARE, m -> {
+            var price = m.group(1) != null ? amount(m.group(1), m.group(2)) : amount(m.group(3), m.group(4));
+            if (price == null || spec.getMaxPrice() != null) return false;
+            spec.setMaxPrice(price);
+            return true;
+        }, recognized);
+        consume(text, PARKING, m -> {
+            spec.setHasParking(Boolean.TRUE);
+            return true;
+        }, recognized);
+        consume(text, PETS, m -> {
+            spec.setPetsAllowed(Boolean.TRUE);
+            return true;
+        }, recognized);
+        consume(text, WATERFRONT, m -> {
+            spec.setWaterfront(Boolean.TRUE);
+            return true;
+        }, recognized);
+
+        return parseWords(message, text, spec, recognized[0]);
+    }
+
+    /**
+     * Everything left after the patterns must be a type, a place or a filler word.
+     */
+    private Optional<FilterSpec> parseWords(String original, CharSequence text, FilterSpec spec, boolean recognized) {
+        var words = new ArrayList<String>();
+        var offsets = new ArrayList<Integer>();
+        var matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            words.add(matcher.group());
+            offsets.add(matcher.start());
+        }
+
+        var cities = new LinkedHashSet<String>();
+        var states = new LinkedHashSet<String>();
+        var types = new LinkedHashSet<String>();
+        boolean afterCity = false;
+        for (int i = 0; i < words.size(); ) {
+            var word = words.get(i);
+
+            var place = gazetteer.longestMatch(words, i);
+            if (place != null) {
+                var state = place.places().stream().filter(p -> p.kind() == PlaceKind.STATE).findFirst();
+                if (state.isPresent()) {
+                    states.add(state.get().state());
+                    afterCity = false;
+                } else {
+                    cities.add(place.places().get(0).name());
+                    afterCity = true;
+                }
+                recognized = true;
+                i += place.length();
+                continue;
+            }
+
+            // codes such as "or", "in", "me" and "hi" are ordinary words: only "MA" or "boston, ma" is a state
+            var code = word.length() == 2 ? gazetteer.stateCode(word) : null;
+            if (code != null && (isUpperCase(original, offsets.get(i), 2)
+                    || (afterCity && followsComma(text, offsets.get(i - 1) + words.get(i - 1).length(), offsets.get(i))))) {
+                states.add(code);
+                recognized = true;
+            } else if (PROPERTY_TYPES.containsKey(word)) {
+                types.add(PROPERTY_TYPES.get(word));
+                recognized = true;
+            } else if (GENERIC_TYPES.contains(word)) {
+                recognized = true;
+            } else if (!FILLERS.contains(word)) {
+                return Optional.empty();
+            }
+            afterCity = false;
+            i++;
+        }
+
+        if (!recognized) return Optional.empty();
+        if (!cities.isEmpty()) spec.setCity(List.copyOf(cities));
+        if (!states.isEmpty()) spec.setState(List.copyOf(states));
+        if (!types.isEmpty()) spec.setTypes(List.copyOf(types));
+        return Optional.of(spec);
+    }
+
+    /**
+     * Applies {@code handler} to each match and blanks the matched text when the handler accepts it,
+     * so later patterns and the word pass no longer see it.
+     */
+    private static void consume(StringBuilder text, Pattern pattern, MatchHandler handler, boolean[] recognized) {
+        Matcher m = pattern.matcher(text);
+        int from = 0;
+        while (from < text.length() && m.find(from)) {
+            if (handler.accept(m)) {
+                for (int i = m.start(); i < m.end(); i++) text.setCharAt(i, ' ');
+                recognized[0] = true;
+            }
+            from = Math.max(m.end(), m.start() + 1);
+        }
+    }
+
+    /**
+     * Converts "500k", "1.2m" or "750,000" to dollars; amounts below 10k are not prices.
+     */
+    private static Double amount(String digits, String suffix) {
+        double value;
+        try {
+            value = Double.parseDouble(digits.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (suffix != null) {
+            value *= switch (suffix) {
+                case "k", "thousand" -> 1_000;
+                default -> 1_000_000;
+            };
+        }
+        return value < 10_000 ? null : value;
+    }
+
+    private static boolean isAtLeast(String qualifier) {
+        return qualifier != null && qualifier.matches(AT_LEAST);
+    }
+
+    private static boolean isAtMost(String qualifier) {
+        return qualifier != null && qualifier.matches(AT_MOST);
+    }
+
+    private static boolean isUpperCase(String original, int offset, int length) {
+        return original.length() >= offset + length
+                && original.substring(offset, offset + length).chars().allMatch(Character::isUpperCase);
+    }
+
+    private static boolean followsComma(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == ',') return true;
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface MatchHandler {
+        boolean accept(Matcher match);
+    }
+}
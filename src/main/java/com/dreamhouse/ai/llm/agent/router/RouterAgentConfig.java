@@ -1,7 +1,8 @@
 package com.dreamhouse.ai.llm.agent.router;
 
+import com.dreamhouse.ai.llm.metrics.LlmMetrics;
 import dev.langchain4j.agentic.AgenticServices;
-import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.chat.ChatModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -13,15 +14,15 @@ public class RouterAgentConfig {
     private static final Logger log = LoggerFactory.getLogger(RouterAgentConfig.class);
 
     @Bean
-    public RouterAgent routerAgent(@Qualifier("qwenChatModel") OllamaChatModel ollamaChatModel) {
+    public RouterAgent routerAgent(@Qualifier("qwenChatModel") ChatModel chatModel, LlmMetrics llmMetrics) {
         return AgenticServices
                 .agentBuilder(RouterAgent.class)
-                .chatModel(ollamaChatModel)
+                .chatModel(llmMetrics.instrument(chatModel, "router"))
                 .async(Boolean.TRUE)
                 .outputKey("isChat")
                 .beforeAgentInvocation(e -> {
                     var request = e.inputs().get("request");
-                    log.info("Invoking RouterAgent with user request: {}", request);
+                    log.debug("Invoking RouterAgent with user request: {}", request);
                 })
                 .afterAgentInvocation(e -> {
                     var category = e.output();
@@ -0,0 +1,93 @@
+package com.dreamhouse.ai.llm.agent.router;
+
+import com.dreamhouse.ai.llm.model.auxilary.RequestCategory;
+import com.dreamhouse.ai.llm.util.AIUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic pre-classifier for requests whose category is obvious from their wording.
+ * <p>
+ * Search and chat cues are scored independently; the category with the higher score wins and the
+ * confidence is the margin between the two, capped at {@code 1.0}. A bare "3 bedroom condo in Boston under
+ * 600k" scores well above any threshold, a bare "hi" likewise for chat, while mixed or vague wording ends up
+ * near zero and is left to the {@link RouterAgent}.
+ * </p>
+ */
+@Component
+public class RuleBasedRouter {
+    private static final Pattern PRICE_PATTERN = Pattern.compile(
+            "(?:\\$\\s*\\d[\\d,.]*\\s*[km]?\\b|\\b\\d[\\d,.]*\\s*(?:k|m|mil|million|thousand)\\b|\\b(?:under|below|less than|max|up to|budget)\\s+\\$?\\d)");
+    private static final Pattern BATH_PATTERN = Pattern.compile("\\b\\d+(?:\\.5)?\\s*-?\\s*bath(room)?s?\\b");
+    private static final Pattern AREA_PATTERN = Pattern.compile("\\b\\d[\\d,]*\\s*(?:sq\\.?\\s*ft|sqft|square\\s+feet|m2)\\b");
+    private static final Pattern LOCATION_PATTERN = Pattern.compile("\\b(?:in|near|around)\\s+[A-Z][a-z]+");
+    private static final Pattern WORD_PATTERN = Pattern.compile("[a-z']+");
+
+    private static final Set<String> PROPERTY_TYPES = Set.of(
+            "house", "houses", "home", "homes", "condo", "condos", "apartment", "apartments", "flat", "flats",
+            "townhouse", "townhouses", "townhome", "studio", "studios", "villa", "villas", "loft", "lofts",
+            "duplex", "cottage", "bungalow", "listing", "listings", "property", "properties");
+    private static final Set<String> SEARCH_VERBS = Set.of(
+            "find", "show", "search", "list", "looking", "want", "need", "buy", "rent", "available");
+    private static final Set<String> GREETINGS = Set.of(
+            "hi", "hello", "hey", "yo", "thanks", "thank", "thx", "bye", "goodbye", "morning", "evening",
+            "ok", "okay", "cool", "great", "nice");
+    private static final Set<String> CHAT_CUES = Set.of(
+            "how", "why", "what's", "explain", "who", "joke", "help", "advice", "mortgage", "tips");
+
+    /**
+     * Scores a message and returns the likelier category with a confidence in {@code [0, 1]}.
+     */
+    public RouteDecision decide(String message) {
+        if (message == null || message.isBlank()) {
+            return new RouteDecision(RequestCategory.CHAT, 1.0);
+        }
+
+        var lower = message.toLowerCase(Locale.ROOT);
+        double search = 0;
+        double chat = 0;
+
+        if (AIUtil.BED_PATTERN.matcher(lower).find()) search += 0.5;
+        if (BATH_PATTERN.matcher(lower).find()) search += 0.3;
+        if (AREA_PATTERN.matcher(lower).find()) search += 0.3;
+        if (PRICE_PATTERN.matcher(lower).find()) search += 0.4;
+        if (LOCATION_PATTERN.matcher(message).find()) search += 0.15;
+
+        int words = 0;
+        int greetings = 0;
+        boolean propertyType = false;
+        boolean searchVerb = false;
+        boolean chatCue = false;
+        var matcher = WORD_PATTERN.matcher(lower);
+        while (matcher.find()) {
+            var word = matcher.group();
+            words++;
+            if (PROPERTY_TYPES.contains(word)) propertyType = true;
+            if (SEARCH_VERBS.contains(word)) searchVerb = true;
+            if (GREETINGS.contains(word)) greetings++;
+            if (CHAT_CUES.contains(word)) chatCue = true;
+        }
+
+        if (propertyType) search += 0.35;
+        if (searchVerb && propertyType) search += 0.2;
+        if (greetings > 0 && greetings * 2 >= words) chat += 1.0;
+        else if (greetings > 0) chat += 0.2;
+        if (chatCue) chat += 0.35;
+        if (lower.trim().endsWith("?") && search < 0.5) chat += 0.2;
+
+        var category = search > chat ? RequestCategory.SEARCH : RequestCategory.CHAT;
+        return new RouteDecision(category, Math.min(1.0, Math.abs(search - chat)));
+    }
+
+    /**
+     * Outcome of rule scoring.
+     *
+     * @param category   the likelier category
+     * @param confidence margin between the two scores, in {@code [0, 1]}
+     */
+    public record RouteDecision(RequestCategory category, double confidence) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.dreamhouse.ai.llm.backend;
+
+import com.dreamhouse.ai.llm.configuration.llm.properties.BackendPoolProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.LLMProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Ollama instances chat models are spread over, with their load and health.
+ * <p>
+ * Calls go to the backend with the fewest calls outstanding. A chat session sticks to one backend, chosen by
+ * rendezvous hashing of the session id, so the model server can reuse the prompt prefix it already holds
+ * for the conversation; the session is served elsewhere when that backend is down or more than
+ * {@code pinSlack} calls busier than the least loaded one.
+ * </p>
+ * <p>
+ * Backends are probed every {@code healthInterval} and taken out of rotation as soon as a call fails to
+ * connect; the next successful probe puts them back. If every backend is down they are all tried anyway,
+ * since a probe may simply have been unlucky.
+ * </p>
+ */
+@Component
+public class OllamaBackendPool {
+    private static final Logger log = LoggerFactory.getLogger(OllamaBackendPool.class);
+    private static final String HEALTH_PATH = "/api/version";
+
+    private final BackendPoolProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<Backend> backends;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+        var t = new Thread(r, "ollama-health-check");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public OllamaBackendPool(LLMProperties llmProperties,
+                             BackendPoolProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        var urls = properties.backends().isEmpty() ? List.of(llmProperties.nativeBaseUrl()) : properties.backends();
+        this.backends = urls.stream().map(Backend::new).toList();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(properties.healthTimeout()).build();
+
+        for (var backend : backends) {
+            Gauge.builder("ai.llm.backend.outstanding", backend, b -> b.outstanding.get())
+                    .tag("backend", backend.url())
+                    .register(meterRegistry);
+            Gauge.builder("ai.llm.backend.up", backend, b -> b.up ? 1 : 0)
+                    .tag("backend", backend.url())
+                    .register(meterRegistry);
+        }
+        if (backends.size() > 1) {
+            long period = properties.healthInterval().toMillis();
+            healthChecker.scheduleWithFixedDelay(this::probeAll, period, period, TimeUnit.MILLISECONDS);
+        }
+        log.info("Ollama backend pool: {}", urls);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        healthChecker.shutdownNow();
+    }
+
+    public List<Backend> backends() {
+        return backends;
+    }
+
+    public BackendPoolProperties.Hedge hedge() {
+        return properties.hedge();
+    }
+
+    /**
+     * Picks the backend for a call.
+     *
+     * @param sessionId chat session to keep on one backend, or {@code null} for the least loaded backend
+     * @param exclude   backend that must not be picked (the one a hedged call is already running on), or {@code null}
+     * @return the backend, or {@code null} if {@code exclude} was the only one
+     */
+    public Backend choose(String sessionId, Backend exclude) {
+        var candidates = backends.stream().filter(b -> b != exclude && b.up).toList();
+        if (candidates.isEmpty()) candidates = backends.stream().filter(b -> b != exclude).toList();
+        if (candidates.isEmpty()) return null;
+
+        // random start so idle backends share ties instead of the first one taking everything
+        int start = ThreadLocalRandom.current().nextInt(candidates.size());
+        Backend least = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            var backend = candidates.get((start + i) % candidates.size());
+            if (least == null || backend.outstanding.get() < least.outstanding.get()) least = backend;
+        }
+        if (sessionId == null) return least;
+
+        Backend pinned = null;
+        long best = Long.MIN_VALUE;
+        for (var backend : candidates) {
+            long weight = mix((sessionId + '|' + backend.url()).hashCode());
+            if (pinned == null || weight > best) {
+                pinned = backend;
+                best = weight;
+            }
+        }
+        return pinned.outstanding.get() <= least.outstanding.get() + properties.pinSlack() ? pinned : least;
+    }
+
+    /**
+     * Takes {@code backend} out of rotation if {@code failure} shows it could not be reached at all.
+     */
+    public void reportFailure(Backend backend, Throwable failure) {
+        if (backends.size() < 2 || !isConnectFailure(failure)) return;
+        if (backend.up) log.warn("Ollama backend {} unreachable, taking it out of rotation: {}", backend.url(), failure.getMessage());
+        backend.up = false;
+    }
+
+    public void countHedge(String model, String outcome) {
+        Counter.builder("ai.llm.hedge")
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void probeAll() {
+        for (var backend : backends) {
+            boolean up = probe(backend);
+            if (up != backend.up) log.info("Ollama backend {} is {}", backend.url(), up ? "back up" : "down");
+            backend.up = up;
+        }
+    }
+
+    private boolean probe(Backend backend) {
+        try {
+            var request = HttpRequest.newBuilder(URI.create(backend.url() + HEALTH_PATH))
+                    .timeout(properties.healthTimeout())
+                    .GET()
+                    .build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return backend.up;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean isConnectFailure(Throwable failure) {
+        for (var t = failure; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof HttpConnectTimeoutException) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Spreads string hash codes so that rendezvous weights of similar keys are not correlated.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * One Ollama instance. {@link #begin()} and {@link #end()} bracket every call made to it.
+     */
+    public static final class Backend {
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile boolean up = true;
+
+        private Backend(String url) {
+            this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public void begin() {
+            outstanding.incrementAndGet();
+        }
+
+        public void end() {
+            outstanding.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.dreamhouse.ai.llm.backend;
+
+import com.dreamhouse.ai.llm.backend.OllamaBackendPool.Backend;
+import com.dreamhouse.ai.llm.scheduler.AdmissionContext;
+import com.dreamhouse.ai.llm.scheduler.LlmAdmissionScheduler;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@link ChatModel} spread over the {@link OllamaBackendPool}, one client per backend.
+ * <p>
+ * Calls marked {@link AdmissionContext#idempotent idempotent} (routing, filter extraction) are hedged: when
+ * the first backend has not answered within the configured percentile of recent latencies, the same request
+ * goes to a second backend and whichever answers first wins; the other is cancelled. A hedge only goes out if
+ * the {@link LlmAdmissionScheduler} has a slot free right now, so hedging never competes with queued calls.
+ * Other calls, which carry chat memory, stay on their session's backend.
+ * </p>
+ */
+public class PooledChatModel implements ChatModel {
+    private static final int LATENCY_WINDOW = 256;
+
+    private final String name;
+    private final OllamaBackendPool pool;
+    private final LlmAdmissionScheduler scheduler;
+    private final Map<Backend, ChatModel> models = new IdentityHashMap<>();
+    private final ChatModel any;
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private long samples;
+
+    /**
+     * @param name      model name, for metrics
+     * @param pool      backends to spread calls over
+     * @param scheduler admission control, asked for a free slot before hedging
+     * @param factory   builds the client for one backend base URL
+     */
+    public PooledChatModel(String name,
+                           OllamaBackendPool pool,
+                           LlmAdmissionScheduler scheduler,
+                           Function<String, ChatModel> factory) {
+        this.name = name;
+        this.pool = pool;
+        this.scheduler = scheduler;
+        for (var backend : pool.backends()) models.put(backend, factory.apply(backend.url()));
+        this.any = models.get(pool.backends().get(0));
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        if (!AdmissionContext.isIdempotent()) {
+            return call(pool.choose(AdmissionContext.currentSession(), null), chatRequest);
+        }
+        var primary = pool.choose(null, null);
+        var delay = hedgeDelay();
+        long start = System.nanoTime();
+        var response = delay == null ? call(primary, chatRequest) : hedged(primary, chatRequest, delay);
+        recordLatency(System.nanoTime() - start);
+        return response;
+    }
+
+    private ChatResponse hedged(Backend primary, ChatRequest chatRequest, Duration delay) {
+        var completion = new ExecutorCompletionService<ChatResponse>(hedgeExecutor);
+        var calls = new ArrayList<Future<ChatResponse>>(2);
+        calls.add(completion.submit(() -> call(primary, chatRequest)));
+        try {
+            var done = completion.poll(delay.toNanos(), TimeUnit.NANOSECONDS);
+            if (done == null) {
+                var secondary = pool.choose(null, primary);
+                var permit = secondary == null ? null : scheduler.tryAcquire();
+                if (permit != null) {
+                    calls.add(completion.submit(() -> {
+                        try (permit) {
+                            return call(secondary, chatRequest);
+                        }
+                    }));
+                    pool.countHedge(name, "sent");
+                } else {
+                    pool.countHedge(name, "skipped");
+                }
+                done = completion.take();
+            }
+            for (int pending = calls.size(); ; pending--) {
+                try {
+                    var response = done.get();
+                    if (done != calls.get(0)) pool.countHedge(name, "won");
+                    return response;
+                } catch (ExecutionException e) {
+                    if (pending == 1) {
+                        throw e.getCause() instanceof RuntimeException r ? r : new IllegalStateException(e.getCause());
+                    }
+                    done = completion.take();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the model");
+        } finally {
+            calls.forEach(call -> call.cancel(true));
+        }
+    }
+
+    private ChatResponse call(Backend backend, ChatRequest chatRequest) {
+        backend.begin();
+        try {
+            return models.get(backend).chat(chatRequest);
+        } catch (RuntimeException e) {
+            pool.reportFailure(backend, e);
+            throw e;
+        } finally {
+            backend.end();
+        }
+    }
+
+    /**
+     * @return how long to wait for the first backend before hedging, or {@code null} to not hedge
+     */
+    private synchronized Duration hedgeDelay() {
+        var hedge = pool.hedge();
+        if (!hedge.enabled() || models.size() < 2 || samples < hedge.minSamples()) return null;
+        int n = (int) Math.min(samples, LATENCY_WINDOW);
+        var sorted = Arrays.copyOf(latencies, n);
+        Arrays.sort(sorted);
+        long percentile = sorted[Math.max(0, (int) Math.ceil(hedge.percentile() * n) - 1)];
+        return Duration.ofNanos(Math.max(percentile, hedge.minDelay().toNanos()));
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[(int) (samples++ % LATENCY_WINDOW)] = nanos;
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return any.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return any.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return any.provider();
+    }
+}
@@ -0,0 +1,82 @@
+package com.dreamhouse.ai.llm.backend;
+
+import com.dreamhouse.ai.llm.backend.OllamaBackendPool.Backend;
+import com.dreamhouse.ai.llm.scheduler.AdmissionContext;
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * {@link StreamingChatModel} spread over the {@link OllamaBackendPool}. Streams are never hedged, since
+ * tokens reach the client as they arrive; they stay on their session's backend.
+ */
+public class PooledStreamingChatModel implements StreamingChatModel {
+    private final OllamaBackendPool pool;
+    private final Map<Backend, StreamingChatModel> models = new IdentityHashMap<>();
+    private final StreamingChatModel any;
+
+    /**
+     * @param pool    backends to spread calls over
+     * @param factory builds the client for one backend base URL
+     */
+    public PooledStreamingChatModel(OllamaBackendPool pool, Function<String, StreamingChatModel> factory) {
+        this.pool = pool;
+        for (var backend : pool.backends()) models.put(backend, factory.apply(backend.url()));
+        this.any = models.get(pool.backends().get(0));
+    }
+
+    @Override
+    public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+        var backend = pool.choose(AdmissionContext.currentSession(), null);
+        backend.begin();
+        try {
+            models.get(backend).chat(chatRequest, new StreamingChatResponseHandler() {
+                @Override
+                public void onPartialResponse(String partialResponse) {
+                    handler.onPartialResponse(partialResponse);
+                }
+
+                @Override
+                public void onCompleteResponse(ChatResponse completeResponse) {
+                    backend.end();
+                    handler.onCompleteResponse(completeResponse);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    backend.end();
+                    pool.reportFailure(backend, error);
+                    handler.onError(error);
+                }
+            });
+        } catch (RuntimeException e) {
+            backend.end();
+            pool.reportFailure(backend, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return any.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return any.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return any.provider();
+    }
+}
@@ -5,23 +5,24 @@ import com.dreamhouse.ai.llm.util.GuardrailUtil;
 import dev.langchain4j.guardrail.InputGuardrail;
 import dev.langchain4j.guardrail.InputGuardrailRequest;
 import dev.langchain4j.guardrail.InputGuardrailResult;
+import com.dreamhouse.ai.ratelimit.configuration.properties.RateLimitProperties;
+import com.dreamhouse.ai.ratelimit.service.RateLimiterService;
 import io.micrometer.core.instrument.MeterRegistry;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class LengthAndRateGuardrail implements InputGuardrail {
     private final GuardrailProperties.FormattingProperties formattingProperties;
     private final GuardrailProperties.RateLimitProperties  rateLimitProperties;
     private final MeterRegistry metrics;
-    private final Cache<String, AtomicInteger> window;
+    private final RateLimiterService rateLimiterService;
+    private final RateLimitProperties.BucketLimit bucketLimit;
 
-    public LengthAndRateGuardrail(GuardrailProperties guardrailProperties, MeterRegistry registry) {
+    public LengthAndRateGuardrail(GuardrailProperties guardrailProperties,
+                                  MeterRegistry registry,
+                                  RateLimiterService rateLimiterService) {
         this.formattingProperties = Objects.requireNonNull(
                 guardrailProperties.formatting(),
                 "guardrails.formatting must be configured"
@@ -31,9 +32,12 @@ public class LengthAndRateGuardrail implements InputGuardrail {
                 "guardrails.rate-limit must be configured"
         );
         this.metrics = registry;
-        this.window = Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(1))
-                .build();
+        this.rateLimiterService = rateLimiterService;
+        this.bucketLimit = rateLimitProperties.enabled()
+                ? new RateLimitProperties.BucketLimit(
+                        Math.max(1, rateLimitProperties.burstSize()),
+                        Math.max(1, rateLimitProperties.perMinute()))
+                : null;
     }
 
     @Override
@@ -52,21 +56,11 @@ public class LengthAndRateGuardrail implements InputGuardrail {
         }
 
         String userId = GuardrailUtil.userKey(request);
-        var counter = window.get(userId, __ -> new AtomicInteger(0));
-        int current = counter.incrementAndGet();
-
-        if (rateLimitProperties.perMinute() > 0 &&
-        current > rateLimitProperties.perMinute()) {
+        if (!rateLimiterService.tryAcquire("ai-guardrail", userId, bucketLimit)) {
             metrics.counter("guardrails.input.rate_limited").increment();
             return failure("Rate limit exceeded. Please try again shortly.");
         }
 
-        if (rateLimitProperties.burstSize() > 0 &&
-                current > rateLimitProperties.burstSize()) {
-            metrics.counter("guardrails.input.burst_blocked").increment();
-            return failure("Too many requests in a short time. Please slow down.");
-        }
-
         return success();
     }
 }
@@ -1,6 +1,13 @@
 package com.dreamhouse.ai.llm.configuration.guardrails;
 
+import com.dreamhouse.ai.llm.configuration.guardrails.SafetyPreClassifier.Verdict;
 import com.dreamhouse.ai.llm.configuration.guardrails.properties.GuardrailProperties;
+import com.dreamhouse.ai.llm.configuration.guardrails.properties.GuardrailProperties.PreClassifierMode;
+import com.dreamhouse.ai.llm.metrics.LlmMetrics;
+import com.dreamhouse.ai.llm.scan.Signal;
+import com.dreamhouse.ai.llm.scan.TextScanner;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.data.message.UserMessage;
@@ -8,42 +15,100 @@ import dev.langchain4j.guardrail.InputGuardrail;
 import dev.langchain4j.guardrail.InputGuardrailRequest;
 import dev.langchain4j.guardrail.InputGuardrailResult;
 import dev.langchain4j.model.chat.response.ChatResponse;
-import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.chat.ChatModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Locale;
 import java.util.Objects;
-
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Blocks unsafe chat input. Messages without a red-flag word pass straight away; the rest are judged by the
+ * guardian model, unless the same text was judged recently or the {@link SafetyPreClassifier} is confident.
+ * <p>
+ * {@code ai.guardrail.safety} counts how each message was decided; every decision other than
+ * {@code guardian} is a guardian call avoided.
+ * </p>
+ */
 @Component
 public class SafetyGuardrail implements InputGuardrail {
+    private static final String DECISION_METRIC = "ai.guardrail.safety";
+    private static final String AGREEMENT_METRIC = "ai.guardrail.safety.agreement";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 
-    private final OllamaChatModel guardianModel;
+    private final ChatModel guardianModel;
     private final GuardrailProperties.ModerationProperties moderationProps;
-
-    public SafetyGuardrail(@Qualifier("guardianModel") OllamaChatModel guardianModel,
-                           GuardrailProperties guardrailProperties) {
-        this.guardianModel = guardianModel;
+    private final SafetyPreClassifier preClassifier;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Verdict> verdicts;
+
+    public SafetyGuardrail(@Qualifier("guardianModel") ChatModel guardianModel,
+                           GuardrailProperties guardrailProperties,
+                           SafetyPreClassifier preClassifier,
+                           LlmMetrics llmMetrics,
+                           MeterRegistry meterRegistry) {
+        this.guardianModel = llmMetrics.instrument(guardianModel, "guardian");
         this.moderationProps = Objects.requireNonNull(
                 guardrailProperties.moderation(),
                 "guardrail.moderation must not be null");
+        this.preClassifier = preClassifier;
+        this.meterRegistry = meterRegistry;
+        this.verdicts = Caffeine.newBuilder()
+                .maximumSize(moderationProps.verdictCacheSize())
+                .expireAfterWrite(moderationProps.verdictCacheTtl())
+                .build();
     }
 
     @Override
     public InputGuardrailResult validate(InputGuardrailRequest request) {
+        var violation = violation(extractText(request));
+        return violation == null ? success() : failure(violation);
+    }
+
+    /**
+     * The same check as {@link #validate}, for callers that run it next to the agent instead of in front of it.
+     *
+     * @param input the user's message
+     * @return why the message is rejected, or {@code null} if it may be answered
+     */
+    public String violation(String input) {
         if(moderationProps != null && !moderationProps.enabled()){
-            return success();
+            return null;
         }
 
-        String input = extractText(request);
+        input = input == null ? "" : input.trim();
         if (input.isBlank()) {
-            return failure("Empty or unsupported message for safety check.");
+            return "Empty or unsupported message for safety check.";
         }
 
         if(isSafe(input)){
-            return success();
+            count("keyword");
+            return null;
+        }
+
+        var normalized = WHITESPACE.matcher(input.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        var key = fingerprint(normalized);
+        var cached = verdicts.getIfPresent(key);
+        if (cached != null) {
+            count("cache");
+            return result(cached);
+        }
+
+        var local = preClassifier.predict(normalized);
+        if (local == Verdict.BLOCK
+                && moderationProps.preClassifier().mode() == PreClassifierMode.ACTIVE
+                && ThreadLocalRandom.current().nextDouble() >= moderationProps.preClassifier().verifySampleRate()) {
+            count("local_block");
+            return result(local);
         }
 
         var systemMessage = SystemMessage.systemMessage("""
@@ -56,13 +121,50 @@ public class SafetyGuardrail implements InputGuardrail {
 
         ChatResponse chatResponse = guardianModel.chat(systemMessage, userMessage);
         String label = chatResponse.aiMessage() != null ? chatResponse.aiMessage().text() : "";
-        label = label.trim().toUpperCase(Locale.ROOT);
+        label = label == null ? "" : label.trim().toUpperCase(Locale.ROOT);
+        count("guardian");
 
-        return switch (label) {
-            case "ALLOW" -> success();
-            case "BLOCK" -> failure("Sorry, that query violates our guidelines.");
-            default ->      failure("Safety classifier returned an unknown label.");
+        Verdict verdict = switch (label) {
+            case "ALLOW" -> Verdict.ALLOW;
+            case "BLOCK" -> Verdict.BLOCK;
+            default -> null;
         };
+        if (verdict == null) {
+            return "Safety classifier returned an unknown label.";
+        }
+
+        verdicts.put(key, verdict);
+        preClassifier.learn(normalized, verdict);
+        if (local != null) agreement(local == verdict);
+        return result(verdict);
+    }
+
+    private static String result(Verdict verdict) {
+        return verdict == Verdict.ALLOW ? null : "Sorry, that query violates our guidelines.";
+    }
+
+    private void count(String decision) {
+        Counter.builder(DECISION_METRIC)
+                .tag("decision", decision)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void agreement(boolean agreed) {
+        Counter.builder(AGREEMENT_METRIC)
+                .description("Sampled confident local verdicts checked against the guardian model")
+                .tag("result", agreed ? "agree" : "disagree")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String fingerprint(String normalized) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     @NotNull
@@ -75,24 +177,12 @@ public class SafetyGuardrail implements InputGuardrail {
     }
 
     private boolean isSafe(@NotNull String input) {
-        var lowerCaseInput = input.toLowerCase(Locale.ROOT);
+        var scan = TextScanner.scan(input);
 
-        if(lowerCaseInput.length() < 40 &&
-                (lowerCaseInput.contains("hi") ||
-                        lowerCaseInput.contains("hello") ||
-                        lowerCaseInput.contains("hey"))) {
+        if(input.length() < 40 && scan.has(Signal.GREETING)) {
             return Boolean.TRUE;
         }
 
-        List<String> redFlags = List.of(
-                "kill", "murder", "suicide", "bomb",
-                "terrorist", "rape", "child porn", "cp",
-                "shoot", "stab", "overdose", "self harm",
-                "hack bank", "credit card dump", "gun instructions"
-        );
-
-        boolean hasRedFlag = redFlags.stream().anyMatch(lowerCaseInput::contains);
-        return !hasRedFlag;
-
+        return !scan.has(Signal.RED_FLAG);
     }
 }
@@ -0,0 +1,121 @@
+package com.dreamhouse.ai.llm.configuration.guardrails;
+
+import com.dreamhouse.ai.llm.configuration.guardrails.properties.GuardrailProperties;
+import com.dreamhouse.ai.llm.configuration.guardrails.properties.GuardrailProperties.PreClassifierMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the guardian model: a logistic regression over hashed word and character n-grams,
+ * trained online from the guardian's own verdicts.
+ * <p>
+ * Inputs the {@link SafetyGuardrail} would send to the guardian are first scored here. A prediction is only
+ * made once the model has learned from enough verdicts, has seen most of the input's features before, and its
+ * block probability is outside the configured band. The model has never been evaluated offline and learns
+ * mostly from benign messages, so it is trusted one way only: in {@code ACTIVE} mode a confident BLOCK may
+ * skip the guardian, an ALLOW never does. In {@code SHADOW} mode predictions are only compared with the
+ * guardian's verdicts. The weights live in memory per node.
+ * </p>
+ */
+@Component
+public class SafetyPreClassifier {
+    private static final int DIMENSION_BITS = 18;
+    private static final int DIMENSION = 1 << DIMENSION_BITS;
+    private static final double LEARNING_RATE = 0.2;
+    private static final int CHAR_GRAM = 4;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final GuardrailProperties.PreClassifierProperties properties;
+    private final float[] weights = new float[DIMENSION];
+    private final boolean[] seen = new boolean[DIMENSION];
+    private double bias;
+    private long samples;
+
+    @Autowired
+    public SafetyPreClassifier(GuardrailProperties guardrailProperties) {
+        this.properties = guardrailProperties.moderation().preClassifier();
+    }
+
+    /**
+     * @param normalized lowercase input with collapsed whitespace
+     * @return the verdict if the model is confident, otherwise {@code null}
+     */
+    public synchronized Verdict predict(String normalized) {
+        if (properties.mode() == PreClassifierMode.OFF || samples < properties.minSamples()) return null;
+        var features = features(normalized);
+        if (features.length == 0) return null;
+
+        // coverage is judged on whole words: character 4-grams are nearly all seen after a few hundred samples
+        var words = words(normalized);
+        int known = 0;
+        for (var word : words) if (seen[bucket("w:" + word)]) known++;
+        if (words.length == 0 || (double) known / words.length < properties.minCoverage()) return null;
+
+        double blockProbability = sigmoid(score(features));
+        if (blockProbability <= properties.allowBelow()) return Verdict.ALLOW;
+        if (blockProbability >= properties.blockAbove()) return Verdict.BLOCK;
+        return null;
+    }
+
+    /**
+     * One stochastic gradient step towards the guardian's verdict.
+     */
+    public synchronized void learn(String normalized, Verdict verdict) {
+        var features = features(normalized);
+        if (features.length == 0) return;
+        double target = verdict == Verdict.BLOCK ? 1 : 0;
+        double step = LEARNING_RATE * (target - sigmoid(score(features)));
+        float scaled = (float) (step / Math.sqrt(features.length));
+        for (int feature : features) {
+            weights[feature] += scaled;
+            seen[feature] = true;
+        }
+        bias += step;
+        samples++;
+    }
+
+    private double score(int[] features) {
+        double sum = 0;
+        for (int feature : features) sum += weights[feature];
+        return bias + sum / Math.sqrt(features.length);
+    }
+
+    /**
+     * Word unigrams and bigrams, plus character 4-grams so misspellings and run-together words still share
+     * features. Hashed into a fixed-size vector and de-duplicated.
+     */
+    private static int[] features(String normalized) {
+        var words = words(normalized);
+        var padded = " " + String.join(" ", words) + " ";
+        int charGrams = Math.max(0, padded.length() - CHAR_GRAM + 1);
+        var hashes = new int[words.length * 2 + charGrams];
+        int n = 0;
+        for (int i = 0; i < words.length; i++) {
+            hashes[n++] = bucket("w:" + words[i]);
+            if (i + 1 < words.length) hashes[n++] = bucket("b:" + words[i] + ' ' + words[i + 1]);
+        }
+        for (int i = 0; i < charGrams; i++) hashes[n++] = bucket("c:" + padded.substring(i, i + CHAR_GRAM));
+        return Arrays.stream(hashes, 0, n).distinct().toArray();
+    }
+
+    private static String[] words(String normalized) {
+        return Arrays.stream(NON_WORD.split(normalized)).filter(w -> !w.isEmpty()).toArray(String[]::new);
+    }
+
+    private static int bucket(String feature) {
+        int h = feature.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> DIMENSION_BITS)) & (DIMENSION - 1);
+    }
+
+    private static double sigmoid(double z) {
+        return 1 / (1 + Math.exp(-z));
+    }
+
+    public enum Verdict {
+        ALLOW,
+        BLOCK
+    }
+}
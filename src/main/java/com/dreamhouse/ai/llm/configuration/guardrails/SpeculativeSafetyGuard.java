@@ -0,0 +1,202 @@
+package com.dreamhouse.ai.llm.configuration.guardrails;
+
+import com.dreamhouse.ai.llm.configuration.guardrails.properties.GuardrailProperties;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.guardrail.InputGuardrail;
+import dev.langchain4j.guardrail.InputGuardrailException;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link SafetyGuardrail} next to chat generation instead of in front of it, so a chat reply costs
+ * roughly the longer of the guardian and model calls rather than their sum.
+ * <p>
+ * The reply is held back until the message is allowed. When it is blocked, or the guardian fails, the thread
+ * making the model call is interrupted, which aborts the blocking HTTP request, and the turn is removed from
+ * the session's chat memory once generation has stopped, so a rejected message leaves no trace in later
+ * replies. Only the safety check moves; the cheap length, rate and injection guardrails still run in front
+ * of the agent.
+ * </p>
+ * <p>
+ * Only blocking generation is speculated on. A {@code TokenStream} offers no way to stop the model call once
+ * it has started, so streaming chat keeps the {@link SafetyGuardrail} in front of generation.
+ * </p>
+ */
+@Component
+public class SpeculativeSafetyGuard {
+    private static final Logger log = LoggerFactory.getLogger(SpeculativeSafetyGuard.class);
+    private static final String METRIC_NAME = "ai.guardrail.speculative";
+
+    private final SafetyGuardrail safetyGuardrail;
+    private final ChatMemoryStore chatMemoryStore;
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final Timer held;
+    private final ExecutorService guardExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public SpeculativeSafetyGuard(SafetyGuardrail safetyGuardrail,
+                                  ChatMemoryStore chatMemoryStore,
+                                  GuardrailProperties guardrailProperties,
+                                  MeterRegistry meterRegistry) {
+        this.safetyGuardrail = safetyGuardrail;
+        this.chatMemoryStore = chatMemoryStore;
+        var moderation = guardrailProperties.moderation();
+        this.enabled = moderation != null && moderation.enabled() && moderation.speculative();
+        this.meterRegistry = meterRegistry;
+        this.held = Timer.builder(METRIC_NAME + ".held")
+                .description("Time a finished reply waited for the safety verdict")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        guardExecutor.shutdownNow();
+    }
+
+    /**
+     * @return whether the blocking chat agent should leave the {@link SafetyGuardrail} to this guard
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * The input guardrails the blocking chat agent runs in front of generation: all of them, minus the safety
+     * check when this guard runs it instead.
+     */
+    public InputGuardrail[] inputGuardrails(InputGuardrail... guardrails) {
+        if (!enabled) return guardrails;
+        return Arrays.stream(guardrails)
+                .filter(g -> !(g instanceof SafetyGuardrail))
+                .toArray(InputGuardrail[]::new);
+    }
+
+    /**
+     * Runs {@code generation} while {@code message} is checked and returns its result once the message is allowed.
+     *
+     * @throws InputGuardrailException if the message is blocked
+     */
+    public <T> T call(String sessionId, String message, Callable<T> generation) throws Exception {
+        var check = new Check(sessionId, message);
+        Future<T> generating = guardExecutor.submit(() -> {
+            try {
+                return generation.call();
+            } finally {
+                check.generationEnded();
+            }
+        });
+        check.verdict.whenComplete((violation, e) -> {
+            if (violation != null || e != null) generating.cancel(true);
+        });
+
+        try {
+            var violation = check.verdict.get();
+            if (violation != null) throw new InputGuardrailException(violation);
+            return generating.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        } finally {
+            generating.cancel(true);
+            check.cancel();
+        }
+    }
+
+    /**
+     * Removes the rejected turn, which the agent stored together with any reply it had produced.
+     */
+    private void forget(String sessionId, String message) {
+        var memoryId = sessionId != null ? sessionId : "anonymous";
+        try {
+            var messages = chatMemoryStore.getMessages(memoryId);
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                if (isTurnOf(messages.get(i), message)) {
+                    chatMemoryStore.updateMessages(memoryId, new ArrayList<>(messages.subList(0, i)));
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("forget - could not remove blocked turn from session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private static boolean isTurnOf(ChatMessage candidate, String message) {
+        return candidate instanceof UserMessage um && um.hasSingleText() && um.singleText().contains(message);
+    }
+
+    private void count(String outcome) {
+        Counter.builder(METRIC_NAME)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * One running safety check. {@link #verdict} completes with the reason the message is rejected, or
+     * {@code null} once it is allowed.
+     */
+    private final class Check {
+        private final CompletableFuture<String> verdict = new CompletableFuture<>();
+        private final String sessionId;
+        private final String message;
+        private final Future<?> checking;
+        /** Generation ending and a rejection both arrive here; whichever comes second clears the memory. */
+        private final AtomicInteger arrived = new AtomicInteger();
+        private volatile long generationEndedAt;
+
+        private Check(String sessionId, String message) {
+            this.sessionId = sessionId;
+            this.message = message;
+            this.checking = guardExecutor.submit(() -> {
+                try {
+                    verdict.complete(safetyGuardrail.violation(message));
+                } catch (RuntimeException e) {
+                    verdict.completeExceptionally(e);
+                }
+            });
+            verdict.whenComplete((violation, e) -> {
+                if (e instanceof CancellationException) return;
+                boolean allowed = violation == null && e == null;
+                count(allowed ? "allowed" : "blocked");
+                long endedAt = generationEndedAt;
+                if (allowed && endedAt != 0) held.record(System.nanoTime() - endedAt, TimeUnit.NANOSECONDS);
+                if (!allowed) arrive();
+            });
+        }
+
+        private void generationEnded() {
+            generationEndedAt = System.nanoTime();
+            arrive();
+        }
+
+        private void cancel() {
+            checking.cancel(true);
+            verdict.cancel(false);
+        }
+
+        private void arrive() {
+            if (arrived.incrementAndGet() == 2) forget(sessionId, message);
+        }
+    }
+}
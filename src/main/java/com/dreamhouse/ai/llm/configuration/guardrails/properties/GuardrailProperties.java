@@ -2,6 +2,8 @@ package com.dreamhouse.ai.llm.configuration.guardrails.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "guardrails")
 public record GuardrailProperties(
         ModerationProperties moderation,
@@ -11,10 +13,63 @@ public record GuardrailProperties(
         RateLimitProperties rateLimit
 ) {
 
+    /**
+     * @param verdictCacheSize guardian verdicts remembered per node, keyed by a hash of the normalized input
+     * @param verdictCacheTtl  how long a verdict is reused
+     * @param preClassifier    local model that answers for the guardian when it is confident
+     * @param speculative      check non-streaming chat messages while the reply is already being generated,
+     *                         holding the reply back until the message is allowed
+     */
     public record ModerationProperties(
             boolean enabled,
-            double toxicityThreshold
-    ) {}
+            double toxicityThreshold,
+            Integer verdictCacheSize,
+            Duration verdictCacheTtl,
+            PreClassifierProperties preClassifier,
+            Boolean speculative
+    ) {
+        public ModerationProperties {
+            if (verdictCacheSize == null || verdictCacheSize < 0) verdictCacheSize = 50_000;
+            if (verdictCacheTtl == null) verdictCacheTtl = Duration.ofHours(24);
+            if (preClassifier == null) preClassifier = new PreClassifierProperties(null, null, null, null, null, null);
+            if (speculative == null) speculative = Boolean.FALSE;
+        }
+    }
+
+    /**
+     * @param mode             {@code OFF}, {@code SHADOW} (predict and compare, always ask the guardian) or
+     *                         {@code ACTIVE} (a confident local BLOCK skips the guardian; a local ALLOW never does)
+     * @param minSamples       guardian verdicts learned from before the local model's predictions count
+     * @param allowBelow       decide ALLOW locally when the block probability is at most this
+     * @param blockAbove       decide BLOCK locally when the block probability is at least this
+     * @param minCoverage      share of the input's words the model must have seen before, so it never
+     *                         decides on text unlike anything it learned from
+     * @param verifySampleRate share of confident local BLOCKs in {@code ACTIVE} mode still sent to the guardian,
+     *                         to measure agreement and keep learning
+     */
+    public record PreClassifierProperties(
+            PreClassifierMode mode,
+            Integer minSamples,
+            Double allowBelow,
+            Double blockAbove,
+            Double minCoverage,
+            Double verifySampleRate
+    ) {
+        public PreClassifierProperties {
+            if (mode == null) mode = PreClassifierMode.SHADOW;
+            if (minSamples == null || minSamples < 0) minSamples = 500;
+            if (allowBelow == null) allowBelow = 0.02;
+            if (blockAbove == null) blockAbove = 0.98;
+            if (minCoverage == null) minCoverage = 0.8;
+            if (verifySampleRate == null) verifySampleRate = 0.05;
+        }
+    }
+
+    public enum PreClassifierMode {
+        OFF,
+        SHADOW,
+        ACTIVE
+    }
 
     public record InjectionProperties(
             boolean enabled,
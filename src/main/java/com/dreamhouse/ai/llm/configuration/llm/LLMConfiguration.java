@@ -1,17 +1,31 @@
 package com.dreamhouse.ai.llm.configuration.llm;
 
+import com.dreamhouse.ai.llm.backend.OllamaBackendPool;
+import com.dreamhouse.ai.llm.backend.PooledChatModel;
+import com.dreamhouse.ai.llm.backend.PooledStreamingChatModel;
 import com.dreamhouse.ai.llm.configuration.guardrails.properties.GuardrailProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.BackendPoolProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.ChatMemoryProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.DeadlineProperties;
 import com.dreamhouse.ai.llm.configuration.llm.properties.LLMProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.SchedulerProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.SearchPlanningProperties;
 import com.dreamhouse.ai.llm.listener.HouseSearchListener;
 import com.dreamhouse.ai.llm.listener.ImageSearchListener;
+import com.dreamhouse.ai.llm.memory.CompactingChatMemoryStore;
+import com.dreamhouse.ai.llm.scheduler.LlmAdmissionScheduler;
+import com.dreamhouse.ai.llm.scheduler.ScheduledChatModel;
+import com.dreamhouse.ai.llm.scheduler.ScheduledStreamingChatModel;
 import dev.langchain4j.memory.chat.ChatMemoryProvider;
 import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.ollama.OllamaChatModel;
 import dev.langchain4j.model.ollama.OllamaEmbeddingModel;
+import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
 
 
 import dev.langchain4j.store.memory.chat.ChatMemoryStore;
-import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
 import opennlp.tools.languagemodel.LanguageModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,11 +46,13 @@ import java.util.Objects;
  * Key characteristics:
  * Chat model is configured with bounded context length and request timeout.
  * Listeners are attached for tool-calling use cases (house/image search).
- * Chat memory provider issues a per-session windowed memory with a max message count.
+ * Chat memory provider issues a per-session windowed memory with a max message count, stored in Redis.
  * Embedding model uses the same Ollama base URL but a configurable model name.
+ * Chat models are spread over the {@link OllamaBackendPool} ({@code llm.pool.backends}, by default just
+ * {@code llm.native-base-url}), and every call is admitted by the {@link LlmAdmissionScheduler}.
  */
 @Configuration
-@EnableConfigurationProperties({LLMProperties.class, GuardrailProperties.class})
+@EnableConfigurationProperties({LLMProperties.class, BackendPoolProperties.class, ChatMemoryProperties.class, GuardrailProperties.class, SearchPlanningProperties.class, DeadlineProperties.class, SchedulerProperties.class})
 public class LLMConfiguration {
     /**
      * Maximum number of tokens (context length) to allocate for the model's window.
@@ -60,31 +76,62 @@ public class LLMConfiguration {
      * @param properties            application LLM properties; must provide model name, base URL and temperature
      * @param houseSearchListener   listener enabling tool-calling for house search flows
      * @param imageSearchListener   listener enabling tool-calling for image search flows
+     * @param scheduler             admission control shared by all chat models
+     * @param pool                  Ollama backends shared by all chat models
      * @return configured {@link LanguageModel}
      * @throws IllegalStateException if {@code llm.model} is null or blank
      */
     @Bean(name = "qwenChatModel")
     @Primary
-    public OllamaChatModel qwenChatModel(LLMProperties properties,
-                                         @Qualifier("houseSearchListener") HouseSearchListener houseSearchListener,
-                                         @Qualifier("imageSearchListener") ImageSearchListener imageSearchListener) {
+    public ChatModel qwenChatModel(LLMProperties properties,
+                                   @Qualifier("houseSearchListener") HouseSearchListener houseSearchListener,
+                                   @Qualifier("imageSearchListener") ImageSearchListener imageSearchListener,
+                                   LlmAdmissionScheduler scheduler,
+                                   OllamaBackendPool pool) {
         String model = Objects.requireNonNull(properties.model(), "llm model is null").trim();
         if (model.isEmpty()) throw new IllegalStateException("llm model is blank");
 
-        return OllamaChatModel.builder()
-                .baseUrl(properties.nativeBaseUrl())
+        var pooled = new PooledChatModel(model, pool, scheduler, baseUrl -> OllamaChatModel.builder()
+                .baseUrl(baseUrl)
                 .modelName(properties.model())
                 .temperature(properties.temperature())
                 .numCtx(CONTEXT_LENGTH)
                 .topK(5)
                 .listeners(List.of(houseSearchListener, imageSearchListener))
                 .timeout(Duration.ofMinutes(TIMEOUT_MINUTES))
-                .logRequests(Boolean.TRUE)
-                .logResponses(Boolean.TRUE)
-                .build();
+                .logRequests(properties.logRequests())
+                .logResponses(properties.logResponses())
+                .build());
+        return new ScheduledChatModel(pooled, scheduler);
     }
 
 
+    /**
+     * Streaming counterpart of {@link #qwenChatModel}, used where the reply is relayed to the client as it is
+     * generated (server-sent events) instead of after the full generation.
+     *
+     * @param properties application LLM properties; must provide model name, base URL and temperature
+     * @param scheduler  admission control shared by all chat models
+     * @param pool       Ollama backends shared by all chat models
+     * @return configured {@link OllamaStreamingChatModel}
+     */
+    @Bean(name = "qwenStreamingChatModel")
+    public StreamingChatModel qwenStreamingChatModel(LLMProperties properties,
+                                                     LlmAdmissionScheduler scheduler,
+                                                     OllamaBackendPool pool) {
+        var pooled = new PooledStreamingChatModel(pool, baseUrl -> OllamaStreamingChatModel.builder()
+                .baseUrl(baseUrl)
+                .modelName(properties.model())
+                .temperature(properties.temperature())
+                .numCtx(CONTEXT_LENGTH)
+                .topK(5)
+                .timeout(Duration.ofMinutes(TIMEOUT_MINUTES))
+                .logRequests(properties.logRequests())
+                .logResponses(properties.logResponses())
+                .build());
+        return new ScheduledStreamingChatModel(pooled, scheduler);
+    }
+
     /**
      * Creates an {@link OllamaEmbeddingModel} pointing to the configured Ollama base URL
      * and the embeddings model defined in properties.
@@ -103,26 +150,16 @@ public class LLMConfiguration {
 
 
     @Bean(name = "guardianModel")
-    public OllamaChatModel guardianModel(LLMProperties properties) {
-        return OllamaChatModel.builder()
-                .baseUrl(properties.nativeBaseUrl())
+    public ChatModel guardianModel(LLMProperties properties, LlmAdmissionScheduler scheduler, OllamaBackendPool pool) {
+        var pooled = new PooledChatModel("granite3-guardian:2b", pool, scheduler, baseUrl -> OllamaChatModel.builder()
+                .baseUrl(baseUrl)
                 .modelName("granite3-guardian:2b")
                 .numCtx(CONTEXT_LENGTH)
                 .temperature(properties.temperature())
-                .logRequests(Boolean.TRUE)
-                .logResponses(Boolean.TRUE)
-                .build();
-    }
-
-    /**
-     * Provides an in-memory chat memory store suitable for single-node or ephemeral environments.
-     * For production, replace with a distributed store if conversations must persist across nodes.
-     *
-     * @return a chat memory store implementation
-     */
-    @Bean
-    public ChatMemoryStore chatMemoryStore() {
-        return new InMemoryChatMemoryStore();
+                .logRequests(properties.logRequests())
+                .logResponses(properties.logResponses())
+                .build());
+        return new ScheduledChatModel(pooled, scheduler);
     }
 
     /**
@@ -130,7 +167,7 @@ public class LLMConfiguration {
      * per session id. If no session id is provided, the conversation is tracked under
      * the {@code anonymous} id. The window size is limited by {@link #MAX_NUMBER_MESSAGES}.
      *
-     * @param store backing store used to persist chat memories
+     * @param store backing store used to persist chat memories, see {@link CompactingChatMemoryStore}
      * @return a provider that yields per-session windowed chat memories
      */
     @Bean("chatMemoryProvider")
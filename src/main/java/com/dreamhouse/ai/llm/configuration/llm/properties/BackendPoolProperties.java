@@ -0,0 +1,53 @@
+package com.dreamhouse.ai.llm.configuration.llm.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ollama instances the chat models are spread over.
+ *
+ * @param backends       native base URLs; when empty, {@code llm.native-base-url} is the only backend
+ * @param healthInterval how often every backend is probed
+ * @param healthTimeout  how long a probe may take before the backend counts as down
+ * @param pinSlack       extra outstanding calls a session's pinned backend may have over the least loaded one
+ *                       before the session is served elsewhere
+ * @param hedge          duplicate slow idempotent calls on a second backend
+ */
+@ConfigurationProperties(prefix = "llm.pool")
+public record BackendPoolProperties(
+        List<String> backends,
+        Duration healthInterval,
+        Duration healthTimeout,
+        Integer pinSlack,
+        Hedge hedge
+) {
+    public BackendPoolProperties {
+        if (backends == null) backends = List.of();
+        if (healthInterval == null) healthInterval = Duration.ofSeconds(10);
+        if (healthTimeout == null) healthTimeout = Duration.ofSeconds(2);
+        if (pinSlack == null || pinSlack < 0) pinSlack = 2;
+        if (hedge == null) hedge = new Hedge(null, null, null, null);
+    }
+
+    /**
+     * @param enabled    when {@code false} calls are never duplicated
+     * @param percentile latency percentile of recent idempotent calls after which the hedge is sent
+     * @param minDelay   never hedge sooner than this
+     * @param minSamples calls observed before the percentile is trusted; no hedging until then
+     */
+    public record Hedge(
+            Boolean enabled,
+            Double percentile,
+            Duration minDelay,
+            Integer minSamples
+    ) {
+        public Hedge {
+            if (enabled == null) enabled = Boolean.TRUE;
+            if (percentile == null || percentile <= 0 || percentile >= 1) percentile = 0.95;
+            if (minDelay == null) minDelay = Duration.ofMillis(500);
+            if (minSamples == null || minSamples < 1) minSamples = 50;
+        }
+    }
+}
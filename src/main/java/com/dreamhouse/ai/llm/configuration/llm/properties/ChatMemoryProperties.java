@@ -0,0 +1,52 @@
+package com.dreamhouse.ai.llm.configuration.llm.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Where conversations are kept between turns.
+ *
+ * @param idleTtl          a conversation untouched for this long is dropped from Redis
+ * @param anonymousIdleTtl the same for sessions without a user ({@code sess:} ids), most of which never see a second turn
+ * @param nearCacheSize    conversations kept on-heap per node
+ * @param nearCacheTtl     how long a node serves a conversation from heap without it being used
+ * @param compaction       summarizing of older turns once a conversation outgrows its token budget
+ */
+@ConfigurationProperties(prefix = "llm.memory")
+public record ChatMemoryProperties(
+        Duration idleTtl,
+        Duration anonymousIdleTtl,
+        Integer nearCacheSize,
+        Duration nearCacheTtl,
+        Compaction compaction
+) {
+    public ChatMemoryProperties {
+        if (idleTtl == null) idleTtl = Duration.ofHours(24);
+        if (anonymousIdleTtl == null) anonymousIdleTtl = Duration.ofMinutes(30);
+        if (nearCacheSize == null || nearCacheSize < 0) nearCacheSize = 1_000;
+        if (nearCacheTtl == null) nearCacheTtl = Duration.ofMinutes(5);
+        if (compaction == null) compaction = new Compaction(null, null, null, null);
+    }
+
+    /**
+     * @param enabled     when {@code false} conversations are only trimmed by the message window
+     * @param tokenBudget tokens a conversation may hold before older turns are summarized; keep well below the
+     *                    model's context length, which also has to fit the prompt and the reply
+     * @param keepRecent  most recent messages always kept verbatim
+     * @param tokenizer   Hugging Face tokenizer used for counting, as a hub id or a path to {@code tokenizer.json}
+     */
+    public record Compaction(
+            Boolean enabled,
+            Integer tokenBudget,
+            Integer keepRecent,
+            String tokenizer
+    ) {
+        public Compaction {
+            if (enabled == null) enabled = Boolean.TRUE;
+            if (tokenBudget == null || tokenBudget < 1) tokenBudget = 1_000;
+            if (keepRecent == null || keepRecent < 0) keepRecent = 4;
+            if (tokenizer == null || tokenizer.isBlank()) tokenizer = "Qwen/Qwen2.5-7B-Instruct";
+        }
+    }
+}
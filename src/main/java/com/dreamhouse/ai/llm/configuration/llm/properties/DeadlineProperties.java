@@ -0,0 +1,38 @@
+package com.dreamhouse.ai.llm.configuration.llm.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Time budgets of the AI endpoints. A request never runs longer than {@code total}; each stage is further
+ * capped by its own budget and by whatever the earlier stages left over.
+ *
+ * @param total      whole search request
+ * @param routing    router agent
+ * @param extraction filter extraction
+ * @param database   listing query
+ * @param presign    image URL presigning; listings are returned without URLs when it runs out
+ * @param generation conversational reply
+ * @param similar    whole image similarity request
+ */
+@ConfigurationProperties(prefix = "llm.deadline")
+public record DeadlineProperties(
+        Duration total,
+        Duration routing,
+        Duration extraction,
+        Duration database,
+        Duration presign,
+        Duration generation,
+        Duration similar
+) {
+    public DeadlineProperties {
+        if (total == null) total = Duration.ofSeconds(60);
+        if (routing == null) routing = Duration.ofSeconds(15);
+        if (extraction == null) extraction = Duration.ofSeconds(30);
+        if (database == null) database = Duration.ofSeconds(10);
+        if (presign == null) presign = Duration.ofSeconds(5);
+        if (generation == null) generation = Duration.ofSeconds(45);
+        if (similar == null) similar = Duration.ofSeconds(90);
+    }
+}
@@ -11,7 +11,9 @@ public record LLMProperties(
         @JsonProperty("api-key") String apiKey,
         @JsonProperty("model") String model,
         @JsonProperty("temperature") Double temperature,
-        @JsonProperty("embedding-model-name") String embeddingModelName
+        @JsonProperty("embedding-model-name") String embeddingModelName,
+        @JsonProperty("log-requests") boolean logRequests,
+        @JsonProperty("log-responses") boolean logResponses
 ) {
     public LLMProperties {
         if (StringUtils.isBlank(apiKey)) {
@@ -0,0 +1,79 @@
+package com.dreamhouse.ai.llm.configuration.llm.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Admission control in front of the Ollama backend.
+ *
+ * @param enabled       when {@code false} every call goes straight to the model
+ * @param maxConcurrent calls in flight at once; match the backend's {@code OLLAMA_NUM_PARALLEL}
+ * @param maxQueue      waiting calls across all lanes before new ones are rejected
+ * @param lanes         priority lanes by name; a lower priority value is served first
+ * @param plans         AI token plan code to lane name
+ * @param defaultLane   lane for callers without a (known) plan
+ */
+@ConfigurationProperties(prefix = "llm.scheduler")
+public record SchedulerProperties(
+        Boolean enabled,
+        Integer maxConcurrent,
+        Integer maxQueue,
+        Map<String, Lane> lanes,
+        Map<String, String> plans,
+        String defaultLane
+) {
+    public SchedulerProperties {
+        if (enabled == null) enabled = Boolean.TRUE;
+        if (maxConcurrent == null || maxConcurrent < 1) maxConcurrent = 4;
+        if (maxQueue == null || maxQueue < 0) maxQueue = 64;
+        if (defaultLane == null || defaultLane.isBlank()) defaultLane = "free";
+        if (lanes == null || lanes.isEmpty()) {
+            lanes = Map.of(
+                    "paid", new Lane(0, Duration.ofSeconds(20)),
+                    "standard", new Lane(1, Duration.ofSeconds(10)),
+                    "free", new Lane(2, Duration.ofSeconds(3)),
+                    "background", new Lane(3, Duration.ofSeconds(1)));
+        }
+        if (!lanes.containsKey(defaultLane)) {
+            lanes = new HashMap<>(lanes);
+            lanes.put(defaultLane, new Lane(null, null));
+        }
+        if (plans == null) {
+            plans = Map.of("unlimited", "paid", "premium", "paid", "basic", "standard", "freemium", "free");
+        }
+    }
+
+    /**
+     * @return the named lane, or the default lane for unknown names
+     */
+    public Lane lane(String name) {
+        var lane = name == null ? null : lanes.get(name);
+        return lane != null ? lane : lanes.get(defaultLane);
+    }
+
+    /**
+     * @return the lane name for an AI token plan code, or the default lane
+     */
+    public String laneForPlan(String planCode) {
+        if (planCode == null) return defaultLane;
+        return plans.getOrDefault(planCode.toLowerCase(Locale.ROOT), defaultLane);
+    }
+
+    /**
+     * @param priority     lower is served first
+     * @param maxQueueTime longest a call in this lane waits for a slot before it is shed
+     */
+    public record Lane(
+            Integer priority,
+            Duration maxQueueTime
+    ) {
+        public Lane {
+            if (priority == null) priority = Integer.MAX_VALUE;
+            if (maxQueueTime == null) maxQueueTime = Duration.ofSeconds(3);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.dreamhouse.ai.llm.configuration.llm.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for turning a search message into a {@link com.dreamhouse.ai.llm.model.auxilary.SearchPlan}.
+ *
+ * @param speculative run filter extraction concurrently with routing instead of after it
+ * @param fastPath    rule-based routing in front of the router agent
+ * @param ruleBasedExtraction parse plainly worded searches locally before asking the extractor agent
+ * @param semanticCache       reuse filters extracted for identical or semantically similar queries
+ * @param listingPrompt       how found listings are summarized for the model that explains them
+ */
+@ConfigurationProperties(prefix = "llm.search")
+public record SearchPlanningProperties(
+        Boolean speculative,
+        FastPath fastPath,
+        Boolean ruleBasedExtraction,
+        SemanticCache semanticCache,
+        ListingPrompt listingPrompt
+) {
+    public SearchPlanningProperties {
+        if (speculative == null) speculative = Boolean.TRUE;
+        if (fastPath == null) fastPath = new FastPath(null, null, null);
+        if (ruleBasedExtraction == null) ruleBasedExtraction = Boolean.TRUE;
+        if (semanticCache == null) semanticCache = new SemanticCache(null, null, null, null, null);
+        if (listingPrompt == null) listingPrompt = new ListingPrompt(null, null, null);
+    }
+
+    /**
+     * @param mode                {@code OFF}, {@code SHADOW} (score and compare, always ask the agent) or
+     *                            {@code ACTIVE} (skip the agent when confident)
+     * @param threshold           minimum rule confidence for a decision to be used
+     * @param verifySampleRate    fraction of ACTIVE decisions re-checked against the agent in the background
+     */
+    public record FastPath(
+            FastPathMode mode,
+            Double threshold,
+            Double verifySampleRate
+    ) {
+        public FastPath {
+            if (mode == null) mode = FastPathMode.SHADOW;
+            if (threshold == null) threshold = 0.6;
+            if (verifySampleRate == null) verifySampleRate = 0.0;
+        }
+    }
+
+    /**
+     * @param mode             {@code OFF}, {@code SHADOW} (look up and compare, always extract) or
+     *                         {@code ACTIVE} (serve cache hits)
+     * @param threshold        minimum cosine similarity between query embeddings for a semantic hit
+     * @param ttl              how long an extracted filter is reused
+     * @param maxEntries       entries per tier; the semantic tier is scanned linearly, so keep it small
+     * @param verifySampleRate fraction of ACTIVE hits re-extracted and compared anyway
+     */
+    public record SemanticCache(
+            CacheMode mode,
+            Double threshold,
+            Duration ttl,
+            Integer maxEntries,
+            Double verifySampleRate
+    ) {
+        public SemanticCache {
+            if (mode == null) mode = CacheMode.SHADOW;
+            if (threshold == null) threshold = 0.92;
+            if (ttl == null) ttl = Duration.ofMinutes(30);
+            if (maxEntries == null) maxEntries = 2_000;
+            if (verifySampleRate == null) verifySampleRate = 0.0;
+        }
+    }
+
+    /**
+     * @param tokenBudget      tokens the listing table may take in the prompt, counted with the local tokenizer
+     * @param maxListings      rows at most, however many listings were found
+     * @param descriptionChars descriptions are cut to this many characters
+     */
+    public record ListingPrompt(
+            Integer tokenBudget,
+            Integer maxListings,
+            Integer descriptionChars
+    ) {
+        public ListingPrompt {
+            if (tokenBudget == null || tokenBudget <= 0) tokenBudget = 600;
+            if (maxListings == null || maxListings <= 0) maxListings = 15;
+            if (descriptionChars == null || descriptionChars < 0) descriptionChars = 160;
+        }
+    }
+
+    public enum CacheMode {
+        OFF,
+        SHADOW,
+        ACTIVE
+    }
+
+    public enum FastPathMode {
+        OFF,
+        SHADOW,
+        ACTIVE
+    }
+}
@@ -1,12 +1,11 @@
 package com.dreamhouse.ai.llm.configuration.performance;
 
-import com.dreamhouse.ai.llm.model.dto.HouseSearchDTO;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class PerformanceConfiguration {
@@ -14,16 +13,6 @@ public class PerformanceConfiguration {
     private static final int MAXIMUM_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 4;
     private static final int QUEUE_CAPACITY = 1000;
 
-    @Bean
-    public ConcurrentHashMap<String, CompletableFuture<HouseSearchDTO>> houseSearchInflight() {
-        return new ConcurrentHashMap<>();
-    }
-
-    @Bean
-    public ConcurrentHashMap<String, CompletableFuture<String>> storageInflight() {
-        return new ConcurrentHashMap<>();
-    }
-
     @Bean("houseSearchExecutor")
     public Executor executor() {
         var ex = new ThreadPoolTaskExecutor();
@@ -3,31 +3,43 @@ package com.dreamhouse.ai.llm.controller;
 import com.dreamhouse.ai.house.repository.HouseAdRepository;
 import com.dreamhouse.ai.llm.agent.conversation.ConversationalistAgent;
 import com.dreamhouse.ai.llm.agent.house.HouseSearchAgent;
-import com.dreamhouse.ai.llm.agent.keyword.KeywordExtractorAgent;
-import com.dreamhouse.ai.llm.agent.router.RouterAgent;
+import com.dreamhouse.ai.llm.configuration.guardrails.SpeculativeSafetyGuard;
+import com.dreamhouse.ai.llm.configuration.llm.properties.DeadlineProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.SchedulerProperties;
+import com.dreamhouse.ai.llm.exception.DeadlineExceededException;
+import com.dreamhouse.ai.llm.exception.AITokenInvalidException;
 import com.dreamhouse.ai.llm.model.dto.HouseSearchDTO;
-import com.dreamhouse.ai.llm.model.auxilary.RequestCategory;
 import com.dreamhouse.ai.llm.model.reply.ChatReply;
 import com.dreamhouse.ai.llm.model.reply.ListingsReply;
 import com.dreamhouse.ai.llm.model.reply.SearchReply;
 import com.dreamhouse.ai.llm.model.request.ChatRequest;
+import com.dreamhouse.ai.llm.scheduler.AdmissionContext;
+import com.dreamhouse.ai.llm.service.SearchPlanningService;
+import com.dreamhouse.ai.llm.service.SearchStreamingService;
 import com.dreamhouse.ai.llm.service.impl.AITokenServiceImpl;
+import com.dreamhouse.ai.llm.service.impl.AsyncRequestRunner;
 import com.dreamhouse.ai.llm.service.impl.ImageSimilaritySearchServiceImpl;
 import com.dreamhouse.ai.llm.tool.HouseSearchTool;
 import com.dreamhouse.ai.llm.util.AIUtil;
+import com.dreamhouse.ai.llm.util.Deadline;
 import com.dreamhouse.ai.mapper.HouseAdMapper;
+import com.dreamhouse.ai.ratelimit.annotation.RateLimited;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.security.Principal;
 import java.util.Map;
 import java.util.Objects;
@@ -43,10 +55,14 @@ public class AiController {
     private final HouseSearchTool houseSearchTool;
     private final HouseAdRepository houseAdRepository;
     private final HouseAdMapper houseAdMapper;
-    private final RouterAgent routerAgent;
+    private final SearchPlanningService searchPlanningService;
     private final ConversationalistAgent conversationalistAgent;
-    private final KeywordExtractorAgent keywordExtractorAgent;
     private final HouseSearchAgent houseSearchAgent;
+    private final SearchStreamingService searchStreamingService;
+    private final AsyncRequestRunner asyncRequestRunner;
+    private final DeadlineProperties deadlines;
+    private final SchedulerProperties schedulerProperties;
+    private final SpeculativeSafetyGuard speculativeSafetyGuard;
 
     @Autowired
     public AiController(ImageSimilaritySearchServiceImpl imageSimilaritySearchService,
@@ -54,24 +70,34 @@ public class AiController {
                         AIUtil aiUtil,
                         HouseSearchTool houseSearchTool,
                         HouseAdRepository houseAdRepository,
-                        HouseAdMapper houseAdMapper, RouterAgent routerAgent, ConversationalistAgent conversationalistAgent, KeywordExtractorAgent keywordExtractorAgent, HouseSearchAgent houseSearchAgent) {
+                        HouseAdMapper houseAdMapper, SearchPlanningService searchPlanningService, ConversationalistAgent conversationalistAgent, HouseSearchAgent houseSearchAgent,
+                        SearchStreamingService searchStreamingService,
+                        AsyncRequestRunner asyncRequestRunner,
+                        DeadlineProperties deadlines,
+                        SchedulerProperties schedulerProperties,
+                        SpeculativeSafetyGuard speculativeSafetyGuard) {
         this.imageSimilaritySearchService = imageSimilaritySearchService;
         this.aiTokenService = aiTokenService;
         this.aiUtil = aiUtil;
         this.houseSearchTool = houseSearchTool;
         this.houseAdRepository = houseAdRepository;
         this.houseAdMapper = houseAdMapper;
-        this.routerAgent = routerAgent;
+        this.searchPlanningService = searchPlanningService;
         this.conversationalistAgent = conversationalistAgent;
-        this.keywordExtractorAgent = keywordExtractorAgent;
         this.houseSearchAgent = houseSearchAgent;
+        this.searchStreamingService = searchStreamingService;
+        this.asyncRequestRunner = asyncRequestRunner;
+        this.deadlines = deadlines;
+        this.schedulerProperties = schedulerProperties;
+        this.speculativeSafetyGuard = speculativeSafetyGuard;
     }
 
 
     @WriteOperation
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    @RateLimited("ai-search")
     @PostMapping(value = "/search")
-    public ResponseEntity<SearchReply> search(
+    public DeferredResult<ResponseEntity<SearchReply>> search(
             @RequestHeader(value = "X-Session-Id", required = false) String headerSessionId,
             @RequestHeader(value = "X-API-Token") String x_api_token,
             @RequestBody ChatRequest request,
@@ -79,41 +105,80 @@ public class AiController {
             Principal principal) {
 
         String username = principal.getName();
-        System.out.println(x_api_token);
 
-        if (aiTokenService.isTokenValid(x_api_token, username) == Boolean.FALSE) {
-            return ResponseEntity
+        try {
+            aiTokenService.consumeQuota(x_api_token, username);
+        } catch (AITokenInvalidException e) {
+            return asyncRequestRunner.completed(ResponseEntity
                     .status(HttpStatus.TOO_MANY_REQUESTS)
-                    .body(new ChatReply("AI access requires a valid token"));
+                    .body(new ChatReply("AI access requires a valid token")));
         }
 
         String userMessage = Objects.requireNonNull(request.query(), "Message is required");
         String sessionId = aiUtil.resolveSessionId(headerSessionId, principal, httpReq);
-        aiTokenService.consumeQuota(x_api_token, username);
-
-        if(routerAgent.classify(userMessage).equals(RequestCategory.CHAT)){
-            var reply = conversationalistAgent.chat(sessionId, userMessage);
-            return ResponseEntity.ok(new ChatReply(reply));
-        } else {
-            var filter = keywordExtractorAgent.getFilterSpec(userMessage);
-            HouseSearchDTO houseSearchDTO;
+        var deadline = Deadline.after(deadlines.total());
+
+        return AdmissionContext.withCaller(laneOf(x_api_token), sessionId, () -> asyncRequestRunner.run(deadline, () -> {
+            var plan = searchPlanningService.plan(userMessage, deadline);
+            if (plan.isChat()) {
+                var reply = asyncRequestRunner.stage(deadline, "generation", deadlines.generation(), () ->
+                        speculativeSafetyGuard.enabled()
+                                ? speculativeSafetyGuard.call(sessionId, userMessage, () -> conversationalistAgent.chat(sessionId, userMessage))
+                                : conversationalistAgent.chat(sessionId, userMessage));
+                return ResponseEntity.ok(new ChatReply(reply));
+            }
+
+            HouseSearchDTO houseSearchDTO = asyncRequestRunner.stage(deadline, "database", deadlines.database(),
+                    () -> houseSearchTool.searchHouses(plan.filter()));
             try {
-                houseSearchDTO = houseSearchTool.searchHouses(filter);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ChatReply("Search was interrupted, please try again."));
+                asyncRequestRunner.stage(deadline, "presign", deadlines.presign(),
+                        () -> aiUtil.setImageViewUrls(houseSearchDTO));
+            } catch (DeadlineExceededException e) {
+                log.warn("search - presigning ran out of time, returning listings without image URLs");
             }
             return ResponseEntity.ok(new ListingsReply(houseSearchDTO.getHouseAdDTOs(), "Houses found matching your criteria."));
+        }));
+    }
+
+
+
+    @WriteOperation
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    @RateLimited("ai-search")
+    @PostMapping(value = "/search/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> searchStream(
+            @RequestHeader(value = "X-Session-Id", required = false) String headerSessionId,
+            @RequestHeader(value = "X-API-Token") String x_api_token,
+            @RequestBody ChatRequest request,
+            HttpServletRequest httpReq,
+            Principal principal) throws IOException {
+
+        String username = principal.getName();
+
+        try {
+            aiTokenService.consumeQuota(x_api_token, username);
+        } catch (AITokenInvalidException e) {
+            var rejected = new SseEmitter();
+            rejected.send(SseEmitter.event()
+                    .name("error")
+                    .data(Map.of("message", "AI access requires a valid token"), MediaType.APPLICATION_JSON));
+            rejected.complete();
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(rejected);
         }
 
+        String userMessage = Objects.requireNonNull(request.query(), "Message is required");
+        String sessionId = aiUtil.resolveSessionId(headerSessionId, principal, httpReq);
+        return ResponseEntity.ok(AdmissionContext.withCaller(laneOf(x_api_token), sessionId,
+                () -> searchStreamingService.stream(sessionId, userMessage)));
     }
 
 
 
     @WriteOperation
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    @RateLimited("ai-similar")
     @PostMapping("/similar")
-    public ResponseEntity<?> similar(
+    public DeferredResult<ResponseEntity<?>> similar(
             @RequestHeader(value = "X-API-Token") String x_api_token,
             @RequestPart("file") MultipartFile file,
             @RequestParam(value = "k", required = false) Integer k,
@@ -124,8 +189,11 @@ public class AiController {
     ) {
         var username = aiUtil.getAuthenticatedUser();
         if (!aiTokenService.isTokenValid(x_api_token, username)) {
-            return ResponseEntity.status(429).body(new ChatReply("AI access requires a valid token"));
-        } else {
+            return asyncRequestRunner.completed(ResponseEntity.status(429).body(new ChatReply("AI access requires a valid token")));
+        }
+
+        var deadline = Deadline.after(deadlines.similar());
+        return AdmissionContext.withCaller(laneOf(x_api_token), null, () -> asyncRequestRunner.run(deadline, () -> {
             var r = imageSimilaritySearchService.searchByImage(file, k, cityHint, typeHint, bedsHint, priceHint);
             return ResponseEntity.ok(Map.of(
                     "inferredDescription", r.inferredDescription(),
@@ -137,6 +205,14 @@ public class AiController {
                             "price", priceHint
                     )
             ));
-        }
+        }));
+    }
+
+    /**
+     * Model calls made by a request's pipeline are admitted in the lane of the caller's plan. The pipeline
+     * thread is started inside {@link AdmissionContext#withCaller}, so it inherits the lane.
+     */
+    private String laneOf(String token) {
+        return schedulerProperties.laneForPlan(aiTokenService.planCode(token));
     }
 }
@@ -3,6 +3,8 @@ package com.dreamhouse.ai.llm.exception;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -42,6 +44,20 @@ public class AIRestAdvisor {
         return ResponseEntity.badRequest().body(e.getMessage());
     }
 
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<?> handleDeadlineExceededException(@NotNull DeadlineExceededException e) {
+        log.warn("DeadlineExceededException caught {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(LlmOverloadedException.class)
+    public ResponseEntity<?> handleLlmOverloadedException(@NotNull LlmOverloadedException e) {
+        log.warn("LlmOverloadedException caught {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGlobalException(final Exception ex) {
         log.error("Unhandled exception", ex);
@@ -0,0 +1,7 @@
+package com.dreamhouse.ai.llm.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.dreamhouse.ai.llm.exception;
+
+public class LlmOverloadedException extends RuntimeException {
+    public LlmOverloadedException(String message) {
+        super(message);
+    }
+}
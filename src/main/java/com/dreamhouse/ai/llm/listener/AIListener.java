@@ -27,12 +27,14 @@ public sealed interface AIListener extends ChatModelListener
     default void onResponse(@NotNull ChatModelResponseContext responseContext) {
         var response = responseContext.chatResponse();
         var model = response.modelName();
-        var message = response.aiMessage().text();
         var input_token_count = response.tokenUsage().inputTokenCount();
         var output_token_count = response.tokenUsage().outputTokenCount();
         var total_token_count = response.tokenUsage().totalTokenCount();
-        log.info("Model :{} | Message: {} | total input tokens: {} - total output tokens: {} - total tokens: {}" ,
-                model, message, input_token_count, output_token_count, total_token_count);
+        log.info("Model :{} | total input tokens: {} - total output tokens: {} - total tokens: {}" ,
+                model, input_token_count, output_token_count, total_token_count);
+        if (log.isDebugEnabled()) {
+            log.debug("Model :{} | Message: {}", model, response.aiMessage().text());
+        }
     }
 
     default void onError(@NotNull ChatModelErrorContext errorContext) {
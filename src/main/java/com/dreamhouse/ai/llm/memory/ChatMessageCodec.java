@@ -0,0 +1,114 @@
+package com.dreamhouse.ai.llm.memory;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of a conversation for the chat memory store.
+ * <p>
+ * Conversations here are plain text turns, so system, user and AI messages carrying only text are written as
+ * a one-byte tag followed by their strings, about half the size of langchain4j's JSON form and much cheaper to
+ * parse on every turn. Anything else (images, tool calls and results) is written as that JSON, so no message
+ * kind is lost.
+ * </p>
+ */
+final class ChatMessageCodec {
+    private static final byte VERSION = 1;
+    private static final byte JSON = 0;
+    private static final byte SYSTEM = 1;
+    private static final byte USER = 2;
+    private static final byte AI = 3;
+
+    private ChatMessageCodec() {
+    }
+
+    static byte[] encode(List<ChatMessage> messages) {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(messages.size());
+            for (var message : messages) write(message, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<ChatMessage> decode(byte[] bytes) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version != VERSION) throw new IllegalStateException("Unknown chat memory format " + version);
+            int count = in.readInt();
+            var messages = new ArrayList<ChatMessage>(count);
+            for (int i = 0; i < count; i++) messages.add(read(in));
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(ChatMessage message, DataOutputStream out) throws IOException {
+        if (message instanceof SystemMessage system) {
+            out.writeByte(SYSTEM);
+            writeString(system.text(), out);
+        } else if (message instanceof UserMessage user && user.hasSingleText()) {
+            out.writeByte(USER);
+            writeString(user.name(), out);
+            writeString(user.singleText(), out);
+        } else if (message instanceof AiMessage ai && ai.text() != null && !ai.hasToolExecutionRequests()) {
+            out.writeByte(AI);
+            writeString(ai.text(), out);
+        } else {
+            out.writeByte(JSON);
+            writeString(ChatMessageSerializer.messageToJson(message), out);
+        }
+    }
+
+    private static ChatMessage read(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case SYSTEM -> SystemMessage.from(readString(in));
+            case USER -> {
+                var name = readString(in);
+                var text = readString(in);
+                yield name == null ? UserMessage.from(text) : UserMessage.from(name, text);
+            }
+            case AI -> AiMessage.from(readString(in));
+            case JSON -> ChatMessageDeserializer.messageFromJson(readString(in));
+            default -> throw new IllegalStateException("Unknown chat message tag " + tag);
+        };
+    }
+
+    /**
+     * Length-prefixed UTF-8, {@code -1} for {@code null}; unlike {@link DataOutputStream#writeUTF} not capped at 64 KB.
+     */
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        var utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+}
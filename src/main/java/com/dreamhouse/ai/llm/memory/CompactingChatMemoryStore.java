@@ -0,0 +1,173 @@
+package com.dreamhouse.ai.llm.memory;
+
+import com.dreamhouse.ai.llm.agent.conversation.ConversationSummarizerAgent;
+import com.dreamhouse.ai.llm.configuration.llm.properties.ChatMemoryProperties;
+import com.dreamhouse.ai.llm.scheduler.AdmissionContext;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps conversations within a token budget by folding older turns into a running summary.
+ * <p>
+ * Every write is measured with the {@link LocalTokenCounter}. Once a conversation exceeds
+ * {@code llm.memory.compaction.token-budget}, a background task asks the {@link ConversationSummarizerAgent} to
+ * merge everything but the last {@code keep-recent} messages into the existing summary, and replaces those turns
+ * with a single system message holding it. The reply that triggered compaction is not delayed, and the prompt of
+ * the next turns stays roughly the same size however long the conversation runs.
+ * </p>
+ * <p>
+ * Turns may be appended on any node while the summary is generated. The result is written back with a
+ * compare-and-set on the stored conversation in Redis, and only while the summarized turns are still at its head;
+ * a turn that lands between the check and the write makes the write fail and be rebuilt on top of it, so no turn
+ * is ever lost. Summaries run in the {@link AdmissionContext#BACKGROUND background} lane, so under load they are
+ * shed before user calls.
+ * </p>
+ */
+@Primary
+@Component
+public class CompactingChatMemoryStore implements ChatMemoryStore {
+    private static final Logger log = LoggerFactory.getLogger(CompactingChatMemoryStore.class);
+    private static final String SUMMARY_PREFIX = "Summary of the conversation so far: ";
+    private static final String METRIC_NAME = "ai.memory.compaction";
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final RedisChatMemoryStore store;
+    private final LocalTokenCounter tokenCounter;
+    private final ConversationSummarizerAgent summarizer;
+    private final ChatMemoryProperties.Compaction properties;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary conversationTokens;
+    private final Set<String> compacting = ConcurrentHashMap.newKeySet();
+    private final ExecutorService compactionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public CompactingChatMemoryStore(RedisChatMemoryStore store,
+                                     LocalTokenCounter tokenCounter,
+                                     ConversationSummarizerAgent summarizer,
+                                     ChatMemoryProperties chatMemoryProperties,
+                                     MeterRegistry meterRegistry) {
+        this.store = store;
+        this.tokenCounter = tokenCounter;
+        this.summarizer = summarizer;
+        this.properties = chatMemoryProperties.compaction();
+        this.meterRegistry = meterRegistry;
+        this.conversationTokens = DistributionSummary.builder("ai.memory.tokens")
+                .description("Tokens held by a conversation after a turn, for sizing the budget")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        compactionExecutor.shutdownNow();
+    }
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId) {
+        return store.getMessages(memoryId);
+    }
+
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        store.updateMessages(memoryId, messages);
+        if (!properties.enabled()) return;
+
+        int tokens = tokenCounter.estimateTokenCountInMessages(messages);
+        conversationTokens.record(tokens);
+        var id = String.valueOf(memoryId);
+        if (tokens <= properties.tokenBudget() || !compacting.add(id)) return;
+
+        compactionExecutor.submit(AdmissionContext.inLane(AdmissionContext.BACKGROUND, () -> {
+            try {
+                compact(id);
+            } catch (RuntimeException e) {
+                count("failed");
+                log.warn("compact - summarizing conversation {} failed: {}", id, e.getMessage());
+            } finally {
+                compacting.remove(id);
+            }
+        }));
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId) {
+        store.deleteMessages(memoryId);
+    }
+
+    private void compact(String id) {
+        var snapshot = store.snapshot(id);
+        if (snapshot == null) return;
+        var messages = snapshot.messages();
+        int start = !messages.isEmpty() && summaryOf(messages.get(0)) != null ? 1 : 0;
+        // cut at a user message, so a question and its answer stay on the same side
+        int cut = messages.size() - properties.keepRecent();
+        while (cut > start && !(messages.get(cut) instanceof UserMessage)) cut--;
+        if (cut <= start) return;
+
+        var previous = start == 1 ? summaryOf(messages.get(0)) : "none";
+        var summary = summarizer.summarize(previous, transcript(messages.subList(start, cut)));
+        if (summary == null || summary.isBlank()) {
+            count("failed");
+            return;
+        }
+
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            var current = store.snapshot(id);
+            if (current == null) return;
+            var turns = current.messages();
+            if (turns.size() < cut || !turns.subList(0, cut).equals(messages.subList(0, cut))) break;
+
+            var compacted = new ArrayList<ChatMessage>(turns.size() - cut + 1);
+            compacted.add(SystemMessage.from(SUMMARY_PREFIX + summary.trim()));
+            compacted.addAll(turns.subList(cut, turns.size()));
+            if (store.replaceMessages(id, current, compacted)) {
+                count("compacted");
+                log.debug("compact - folded {} messages of conversation {} into its summary", cut - start, id);
+                return;
+            }
+        }
+        count("conflict");
+    }
+
+    private static String transcript(List<ChatMessage> messages) {
+        var transcript = new StringBuilder();
+        for (var message : messages) {
+            var role = message instanceof AiMessage ? "Maria" : message instanceof UserMessage ? "User" : null;
+            if (role == null) continue;
+            transcript.append(role).append(": ").append(LocalTokenCounter.text(message)).append('\n');
+        }
+        return transcript.toString();
+    }
+
+    private static String summaryOf(ChatMessage message) {
+        return message instanceof SystemMessage system && system.text().startsWith(SUMMARY_PREFIX)
+                ? system.text().substring(SUMMARY_PREFIX.length())
+                : null;
+    }
+
+    private void count(String outcome) {
+        Counter.builder(METRIC_NAME)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
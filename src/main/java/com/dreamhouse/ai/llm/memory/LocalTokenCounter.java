@@ -0,0 +1,90 @@
+package com.dreamhouse.ai.llm.memory;
+
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import com.dreamhouse.ai.llm.configuration.llm.properties.ChatMemoryProperties;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Counts tokens locally with the chat model's own Hugging Face tokenizer, so budgets can be checked without a
+ * model call.
+ * <p>
+ * If the tokenizer cannot be loaded (no local file and no access to the hub), counting falls back to one token
+ * per four characters, which is close for English text and errs on the high side for short words.
+ * </p>
+ */
+@Component
+public class LocalTokenCounter implements TokenCountEstimator {
+    private static final Logger log = LoggerFactory.getLogger(LocalTokenCounter.class);
+    /** Role markers and separators the chat template adds around every message. */
+    private static final int PER_MESSAGE_OVERHEAD = 4;
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final HuggingFaceTokenizer tokenizer;
+
+    @Autowired
+    public LocalTokenCounter(ChatMemoryProperties properties) {
+        this.tokenizer = load(properties.compaction().tokenizer());
+    }
+
+    @PreDestroy
+    void close() {
+        if (tokenizer != null) tokenizer.close();
+    }
+
+    @Override
+    public int estimateTokenCountInText(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        if (tokenizer == null) return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+        return tokenizer.encode(text).getIds().length;
+    }
+
+    @Override
+    public int estimateTokenCountInMessage(ChatMessage message) {
+        return PER_MESSAGE_OVERHEAD + estimateTokenCountInText(text(message));
+    }
+
+    @Override
+    public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+        int total = 0;
+        for (var message : messages) total += estimateTokenCountInMessage(message);
+        return total;
+    }
+
+    static String text(ChatMessage message) {
+        return switch (message) {
+            case SystemMessage system -> system.text();
+            case UserMessage user -> user.hasSingleText() ? user.singleText() : user.toString();
+            case AiMessage ai -> ai.text() != null ? ai.text() : ai.toString();
+            case ToolExecutionResultMessage result -> result.text();
+            default -> message.toString();
+        };
+    }
+
+    private static HuggingFaceTokenizer load(String tokenizer) {
+        try {
+            var path = Path.of(tokenizer);
+            var builder = HuggingFaceTokenizer.builder().optAddSpecialTokens(false);
+            var loaded = Files.exists(path)
+                    ? builder.optTokenizerPath(path).build()
+                    : builder.optTokenizerName(tokenizer).build();
+            log.info("Token counting with tokenizer {}", tokenizer);
+            return loaded;
+        } catch (Exception e) {
+            log.warn("Tokenizer {} unavailable, estimating tokens from text length: {}", tokenizer, e.getMessage());
+            return null;
+        }
+    }
+}
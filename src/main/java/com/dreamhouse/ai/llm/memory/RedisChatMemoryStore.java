@@ -0,0 +1,215 @@
+package com.dreamhouse.ai.llm.memory;
+
+import com.dreamhouse.ai.llm.configuration.llm.properties.ChatMemoryProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Conversations kept in Redis, so a session can continue on any node and survives restarts.
+ * <p>
+ * Each conversation is one key holding {@link ChatMessageCodec binary-encoded} messages. The key's TTL is
+ * reset on every write, which happens on every turn, so idle conversations expire on their own and nothing
+ * accumulates for one-off anonymous sessions. A small on-heap cache serves the read that starts each turn;
+ * writes go through to Redis and are announced on a topic so other nodes drop their stale copy.
+ * </p>
+ * <p>
+ * If Redis cannot be reached the conversation continues from the local copy rather than failing the turn.
+ * </p>
+ * <p>
+ * Rewrites that must not lose a concurrent turn, like compaction, read a {@link Snapshot} and write back with
+ * {@link #replaceMessages}, which only succeeds while Redis still holds exactly the snapshot's bytes.
+ * </p>
+ */
+@Component
+public class RedisChatMemoryStore implements ChatMemoryStore {
+    private static final Logger log = LoggerFactory.getLogger(RedisChatMemoryStore.class);
+    private static final String KEY_PREFIX = "ai:memory:";
+    private static final String INVALIDATION_TOPIC = "ai:memory:invalidate";
+    private static final String ANONYMOUS_PREFIX = "sess:";
+    private static final String METRIC_NAME = "ai.memory.cache";
+
+    /*
+     * KEYS[1] conversation key, ARGV[1] expected bytes, ARGV[2] new bytes, ARGV[3] TTL in milliseconds.
+     * Returns 1 if the key held exactly the expected bytes and was replaced, 0 otherwise.
+     */
+    private static final String COMPARE_AND_SET_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                return 1
+            end
+            return 0
+            """;
+
+    private final RedissonClient redissonClient;
+    private final ChatMemoryProperties properties;
+    private final Cache<String, List<ChatMessage>> nearCache;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter hits;
+    private final Counter misses;
+    private final DistributionSummary storedBytes;
+    private RTopic invalidations;
+    private int listenerId = -1;
+
+    @Autowired
+    public RedisChatMemoryStore(RedissonClient redissonClient,
+                                ChatMemoryProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.properties = properties;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(properties.nearCacheSize())
+                .expireAfterAccess(properties.nearCacheTtl())
+                .build();
+        this.hits = Counter.builder(METRIC_NAME).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder(METRIC_NAME).tag("result", "miss").register(meterRegistry);
+        this.storedBytes = DistributionSummary.builder("ai.memory.bytes")
+                .description("Encoded size of a conversation written to Redis")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        invalidations = redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+        listenerId = invalidations.addListener(String.class, (channel, message) -> {
+            int separator = message.indexOf('|');
+            if (separator < 0 || message.startsWith(nodeId + '|')) return;
+            nearCache.invalidate(message.substring(separator + 1));
+        });
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        if (invalidations != null && listenerId != -1) invalidations.removeListener(listenerId);
+    }
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId) {
+        var id = String.valueOf(memoryId);
+        var cached = nearCache.getIfPresent(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        try {
+            var stored = bucket(id).get();
+            var messages = stored == null ? List.<ChatMessage>of() : List.copyOf(ChatMessageCodec.decode(stored));
+            nearCache.put(id, messages);
+            return messages;
+        } catch (RuntimeException e) {
+            log.warn("getMessages - could not load conversation {}, starting empty: {}", id, e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        var id = String.valueOf(memoryId);
+        var copy = List.copyOf(messages);
+        nearCache.put(id, copy);
+        try {
+            var encoded = ChatMessageCodec.encode(copy);
+            bucket(id).set(encoded, idleTtl(id));
+            storedBytes.record(encoded.length);
+            announce(id);
+        } catch (RuntimeException e) {
+            log.warn("updateMessages - could not store conversation {}, keeping it on this node only: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a conversation straight from Redis, bypassing the near cache.
+     *
+     * @return the stored bytes and their messages, or {@code null} if the conversation is not stored or Redis
+     *         cannot be reached
+     */
+    public Snapshot snapshot(Object memoryId) {
+        var id = String.valueOf(memoryId);
+        try {
+            var stored = bucket(id).get();
+            return stored == null ? null : new Snapshot(stored, List.copyOf(ChatMessageCodec.decode(stored)));
+        } catch (RuntimeException e) {
+            log.warn("snapshot - could not load conversation {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replaces a conversation only if Redis still holds exactly {@code expected}, in one atomic step.
+     *
+     * @return whether the conversation was replaced
+     */
+    public boolean replaceMessages(Object memoryId, Snapshot expected, List<ChatMessage> messages) {
+        var id = String.valueOf(memoryId);
+        var copy = List.copyOf(messages);
+        try {
+            var encoded = ChatMessageCodec.encode(copy);
+            var ttl = Long.toString(idleTtl(id).toMillis()).getBytes(StandardCharsets.US_ASCII);
+            Long replaced = redissonClient.getScript(ByteArrayCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                    COMPARE_AND_SET_SCRIPT, RScript.ReturnType.INTEGER, List.of(KEY_PREFIX + id),
+                    expected.encoded(), encoded, ttl);
+            if (replaced == null || replaced == 0) return false;
+            nearCache.put(id, copy);
+            storedBytes.record(encoded.length);
+            announce(id);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("replaceMessages - could not store conversation {}: {}", id, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId) {
+        var id = String.valueOf(memoryId);
+        nearCache.invalidate(id);
+        try {
+            bucket(id).delete();
+            announce(id);
+        } catch (RuntimeException e) {
+            log.warn("deleteMessages - could not delete conversation {}: {}", id, e.getMessage());
+        }
+    }
+
+    private RBucket<byte[]> bucket(String id) {
+        return redissonClient.getBucket(KEY_PREFIX + id, ByteArrayCodec.INSTANCE);
+    }
+
+    private Duration idleTtl(String id) {
+        return id.startsWith(ANONYMOUS_PREFIX) ? properties.anonymousIdleTtl() : properties.idleTtl();
+    }
+
+    private void announce(String id) {
+        if (invalidations != null) invalidations.publish(nodeId + '|' + id);
+    }
+
+    /**
+     * @param encoded  the conversation exactly as stored
+     * @param messages the decoded messages
+     */
+    public record Snapshot(byte[] encoded, List<ChatMessage> messages) {
+    }
+}
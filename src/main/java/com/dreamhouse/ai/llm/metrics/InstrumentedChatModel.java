@@ -0,0 +1,58 @@
+package com.dreamhouse.ai.llm.metrics;
+
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.util.Set;
+
+/**
+ * {@link ChatModel} that records {@link LlmMetrics} for one agent's calls.
+ */
+class InstrumentedChatModel implements ChatModel {
+    private final ChatModel delegate;
+    private final String agent;
+    private final String model;
+    private final LlmMetrics metrics;
+
+    InstrumentedChatModel(ChatModel delegate, String agent, LlmMetrics metrics) {
+        this.delegate = delegate;
+        this.agent = agent;
+        this.metrics = metrics;
+        var parameters = delegate.defaultRequestParameters();
+        this.model = parameters != null && parameters.modelName() != null ? parameters.modelName() : "unknown";
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        var call = metrics.open(model, agent);
+        try {
+            var response = delegate.chat(chatRequest);
+            metrics.finish(call, response, null);
+            return response;
+        } catch (RuntimeException e) {
+            metrics.finish(call, null, e);
+            throw e;
+        } finally {
+            metrics.leave(call);
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+}
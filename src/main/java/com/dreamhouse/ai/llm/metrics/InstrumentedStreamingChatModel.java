@@ -0,0 +1,75 @@
+package com.dreamhouse.ai.llm.metrics;
+
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+import java.util.Set;
+
+/**
+ * {@link StreamingChatModel} that records {@link LlmMetrics} for one agent's calls, including time to first token.
+ */
+class InstrumentedStreamingChatModel implements StreamingChatModel {
+    private final StreamingChatModel delegate;
+    private final String agent;
+    private final String model;
+    private final LlmMetrics metrics;
+
+    InstrumentedStreamingChatModel(StreamingChatModel delegate, String agent, LlmMetrics metrics) {
+        this.delegate = delegate;
+        this.agent = agent;
+        this.metrics = metrics;
+        var parameters = delegate.defaultRequestParameters();
+        this.model = parameters != null && parameters.modelName() != null ? parameters.modelName() : "unknown";
+    }
+
+    @Override
+    public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+        var call = metrics.open(model, agent);
+        try {
+            delegate.chat(chatRequest, new StreamingChatResponseHandler() {
+                @Override
+                public void onPartialResponse(String partialResponse) {
+                    metrics.firstToken(call);
+                    handler.onPartialResponse(partialResponse);
+                }
+
+                @Override
+                public void onCompleteResponse(ChatResponse completeResponse) {
+                    metrics.finish(call, completeResponse, null);
+                    handler.onCompleteResponse(completeResponse);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    metrics.finish(call, null, error);
+                    handler.onError(error);
+                }
+            });
+        } catch (RuntimeException e) {
+            metrics.finish(call, null, e);
+            throw e;
+        } finally {
+            metrics.leave(call);
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+}
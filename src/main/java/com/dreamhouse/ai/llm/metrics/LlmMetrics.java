@@ -0,0 +1,157 @@
+package com.dreamhouse.ai.llm.metrics;
+
+import com.dreamhouse.ai.llm.exception.LlmOverloadedException;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-call metrics of every model call, tagged by model and by the agent that made it.
+ * <p>
+ * Each agent gets its own {@link #instrument instrumented} view of the shared model beans, so the agent tag
+ * needs no guessing from prompts. The view opens a {@link Call} on the calling thread; layers below it that
+ * know more, such as the admission scheduler, add to the open call.
+ * </p>
+ * <ul>
+ *     <li>{@code ai.llm.call.latency} (model, agent, outcome): whole call including queueing</li>
+ *     <li>{@code ai.llm.call.queue} (model, agent): wait for an admission slot</li>
+ *     <li>{@code ai.llm.call.ttft} (model, agent): time to first token of streamed calls</li>
+ *     <li>{@code ai.llm.call.tokens} (model, agent, type): input and output tokens per call</li>
+ *     <li>{@code ai.llm.call.tokens.per.second} (model, agent): output tokens over time holding the slot</li>
+ * </ul>
+ * Timers publish percentile histograms, so percentiles and SLO burn rates can be computed across nodes.
+ */
+@Component
+public class LlmMetrics {
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public LlmMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param agent one of router, extractor, chat, search, vision, guardian, summarizer
+     * @return {@code model} as seen by {@code agent}
+     */
+    public ChatModel instrument(ChatModel model, String agent) {
+        return new InstrumentedChatModel(model, agent, this);
+    }
+
+    /**
+     * @param agent one of chat, search
+     * @return {@code model} as seen by {@code agent}
+     */
+    public StreamingChatModel instrument(StreamingChatModel model, String agent) {
+        return new InstrumentedStreamingChatModel(model, agent, this);
+    }
+
+    /**
+     * Adds the time spent waiting for an admission slot to the call open on this thread, if any.
+     */
+    public void queued(long waitNanos) {
+        var call = CURRENT.get();
+        if (call != null) call.queueNanos = waitNanos;
+    }
+
+    Call open(String model, String agent) {
+        var call = new Call(model, agent, CURRENT.get());
+        CURRENT.set(call);
+        return call;
+    }
+
+    /**
+     * Leaves the call's scope on the calling thread; a streamed call may still be running.
+     */
+    void leave(Call call) {
+        if (call.outer == null) CURRENT.remove();
+        else CURRENT.set(call.outer);
+    }
+
+    void firstToken(Call call) {
+        if (!call.firstToken.compareAndSet(false, true)) return;
+        timer("ai.llm.call.ttft", call)
+                .register(meterRegistry)
+                .record(System.nanoTime() - call.start, TimeUnit.NANOSECONDS);
+    }
+
+    void finish(Call call, ChatResponse response, Throwable error) {
+        if (!call.finished.compareAndSet(false, true)) return;
+        long elapsed = System.nanoTime() - call.start;
+        timer("ai.llm.call.latency", call)
+                .tag("outcome", outcome(error))
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (call.queueNanos >= 0) {
+            timer("ai.llm.call.queue", call)
+                    .register(meterRegistry)
+                    .record(call.queueNanos, TimeUnit.NANOSECONDS);
+        }
+
+        var usage = response == null ? null : response.tokenUsage();
+        if (usage == null) return;
+        if (usage.inputTokenCount() != null) tokens(call, "input").record(usage.inputTokenCount());
+        if (usage.outputTokenCount() != null) {
+            tokens(call, "output").record(usage.outputTokenCount());
+            long generating = elapsed - Math.max(0, call.queueNanos);
+            if (generating > 0 && usage.outputTokenCount() > 0) {
+                DistributionSummary.builder("ai.llm.call.tokens.per.second")
+                        .tag("model", call.model)
+                        .tag("agent", call.agent)
+                        .publishPercentiles(0.5, 0.9, 0.99)
+                        .register(meterRegistry)
+                        .record(usage.outputTokenCount() * 1_000_000_000.0 / generating);
+            }
+        }
+    }
+
+    private Timer.Builder timer(String name, Call call) {
+        return Timer.builder(name)
+                .tag("model", call.model)
+                .tag("agent", call.agent)
+                .publishPercentileHistogram();
+    }
+
+    private DistributionSummary tokens(Call call, String type) {
+        return DistributionSummary.builder("ai.llm.call.tokens")
+                .tag("model", call.model)
+                .tag("agent", call.agent)
+                .tag("type", type)
+                .baseUnit("tokens")
+                .register(meterRegistry);
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) return "success";
+        if (error instanceof LlmOverloadedException) return "shed";
+        if (error instanceof CancellationException || error instanceof InterruptedException) return "cancelled";
+        return "error";
+    }
+
+    static final class Call {
+        private final String model;
+        private final String agent;
+        private final Call outer;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean firstToken = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile long queueNanos = -1;
+
+        private Call(String model, String agent, Call outer) {
+            this.model = model;
+            this.agent = agent;
+            this.outer = outer;
+        }
+    }
+}
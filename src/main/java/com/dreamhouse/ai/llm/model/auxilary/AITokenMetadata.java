@@ -0,0 +1,26 @@
+package com.dreamhouse.ai.llm.model.auxilary;
+
+import com.dreamhouse.ai.llm.entity.AITokenEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of the token fields needed to authorize and meter an AI request.
+ */
+public record AITokenMetadata(String token,
+                              String userId,
+                              String planCode,
+                              int monthlyQuota,
+                              LocalDateTime expiryDate,
+                              boolean active) {
+
+    public static AITokenMetadata of(AITokenEntity entity) {
+        return new AITokenMetadata(
+                entity.getToken(),
+                entity.getUserId(),
+                entity.getPlanCode(),
+                entity.getMonthlyQuota(),
+                entity.getExpiryDate(),
+                entity.isActive());
+    }
+}
@@ -1,42 +1,30 @@
 package com.dreamhouse.ai.llm.model.auxilary;
 
 import com.dreamhouse.ai.house.model.entity.HouseAdEntity;
+import com.dreamhouse.ai.llm.agent.keyword.Gazetteer;
 import jakarta.persistence.criteria.Predicate;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @Component
 public class HouseAdSpecs {
 
-    private static final Map<String, String> STATE_CANON = Map.ofEntries(
-            Map.entry("new york", "ny"),
-            Map.entry("ny", "ny"),
+    private final Gazetteer gazetteer;
 
-            Map.entry("michigan", "mi"),
-            Map.entry("mi", "mi"),
-
-            Map.entry("massachusetts", "ma"),
-            Map.entry("ma", "ma"),
-
-            Map.entry("rhode island", "ri"),
-            Map.entry("ri", "ri"),
-
-            Map.entry("washington", "wa"),
-            Map.entry("wa", "wa"),
-
-            Map.entry("new jersey", "nj"),
-            Map.entry("nj", "nj")
-    );
+    @Autowired
+    public HouseAdSpecs(Gazetteer gazetteer) {
+        this.gazetteer = gazetteer;
+    }
 
-    private static String normalizeStateToken(String s) {
+    private String normalizeStateToken(String s) {
         if (s == null) return null;
-        String key = s.trim().toLowerCase();
-        return STATE_CANON.getOrDefault(key, key);
+        String code = gazetteer.stateCode(s);
+        return code != null ? code : s.trim().toLowerCase();
     }
 
     // ==========================
@@ -154,12 +142,12 @@ public class HouseAdSpecs {
             );
         }
 
-        // --- STATE: map to canonical code (ny, mi, ma, ri, wa, nj) ---
+        // --- STATE: map names and codes of any US state to the canonical lowercase code ---
         if (f.getState() != null) {
             f.setState(
                     f.getState().stream()
                             .filter(s -> s != null && !s.isBlank())
-                            .map(HouseAdSpecs::normalizeStateToken)
+                            .map(this::normalizeStateToken)
                             .toList()
             );
         }
@@ -0,0 +1,22 @@
+package com.dreamhouse.ai.llm.model.auxilary;
+
+/**
+ * How a search request will be answered: a conversational reply, or a listing search with the given filter.
+ *
+ * @param category routing decision for the request
+ * @param filter   extracted filter; {@code null} for {@link RequestCategory#CHAT}
+ */
+public record SearchPlan(RequestCategory category, FilterSpec filter) {
+
+    public static SearchPlan chat() {
+        return new SearchPlan(RequestCategory.CHAT, null);
+    }
+
+    public static SearchPlan search(FilterSpec filter) {
+        return new SearchPlan(RequestCategory.SEARCH, filter);
+    }
+
+    public boolean isChat() {
+        return category == RequestCategory.CHAT;
+    }
+}
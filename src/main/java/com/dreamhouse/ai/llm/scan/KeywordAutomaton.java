@@ -0,0 +1,147 @@
+package com.dreamhouse.ai.llm.scan;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over lowercase ASCII keywords, compiled into a dense transition table so that every
+ * input character costs one array lookup, however many keywords are registered.
+ * <p>
+ * Each keyword carries a bit mask; {@link #output} of a state is the union of the masks of all keywords that
+ * end there. Masks registered as bounded only count when the keyword is followed by a non-word character,
+ * like a trailing {@code \b} in a regex; the caller resolves those with {@link #boundedOutput}.
+ * </p>
+ * <p>
+ * Instances are immutable and safe to share between threads; scan state is just the current state number.
+ * </p>
+ */
+public final class KeywordAutomaton {
+    /** The start state, and where any character outside the keyword alphabet leads. */
+    public static final int ROOT = 0;
+    private static final int ALPHABET = 128;
+
+    private final int[] transitions;
+    private final long[] output;
+    private final long[] boundedOutput;
+
+    private KeywordAutomaton(int[] transitions, long[] output, long[] boundedOutput) {
+        this.transitions = transitions;
+        this.output = output;
+        this.boundedOutput = boundedOutput;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param state current state
+     * @param ch    next input character, already lowercased
+     * @return the state after {@code ch}
+     */
+    public int next(int state, char ch) {
+        return ch < ALPHABET ? transitions[state * ALPHABET + ch] : ROOT;
+    }
+
+    /**
+     * @return masks of the keywords ending at {@code state}
+     */
+    public long output(int state) {
+        return output[state];
+    }
+
+    /**
+     * @return masks of the bounded keywords ending at {@code state}, which count only if no word character follows
+     */
+    public long boundedOutput(int state) {
+        return boundedOutput[state];
+    }
+
+    public static final class Builder {
+        private final List<int[]> trie = new ArrayList<>();
+        private final List<long[]> masks = new ArrayList<>();
+
+        private Builder() {
+            newState();
+        }
+
+        public Builder add(String keyword, long mask) {
+            return add(keyword, mask, false);
+        }
+
+        /**
+         * @param bounded whether the keyword must be followed by a non-word character or the end of the input
+         */
+        public Builder add(String keyword, long mask, boolean bounded) {
+            if (keyword.isEmpty()) throw new IllegalArgumentException("Keyword must not be empty");
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                char ch = keyword.charAt(i);
+                if (ch >= ALPHABET || Character.isUpperCase(ch)) {
+                    throw new IllegalArgumentException("Keywords must be lowercase ASCII: " + keyword);
+                }
+                int next = trie.get(state)[ch];
+                if (next < 0) {
+                    next = newState();
+                    trie.get(state)[ch] = next;
+                }
+                state = next;
+            }
+            masks.get(state)[bounded ? 1 : 0] |= mask;
+            return this;
+        }
+
+        /**
+         * Folds the failure links into the transition table, breadth first, so that scanning never backtracks.
+         */
+        public KeywordAutomaton build() {
+            int states = trie.size();
+            var transitions = new int[states * ALPHABET];
+            var output = new long[states];
+            var boundedOutput = new long[states];
+            var fail = new int[states];
+            var queue = new ArrayDeque<Integer>();
+
+            for (int ch = 0; ch < ALPHABET; ch++) {
+                int child = trie.get(ROOT)[ch];
+                if (child < 0) {
+                    transitions[ch] = ROOT;
+                } else {
+                    transitions[ch] = child;
+                    fail[child] = ROOT;
+                    queue.add(child);
+                }
+            }
+            output[ROOT] = masks.get(ROOT)[0];
+            boundedOutput[ROOT] = masks.get(ROOT)[1];
+
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                output[state] = masks.get(state)[0] | output[fail[state]];
+                boundedOutput[state] = masks.get(state)[1] | boundedOutput[fail[state]];
+                for (int ch = 0; ch < ALPHABET; ch++) {
+                    int child = trie.get(state)[ch];
+                    int viaFailure = transitions[fail[state] * ALPHABET + ch];
+                    if (child < 0) {
+                        transitions[state * ALPHABET + ch] = viaFailure;
+                    } else {
+                        transitions[state * ALPHABET + ch] = child;
+                        fail[child] = viaFailure;
+                        queue.add(child);
+                    }
+                }
+            }
+            return new KeywordAutomaton(transitions, output, boundedOutput);
+        }
+
+        private int newState() {
+            var children = new int[ALPHABET];
+            Arrays.fill(children, -1);
+            trie.add(children);
+            masks.add(new long[2]);
+            return trie.size() - 1;
+        }
+    }
+}
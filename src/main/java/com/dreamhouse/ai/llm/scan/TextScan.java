@@ -0,0 +1,35 @@
+package com.dreamhouse.ai.llm.scan;
+
+/**
+ * Everything request validation and the input guardrails need to know about a text, gathered by
+ * {@link TextScanner} in one pass.
+ *
+ * @param codePoints            Unicode characters in the text
+ * @param newlines              {@code \n} characters
+ * @param words                 whitespace separated words
+ * @param distinctWords         words that differ ignoring case
+ * @param controlCharacters     whether the text contains control or format characters other than whitespace
+ * @param unsupportedCharacters whether the text contains anything but letters, numbers, punctuation, symbols,
+ *                              spaces, tabs and line breaks
+ * @param signals               bit set of the {@link Signal}s found
+ */
+public record TextScan(
+        int codePoints,
+        int newlines,
+        int words,
+        int distinctWords,
+        boolean controlCharacters,
+        boolean unsupportedCharacters,
+        long signals
+) {
+    public boolean has(Signal signal) {
+        return (signals & signal.mask()) != 0;
+    }
+
+    /**
+     * @return share of words that repeat an earlier word, {@code 0} for an empty text
+     */
+    public double repetitionRatio() {
+        return words == 0 ? 0 : 1.0 - (double) distinctWords / words;
+    }
+}
@@ -0,0 +1,167 @@
+package com.dreamhouse.ai.llm.scan;
+
+/**
+ * Single-pass scanner behind request validation and the input guardrails.
+ * <p>
+ * One loop over the code points of a text classifies each character, counts characters, line breaks and
+ * (distinct) words, and feeds the lowercased text, whitespace runs folded to one space, through a shared
+ * {@link KeywordAutomaton} holding the keywords of every {@link Signal}. What used to be a handful of regexes,
+ * case-folded copies, splits and {@code contains} calls per check is now a single table walk, the same for
+ * one keyword as for a hundred.
+ * </p>
+ */
+public final class TextScanner {
+    private static final long TEMPLATE_OPEN = 1L << 61;
+    private static final long TEMPLATE_SYSTEM = 1L << 62;
+    private static final long TEMPLATE_CLOSE = 1L << 63;
+    private static final long TEMPLATE = TEMPLATE_OPEN | TEMPLATE_SYSTEM | TEMPLATE_CLOSE;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final KeywordAutomaton AUTOMATON = automaton();
+
+    private TextScanner() {
+    }
+
+    public static TextScan scan(String text) {
+        int codePoints = 0;
+        int newlines = 0;
+        int words = 0;
+        int distinctWords = 0;
+        boolean control = false;
+        boolean unsupported = false;
+        long signals = 0;
+        long pending = 0;
+        int state = KeywordAutomaton.ROOT;
+        boolean inWord = false;
+        boolean afterSpace = false;
+        long wordHash = FNV_OFFSET;
+        long[] seenWords = new long[Integer.highestOneBit(Math.max(8, text.length() + 1)) << 1];
+        int template = 0;
+
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            codePoints++;
+
+            int type = Character.getType(cp);
+            boolean whitespace = Character.isWhitespace(cp);
+            if ((type == Character.CONTROL || type == Character.FORMAT) && !whitespace) control = true;
+            if (!allowed(cp, type)) unsupported = true;
+            if (cp == '\n') newlines++;
+            if (isLineTerminator(cp)) template = 0;
+
+            if (pending != 0) {
+                if (!isWordCharacter(cp)) signals |= pending;
+                pending = 0;
+            }
+
+            if (whitespace) {
+                if (inWord) {
+                    words++;
+                    if (remember(seenWords, wordHash)) distinctWords++;
+                    inWord = false;
+                }
+                if (afterSpace) continue;
+                afterSpace = true;
+                state = AUTOMATON.next(state, ' ');
+            } else {
+                int lower = Character.toLowerCase(cp);
+                if (!inWord) {
+                    inWord = true;
+                    wordHash = FNV_OFFSET;
+                }
+                wordHash = (wordHash ^ lower) * FNV_PRIME;
+                afterSpace = false;
+                state = lower < Character.MIN_SUPPLEMENTARY_CODE_POINT
+                        ? AUTOMATON.next(state, (char) lower)
+                        : KeywordAutomaton.ROOT;
+            }
+
+            long hits = AUTOMATON.output(state);
+            pending = AUTOMATON.boundedOutput(state);
+            if ((hits & TEMPLATE) != 0) {
+                template = advanceTemplate(template, hits);
+                if (template == 3) signals |= Signal.PROMPT_INJECTION.mask();
+            }
+            signals |= hits & ~TEMPLATE;
+        }
+
+        signals |= pending;
+        if (inWord) {
+            words++;
+            if (remember(seenWords, wordHash)) distinctWords++;
+        }
+        return new TextScan(codePoints, newlines, words, distinctWords, control, unsupported, signals);
+    }
+
+    /**
+     * Tracks {@code {{ ... system ... }}} on one line, in that order: 1 after the opening braces, 2 once
+     * "system" follows, 3 when the braces close.
+     */
+    private static int advanceTemplate(int template, long hits) {
+        if ((hits & TEMPLATE_OPEN) != 0 && template == 0) return 1;
+        if ((hits & TEMPLATE_SYSTEM) != 0 && template == 1) return 2;
+        if ((hits & TEMPLATE_CLOSE) != 0 && template == 2) return 3;
+        return template;
+    }
+
+    /**
+     * Letters, numbers, punctuation, symbols and space separators, plus tab and line breaks.
+     */
+    private static boolean allowed(int cp, int type) {
+        return switch (type) {
+            case Character.UPPERCASE_LETTER, Character.LOWERCASE_LETTER, Character.TITLECASE_LETTER,
+                 Character.MODIFIER_LETTER, Character.OTHER_LETTER,
+                 Character.DECIMAL_DIGIT_NUMBER, Character.LETTER_NUMBER, Character.OTHER_NUMBER,
+                 Character.CONNECTOR_PUNCTUATION, Character.DASH_PUNCTUATION, Character.START_PUNCTUATION,
+                 Character.END_PUNCTUATION, Character.INITIAL_QUOTE_PUNCTUATION,
+                 Character.FINAL_QUOTE_PUNCTUATION, Character.OTHER_PUNCTUATION,
+                 Character.SPACE_SEPARATOR,
+                 Character.MATH_SYMBOL, Character.CURRENCY_SYMBOL, Character.MODIFIER_SYMBOL,
+                 Character.OTHER_SYMBOL -> true;
+            default -> cp == '\r' || cp == '\n' || cp == '\t';
+        };
+    }
+
+    /**
+     * The characters a regex {@code .} does not match.
+     */
+    private static boolean isLineTerminator(int cp) {
+        return cp == '\n' || cp == '\r' || cp == 0x85 || cp == 0x2028 || cp == 0x2029;
+    }
+
+    /**
+     * What a regex {@code \w} matches, and so what a {@code \b} looks at: ASCII letters, digits and underscore.
+     */
+    private static boolean isWordCharacter(int cp) {
+        return (cp >= 'a' && cp <= 'z') || (cp >= 'A' && cp <= 'Z') || (cp >= '0' && cp <= '9') || cp == '_';
+    }
+
+    /**
+     * Adds a word hash to an open-addressing set sized for the text, so no word strings are built.
+     *
+     * @return whether the word was new
+     */
+    private static boolean remember(long[] seen, long hash) {
+        if (hash == 0) hash = 1;
+        int mask = seen.length - 1;
+        for (int slot = (int) (hash ^ (hash >>> 32)) & mask; ; slot = (slot + 1) & mask) {
+            if (seen[slot] == hash) return false;
+            if (seen[slot] == 0) {
+                seen[slot] = hash;
+                return true;
+            }
+        }
+    }
+
+    private static KeywordAutomaton automaton() {
+        var builder = KeywordAutomaton.builder()
+                .add("{{", TEMPLATE_OPEN)
+                .add("system", TEMPLATE_SYSTEM)
+                .add("}}", TEMPLATE_CLOSE);
+        for (var signal : Signal.values()) {
+            for (var keyword : signal.keywords()) builder.add(keyword, signal.mask(), signal.bounded());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.dreamhouse.ai.llm.scheduler;
+
+import java.util.function.Supplier;
+
+/**
+ * Carries who a model call is made for down to the model clients: the admission lane, the chat session
+ * and whether the call may safely be sent twice.
+ * <p>
+ * Model calls happen deep inside agents, guardrails and on helper threads, so none of this can be passed as
+ * an argument. It is kept in an inheritable thread local instead: request pipelines fork fresh virtual
+ * threads, and a thread started inside {@link #withCaller} inherits the context for its whole life.
+ * </p>
+ */
+public final class AdmissionContext {
+    /** Work nobody is waiting for, such as sampled verification calls. */
+    public static final String BACKGROUND = "background";
+
+    private static final InheritableThreadLocal<Call> CALL = new InheritableThreadLocal<>();
+
+    private AdmissionContext() {
+    }
+
+    /**
+     * @return the lane of the current thread, or {@code null} if none was set
+     */
+    public static String currentLane() {
+        var call = CALL.get();
+        return call == null ? null : call.lane();
+    }
+
+    /**
+     * @return the chat session (the agents' {@code @MemoryId}) the current thread works for, or {@code null}
+     */
+    public static String currentSession() {
+        var call = CALL.get();
+        return call == null ? null : call.sessionId();
+    }
+
+    /**
+     * @return whether model calls of the current thread have no side effects and may be duplicated
+     */
+    public static boolean isIdempotent() {
+        var call = CALL.get();
+        return call != null && call.idempotent();
+    }
+
+    /**
+     * Runs {@code work} on behalf of a caller, restoring the previous context afterwards.
+     *
+     * @param lane      admission lane, see {@code llm.scheduler.lanes}
+     * @param sessionId chat session, or {@code null} for requests without one
+     */
+    public static <T> T withCaller(String lane, String sessionId, Supplier<T> work) {
+        return with(new Call(lane, sessionId, false), work);
+    }
+
+    /**
+     * Wraps {@code work} so that it runs in {@code lane} on whichever thread executes it.
+     */
+    public static Runnable inLane(String lane, Runnable work) {
+        return () -> {
+            var call = CALL.get();
+            with(new Call(lane, call == null ? null : call.sessionId(), call != null && call.idempotent()), () -> {
+                work.run();
+                return null;
+            });
+        };
+    }
+
+    /**
+     * Runs {@code work}, marking the model calls it makes as free of side effects, so they may be hedged.
+     */
+    public static <T> T idempotent(Supplier<T> work) {
+        var call = CALL.get();
+        return with(new Call(call == null ? null : call.lane(), call == null ? null : call.sessionId(), true), work);
+    }
+
+    private static <T> T with(Call call, Supplier<T> work) {
+        var previous = CALL.get();
+        CALL.set(call);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) CALL.remove();
+            else CALL.set(previous);
+        }
+    }
+
+    private record Call(String lane, String sessionId, boolean idempotent) {
+    }
+}
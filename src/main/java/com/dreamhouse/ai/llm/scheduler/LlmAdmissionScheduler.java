@@ -0,0 +1,206 @@
+package com.dreamhouse.ai.llm.scheduler;
+
+import com.dreamhouse.ai.llm.configuration.llm.properties.SchedulerProperties;
+import com.dreamhouse.ai.llm.exception.LlmOverloadedException;
+import com.dreamhouse.ai.llm.metrics.LlmMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for calls to the Ollama backend.
+ * <p>
+ * Ollama serves a fixed number of generations in parallel and queues the rest internally, first come first
+ * served. Letting every request through only moves that queue out of sight: a free-tier burst delays paid
+ * users, and requests whose client has long given up still hold a generation slot. Calls are therefore
+ * admitted here, at most {@code maxConcurrent} at a time, and waiting calls are granted slots by lane
+ * priority, then arrival order.
+ * </p>
+ * <p>
+ * A call is shed with {@link LlmOverloadedException} when the queue is full, when the expected wait (calls
+ * ahead of it times the smoothed service time, spread over the slots) already exceeds its lane's
+ * {@code maxQueueTime}, or when it actually waits that long. Rejecting early is the point: a fast 429 lets
+ * the client retry or back off, where a slow timeout would have cost a slot as well.
+ * </p>
+ */
+@Component
+public class LlmAdmissionScheduler {
+    private static final Logger log = LoggerFactory.getLogger(LlmAdmissionScheduler.class);
+    private static final double SERVICE_TIME_WEIGHT = 0.2;
+    private static final double INITIAL_SERVICE_MILLIS = 2_000;
+
+    private final SchedulerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LlmMetrics llmMetrics;
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparingInt(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private int inFlight;
+    private long sequence;
+    private double serviceMillis = INITIAL_SERVICE_MILLIS;
+
+    @Autowired
+    public LlmAdmissionScheduler(SchedulerProperties properties, MeterRegistry meterRegistry, LlmMetrics llmMetrics) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.llmMetrics = llmMetrics;
+        Gauge.builder("ai.llm.queue.depth", this, LlmAdmissionScheduler::queueDepth)
+                .description("Model calls waiting for a slot")
+                .register(meterRegistry);
+        Gauge.builder("ai.llm.inflight", this, LlmAdmissionScheduler::inFlight)
+                .description("Model calls holding a slot")
+                .register(meterRegistry);
+        Gauge.builder("ai.llm.service.time", this, LlmAdmissionScheduler::serviceMillis)
+                .description("Smoothed time a model call holds its slot, in milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Waits for a slot in the lane of the current thread.
+     *
+     * @return the slot, to be closed once the model call has finished
+     * @throws LlmOverloadedException if the call is shed
+     * @throws InterruptedException   if the caller is interrupted while waiting
+     */
+    public Permit acquire() throws InterruptedException {
+        if (!properties.enabled()) return new Permit(null);
+
+        var laneName = laneName();
+        var lane = properties.lane(laneName);
+        long arrived = System.nanoTime();
+        Waiter waiter;
+        synchronized (this) {
+            if (inFlight < properties.maxConcurrent() && queue.isEmpty()) {
+                inFlight++;
+                return admitted(laneName, arrived);
+            }
+            if (queue.size() >= properties.maxQueue()) throw shed(laneName, "queue_full");
+
+            long ahead = queue.stream().filter(w -> w.priority() <= lane.priority()).count();
+            double expectedMillis = (ahead + 1) * serviceMillis / properties.maxConcurrent();
+            if (expectedMillis > lane.maxQueueTime().toMillis()) throw shed(laneName, "expected_wait");
+
+            waiter = new Waiter(lane.priority(), sequence++, new CompletableFuture<>());
+            queue.add(waiter);
+        }
+
+        try {
+            waiter.granted().get(lane.maxQueueTime().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            synchronized (this) {
+                if (queue.remove(waiter)) throw shed(laneName, "timeout");
+            }
+            // granted while timing out: the slot is ours
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                if (!queue.remove(waiter)) handOver();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Slot grant failed", e.getCause());
+        }
+        return admitted(laneName, arrived);
+    }
+
+    /**
+     * Takes a slot only if one is free right now and nobody is waiting for it, for optional work such as
+     * hedged requests that must never delay a queued call.
+     *
+     * @return the slot, or {@code null} if none is free
+     */
+    public Permit tryAcquire() {
+        if (!properties.enabled()) return new Permit(null);
+        synchronized (this) {
+            if (inFlight >= properties.maxConcurrent() || !queue.isEmpty()) return null;
+            inFlight++;
+        }
+        return new Permit(System.nanoTime());
+    }
+
+    private Permit admitted(String laneName, long arrived) {
+        long now = System.nanoTime();
+        Timer.builder("ai.llm.queue.wait")
+                .tag("lane", laneName)
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry)
+                .record(now - arrived, TimeUnit.NANOSECONDS);
+        llmMetrics.queued(now - arrived);
+        return new Permit(now);
+    }
+
+    private LlmOverloadedException shed(String laneName, String reason) {
+        log.debug("acquire - shedding {} call: {}", laneName, reason);
+        Counter.builder("ai.llm.shed")
+                .tag("lane", laneName)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return new LlmOverloadedException("The assistant is busy, please retry shortly");
+    }
+
+    private synchronized void release(long heldNanos) {
+        double heldMillis = heldNanos / 1_000_000.0;
+        serviceMillis = SERVICE_TIME_WEIGHT * heldMillis + (1 - SERVICE_TIME_WEIGHT) * serviceMillis;
+        handOver();
+    }
+
+    /**
+     * Passes a freed slot to the next waiter, or returns it to the pool. Caller holds the monitor.
+     */
+    private void handOver() {
+        var next = queue.poll();
+        if (next != null) next.granted().complete(null);
+        else inFlight--;
+    }
+
+    private String laneName() {
+        var lane = AdmissionContext.currentLane();
+        return lane != null && properties.lanes().containsKey(lane) ? lane : properties.defaultLane();
+    }
+
+    private synchronized int queueDepth() {
+        return queue.size();
+    }
+
+    private synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private synchronized double serviceMillis() {
+        return serviceMillis;
+    }
+
+    /**
+     * A slot held for one model call. Closing it more than once has no further effect.
+     */
+    public final class Permit implements AutoCloseable {
+        private final Long admittedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Long admittedAt) {
+            this.admittedAt = admittedAt;
+        }
+
+        @Override
+        public void close() {
+            if (admittedAt != null && released.compareAndSet(false, true)) {
+                release(System.nanoTime() - admittedAt);
+            }
+        }
+    }
+
+    private record Waiter(int priority, long sequence, CompletableFuture<Void> granted) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.dreamhouse.ai.llm.scheduler;
+
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * {@link ChatModel} that takes a slot from the {@link LlmAdmissionScheduler} for every call.
+ * <p>
+ * Capabilities and default parameters are those of the wrapped model, so agents built on top still get
+ * structured output where the backend supports it.
+ * </p>
+ */
+public class ScheduledChatModel implements ChatModel {
+    private final ChatModel delegate;
+    private final LlmAdmissionScheduler scheduler;
+
+    public ScheduledChatModel(ChatModel delegate, LlmAdmissionScheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        try (var permit = scheduler.acquire()) {
+            return delegate.chat(chatRequest);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a model slot");
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+}
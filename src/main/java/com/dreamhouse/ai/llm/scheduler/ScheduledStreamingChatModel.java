@@ -0,0 +1,79 @@
+package com.dreamhouse.ai.llm.scheduler;
+
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * {@link StreamingChatModel} that takes a slot from the {@link LlmAdmissionScheduler} for every call.
+ * <p>
+ * The caller blocks until the slot is granted; the slot is then held until the stream completes or fails,
+ * which happens on the model client's thread.
+ * </p>
+ */
+public class ScheduledStreamingChatModel implements StreamingChatModel {
+    private final StreamingChatModel delegate;
+    private final LlmAdmissionScheduler scheduler;
+
+    public ScheduledStreamingChatModel(StreamingChatModel delegate, LlmAdmissionScheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+        LlmAdmissionScheduler.Permit permit;
+        try {
+            permit = scheduler.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a model slot");
+        }
+
+        try {
+            delegate.chat(chatRequest, new StreamingChatResponseHandler() {
+                @Override
+                public void onPartialResponse(String partialResponse) {
+                    handler.onPartialResponse(partialResponse);
+                }
+
+                @Override
+                public void onCompleteResponse(ChatResponse completeResponse) {
+                    permit.close();
+                    handler.onCompleteResponse(completeResponse);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    permit.close();
+                    handler.onError(error);
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+}
@@ -23,6 +23,14 @@ public interface AITokenService  {
      */
     Boolean isTokenValid(String rawToken, String username);
 
+    /**
+     * Returns the plan the given token is bound to, read through the local token cache.
+     *
+     * @param rawToken the raw token string as provided by the client
+     * @return the plan code, or {@code null} if the token is blank or unknown
+     */
+    String planCode(String rawToken);
+
     /**
      * Generates a new token for the specified user and plan.
      *
@@ -41,17 +49,23 @@ public interface AITokenService  {
     AITokenEntity getToken(String token);
 
     /**
-     * Updates the plan and resets/adjusts quota for the token owner.
-     * Implementations may interpret the {@code token} parameter as either a token value or a user identifier,
-     * depending on internal conventions. The return value provides a DTO view after the update.
-     *
+     * Updates the plan and resets/adjusts quota of the given token.
      *
-     * @param token    token string (or user identifier, as per implementation) used to locate the token record
+     * @param token    the opaque token string
      * @param planCode the new plan code to apply
      * @return an {@link AITokenDTO} reflecting the updated plan and quota
      */
     AITokenDTO updateTokenPlanAndQuota(String token, String planCode);
 
+    /**
+     * Updates the plan and resets/adjusts quota of the token owned by the given user.
+     *
+     * @param userId   the unique identifier of the token owner
+     * @param planCode the new plan code to apply
+     * @return an {@link AITokenDTO} reflecting the updated plan and quota
+     */
+    AITokenDTO updateUserPlanAndQuota(String userId, String planCode);
+
     /**
      * Consumes one unit (or a plan-defined amount) from the user's quota for the given token.
      *
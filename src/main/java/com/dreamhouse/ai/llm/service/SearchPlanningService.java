@@ -0,0 +1,16 @@
+package com.dreamhouse.ai.llm.service;
+
+import com.dreamhouse.ai.llm.model.auxilary.SearchPlan;
+import com.dreamhouse.ai.llm.util.Deadline;
+
+public interface SearchPlanningService {
+    /**
+     * Decides whether a message is a conversation or a listing search and, for searches, extracts the filter.
+     * @param message  the user's message
+     * @param deadline budget of the request; routing and extraction are cancelled when it runs out
+     * @return the routing decision together with the extracted filter
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the model
+     * @throws com.dreamhouse.ai.llm.exception.DeadlineExceededException if a stage does not finish in time
+     */
+    SearchPlan plan(String message, Deadline deadline) throws InterruptedException;
+}
@@ -0,0 +1,15 @@
+package com.dreamhouse.ai.llm.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface SearchStreamingService {
+    /**
+     * Answers a search message as server-sent events: a {@code listings} event as soon as the database query
+     * returns (searches only), {@code token} events while the reply is generated, then {@code done}, or
+     * {@code error} if the pipeline fails.
+     * @param sessionId chat memory id of the caller
+     * @param message   the user's message
+     * @return an emitter that is completed when the reply has been streamed
+     */
+    SseEmitter stream(String sessionId, String message);
+}
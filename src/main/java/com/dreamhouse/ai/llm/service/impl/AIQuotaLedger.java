@@ -0,0 +1,155 @@
+package com.dreamhouse.ai.llm.service.impl;
+
+import com.dreamhouse.ai.llm.util.AIUtil;
+import jakarta.annotation.PreDestroy;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monthly AI usage ledger backed by one Redis counter per token and month ({@code ai:usage:<token>:<yyyy-MM>}).
+ * <p>
+ * Instead of incrementing Redis on every request, a node reserves a small block of units for a token and
+ * serves requests from that block in memory. Idle blocks are handed back to Redis in the background so the
+ * counter converges to the real usage. A new month simply means a new key; old keys expire on their own.
+ */
+@Component
+public class AIQuotaLedger {
+    private static final Logger log = LoggerFactory.getLogger(AIQuotaLedger.class);
+    private static final String USAGE_KEY = "ai:usage:%s:%s";
+    private static final int MAX_BLOCK = 10;
+    private static final int BLOCK_DIVISOR = 50;
+    private static final Duration IDLE_LEASE = Duration.ofSeconds(30);
+    private static final Duration KEY_GRACE = Duration.ofDays(1);
+
+    private final RedissonClient redissonClient;
+    private final AIUtil aiUtil;
+    private final ConcurrentHashMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+        var t = new Thread(r, "ai-quota-reconciler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public AIQuotaLedger(RedissonClient redissonClient, AIUtil aiUtil) {
+        this.redissonClient = redissonClient;
+        this.aiUtil = aiUtil;
+        long period = IDLE_LEASE.toMillis();
+        reconciler.scheduleWithFixedDelay(this::returnIdleLeases, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Consumes one unit for the token in the current month.
+     * @param token the AI token
+     * @param monthlyQuota the token's monthly quota
+     * @return the remaining quota after this unit, or {@code -1} if the quota is exhausted
+     */
+    public long consume(String token, int monthlyQuota) {
+        final String usageKey = USAGE_KEY.formatted(token, YearMonth.now());
+        while (true) {
+            var lease = leases.computeIfAbsent(usageKey, Lease::new);
+            synchronized (lease) {
+                // handed back by the reconciler while we were waiting; take a fresh one
+                if (!lease.retired) return consumeFromLease(lease, usageKey, monthlyQuota);
+            }
+        }
+    }
+
+    private long consumeFromLease(Lease lease, String usageKey, int monthlyQuota) {
+        if (lease.remaining > 0) {
+            lease.remaining--;
+            lease.touch();
+            return Math.max(0, monthlyQuota - (lease.counted - lease.remaining));
+        }
+
+        long block = Math.max(1, Math.min(MAX_BLOCK, monthlyQuota / BLOCK_DIVISOR));
+        RAtomicLong usage = redissonClient.getAtomicLong(usageKey);
+        long after = usage.addAndGet(block);
+        if (after == block) {
+            usage.expire(Duration.ofMillis(aiUtil.millisUntilEndOfMonth()).plus(KEY_GRACE));
+        }
+
+        long granted = Math.min(block, monthlyQuota - (after - block));
+        if (granted <= 0) {
+            usage.addAndGet(-block);
+            return -1;
+        }
+        if (granted < block) {
+            usage.addAndGet(granted - block);
+            after -= block - granted;
+        }
+
+        lease.counted = after;
+        lease.remaining = granted - 1;
+        lease.touch();
+        return Math.max(0, monthlyQuota - (after - lease.remaining));
+    }
+
+    /**
+     * Drops any reserved units for the token, e.g. after a plan change shrank its quota.
+     */
+    public void release(String token) {
+        var lease = leases.remove(USAGE_KEY.formatted(token, YearMonth.now()));
+        if (lease != null) giveBack(lease);
+    }
+
+    private void returnIdleLeases() {
+        long cutoff = System.nanoTime() - IDLE_LEASE.toNanos();
+        String currentMonth = ":" + YearMonth.now();
+        leases.forEach((key, lease) -> {
+            if (lease.lastUsedNanos - cutoff < 0 || !key.endsWith(currentMonth)) {
+                if (leases.remove(key, lease)) giveBack(lease);
+            }
+        });
+    }
+
+    private void giveBack(Lease lease) {
+        long unused;
+        synchronized (lease) {
+            unused = lease.remaining;
+            lease.remaining = 0;
+            lease.retired = true;
+        }
+        if (unused <= 0) return;
+        try {
+            redissonClient.getAtomicLong(lease.usageKey).addAndGet(-unused);
+        } catch (Exception e) {
+            log.warn("Unable to return {} reserved AI quota units for {}", unused, lease.usageKey, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reconciler.shutdownNow();
+        leases.values().forEach(this::giveBack);
+        leases.clear();
+    }
+
+    private static final class Lease {
+        private final String usageKey;
+        private long counted;
+        private long remaining;
+        private boolean retired;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private Lease(String usageKey) {
+            this.usageKey = usageKey;
+        }
+
+        private void touch() {
+            lastUsedNanos = System.nanoTime();
+        }
+    }
+}
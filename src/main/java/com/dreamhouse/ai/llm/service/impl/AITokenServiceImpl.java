@@ -1,16 +1,22 @@
 package com.dreamhouse.ai.llm.service.impl;
 
 import com.dreamhouse.ai.authentication.repository.UserRepository;
+import com.dreamhouse.ai.authentication.security.principal.PrincipalCache;
 import com.dreamhouse.ai.llm.entity.AITokenEntity;
+import com.dreamhouse.ai.llm.exception.AITokenInvalidException;
 import com.dreamhouse.ai.llm.exception.AITokenNotFoundException;
 import com.dreamhouse.ai.llm.exception.QuotaExceededException;
+import com.dreamhouse.ai.llm.model.auxilary.AITokenMetadata;
 import com.dreamhouse.ai.llm.model.dto.AITokenDTO;
 import com.dreamhouse.ai.llm.repository.AITokenRepository;
 import com.dreamhouse.ai.llm.service.AITokenService;
-import com.dreamhouse.ai.llm.util.AIUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.micrometer.common.util.StringUtils;
-import org.redisson.api.RAtomicLong;
+import jakarta.annotation.PostConstruct;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,7 +25,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.YearMonth;
 import java.util.UUID;
 
 /**
@@ -27,13 +32,15 @@ import java.util.UUID;
  * AI access tokens, ownership validation, and monthly quota consumption.
  * 
  * Persistence is handled via {@code AITokenRepository}, user lookups via {@code UserRepository},
- * and usage counting via Redis (Redisson) using an {@code RAtomicLong} per token-month key.
+ * and usage counting via {@link AIQuotaLedger}, which keeps an {@code RAtomicLong} per token-month key.
+ * Token metadata is cached locally and user ids are resolved through the shared {@link PrincipalCache};
+ * plan changes evict the token and drop its reserved quota block on every node through a Redis topic.
  * This class does not mutate business logic beyond token/quota management and avoids
  * transactional boundaries itself; callers may wrap operations in transactions if needed.
  *
  * Concurrency and rate limits:
- * Quota consumption uses Redis atomic increments to provide thread-safe counting across nodes.
- * A per-month TTL is applied to usage counters so they naturally reset at the end of the month.
+ * Quota consumption draws from small blocks reserved with Redis atomic increments, so most requests
+ * are metered in memory. Usage counters are keyed by month, so they reset by key name at month end.
  * 
  *
  * Constraints:
@@ -44,28 +51,48 @@ import java.util.UUID;
 public class AITokenServiceImpl implements AITokenService {
     private static final Logger log = LoggerFactory.getLogger(AITokenServiceImpl.class);
     private static final int MAX_TOKEN_LIMIT = 12000;
+    private static final String INVALIDATION_TOPIC = "ai:token:invalidate";
     private final AITokenRepository aiTokenRepository;
     private final UserRepository userRepository;
     private final RedissonClient redissonClient;
-    private final AIUtil aiUtil;
+    private final AIQuotaLedger quotaLedger;
+    private final PrincipalCache principalCache;
+    private final Cache<String, AITokenMetadata> tokenMetadata;
+    private RTopic invalidations;
 
     /**
      * Constructs the service with required collaborators.
      *
      * @param aiTokenRepository repository used to persist and query token records
      * @param userRepository    repository used to resolve user identities and ownership
-     * @param redissonClient    Redis client used for distributed, atomic quota counters
-     * @param aiUtil            helper utilities (e.g., end-of-month TTL calculation)
+     * @param redissonClient    Redis client used to broadcast token metadata invalidations
+     * @param quotaLedger       monthly usage ledger with locally reserved quota blocks
+     * @param principalCache    shared cache of authenticated user snapshots
      */
     @Autowired
     public AITokenServiceImpl(AITokenRepository aiTokenRepository,
                               UserRepository userRepository,
                               RedissonClient redissonClient,
-                              AIUtil aiUtil) {
+                              AIQuotaLedger quotaLedger,
+                              PrincipalCache principalCache) {
         this.aiTokenRepository = aiTokenRepository;
         this.userRepository = userRepository;
         this.redissonClient = redissonClient;
-        this.aiUtil = aiUtil;
+        this.quotaLedger = quotaLedger;
+        this.principalCache = principalCache;
+        this.tokenMetadata = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        invalidations = redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+        invalidations.addListener(String.class, (channel, token) -> {
+            tokenMetadata.invalidate(token);
+            quotaLedger.release(token);
+        });
     }
 
     /** {@inheritDoc}
@@ -76,23 +103,49 @@ public class AITokenServiceImpl implements AITokenService {
         if (StringUtils.isEmpty(rawToken)) {
             return Boolean.FALSE;
         }
-        var stored_token = aiTokenRepository
-                .findByToken(rawToken)
-                .orElseThrow(() -> new AITokenNotFoundException("Token not found"));
+        return validToken(rawToken, username) != null;
+    }
 
-        var stored_user = userRepository
-                .findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    /**
+     * Resolves the token through the local metadata cache and checks expiry, quota sanity and ownership.
+     * @return the token metadata, or {@code null} if the token is not valid for the user
+     * @throws com.dreamhouse.ai.llm.exception.AITokenNotFoundException if the token does not exist
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if the user does not exist
+     */
+    private AITokenMetadata validToken(String rawToken, String username) {
+        var storedToken = metadata(rawToken);
 
-        boolean isNotExpired = stored_token.getExpiryDate().isAfter(LocalDateTime.now());
-        boolean isWithinMaxPlanLimit = stored_token.getMonthlyQuota() <= MAX_TOKEN_LIMIT;
-        boolean isOwnerMatching = stored_token.getUserId().equals(stored_user.getUserID());
+        var storedUserId = principalCache.findByUsername(username).userId();
 
-        System.out.println("isNotExpired: " + isNotExpired);
-        System.out.println("isWithinMaxPlanLimit: " + isWithinMaxPlanLimit);
-        System.out.println("isOwnerMatching: " + isOwnerMatching);
+        boolean isNotExpired = storedToken.expiryDate().isAfter(LocalDateTime.now());
+        boolean isWithinMaxPlanLimit = storedToken.monthlyQuota() <= MAX_TOKEN_LIMIT;
+        boolean isOwnerMatching = storedToken.userId().equals(storedUserId);
 
-        return  isNotExpired && isWithinMaxPlanLimit && isOwnerMatching;
+        if (!isNotExpired) tokenMetadata.invalidate(rawToken);
+        log.debug("isNotExpired: {}, isWithinMaxPlanLimit: {}, isOwnerMatching: {}",
+                isNotExpired, isWithinMaxPlanLimit, isOwnerMatching);
+
+        return isNotExpired && isWithinMaxPlanLimit && isOwnerMatching ? storedToken : null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String planCode(String rawToken) {
+        if (StringUtils.isEmpty(rawToken)) {
+            return null;
+        }
+        try {
+            return metadata(rawToken).planCode();
+        } catch (AITokenNotFoundException e) {
+            return null;
+        }
+    }
+
+    private AITokenMetadata metadata(String rawToken) {
+        return tokenMetadata.get(rawToken, token -> aiTokenRepository
+                .findByToken(token)
+                .map(AITokenMetadata::of)
+                .orElseThrow(() -> new AITokenNotFoundException("Token not found")));
     }
 
     /** {@inheritDoc}
@@ -139,51 +192,58 @@ public class AITokenServiceImpl implements AITokenService {
      */
     @Override
     public AITokenDTO updateTokenPlanAndQuota(String token, String planCode) {
-        var aiTokenEntity = aiTokenRepository.findByToken(token).orElseThrow(() -> new AITokenNotFoundException("Token not found"));
+        var aiTokenEntity = aiTokenRepository.findByToken(token)
+                .orElseThrow(() -> new AITokenNotFoundException("Token not found"));
+        return updatePlanAndQuota(aiTokenEntity, planCode);
+    }
+
+    /** {@inheritDoc}
+     * Updates the stored plan code and resets monthly quota according to plan defaults.
+     * @throws com.dreamhouse.ai.llm.exception.AITokenNotFoundException if the user has no token
+     */
+    @Override
+    public AITokenDTO updateUserPlanAndQuota(String userId, String planCode) {
+        var aiTokenEntity = aiTokenRepository.findByUserId(userId)
+                .orElseThrow(() -> new AITokenNotFoundException("Token not found"));
+        return updatePlanAndQuota(aiTokenEntity, planCode);
+    }
+
+    /**
+     * Saves the new plan, then drops the token's cached metadata and reserved quota block here and, through
+     * the invalidation topic, on every other node, so the new quota applies from the next request.
+     */
+    private AITokenDTO updatePlanAndQuota(AITokenEntity aiTokenEntity, String planCode) {
         aiTokenEntity.setPlanCode(planCode);
         aiTokenEntity.setMonthlyQuota();
         var savedToken = aiTokenRepository.save(aiTokenEntity);
+
+        quotaLedger.release(savedToken.getToken());
+        tokenMetadata.invalidate(savedToken.getToken());
+        invalidations.publish(savedToken.getToken());
         return new AITokenDTO(savedToken.getToken());
     }
 
     /** {@inheritDoc}
-     * Atomically increments this token's monthly usage counter in Redis and enforces the stored monthly quota.
-     * Initializes a TTL on the usage counter so it expires at the end of the current month.
-     * Throws when the increment would exceed the monthly quota.
+     * Validates the token once, then consumes one unit from a locally reserved block of this month's quota,
+     * reserving a new block from the Redis usage counter only when the current one is spent.
      *
-     * @throws com.dreamhouse.ai.llm.exception.QuotaExceededException if the token is invalid/expired or quota would be exceeded
+     * @throws com.dreamhouse.ai.llm.exception.AITokenInvalidException if the token is invalid, expired or not owned by the user
+     * @throws com.dreamhouse.ai.llm.exception.QuotaExceededException if the monthly quota is exhausted
      * @throws com.dreamhouse.ai.llm.exception.AITokenNotFoundException if the token cannot be found when resolving quota
      */
     @Override
     public int consumeQuota(String token, String username) {
-        if (isTokenValid(token, username) == Boolean.FALSE) {
-            throw new QuotaExceededException("Invalid or expired token");
-        }
-
-        String monthKey = YearMonth.now().toString();
-        String usageKey = "ai:usage:" + token + ":" + monthKey;
-
-        RAtomicLong usage = redissonClient.getAtomicLong(usageKey);
-
-        if (usage.remainTimeToLive() <= 0) {
-            long ttlMillis = aiUtil.millisUntilEndOfMonth();
-            usage.expire(Duration.ofMillis(ttlMillis));
+        var storedToken = StringUtils.isEmpty(token) ? null : validToken(token, username);
+        if (storedToken == null) {
+            throw new AITokenInvalidException("Invalid or expired token");
         }
 
-        long current = usage.get();
-        long after = usage.addAndGet(1);
-
-        AITokenEntity tokenEntity = aiTokenRepository
-                .findByToken(token)
-                .orElseThrow(() -> new AITokenNotFoundException("Token not found"));
-        int monthlyQuota = tokenEntity.getMonthlyQuota();
-
-
-        if (current + 1 > monthlyQuota) {
+        long remaining = quotaLedger.consume(token, storedToken.monthlyQuota());
+        if (remaining < 0) {
             throw new QuotaExceededException("Monthly quota exceeded");
         }
 
-        return (int) (monthlyQuota - after);
+        return (int) remaining;
     }
 
     /** {@inheritDoc}
@@ -193,9 +253,7 @@ public class AITokenServiceImpl implements AITokenService {
      */
     @Override
     public String ensureFreemiumTokenIfMissing(String username) {
-        var userID = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"))
-                .getUserID();
+        var userID = principalCache.findByUsername(username).userId();
 
         return aiTokenRepository
                 .findByUserId(userID)
@@ -0,0 +1,104 @@
+package com.dreamhouse.ai.llm.service.impl;
+
+import com.dreamhouse.ai.llm.exception.DeadlineExceededException;
+import com.dreamhouse.ai.llm.util.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs AI request pipelines on virtual threads so servlet threads are released while models generate.
+ * <p>
+ * The returned {@link DeferredResult} expires together with the request's {@link Deadline}. When it expires,
+ * or the client disconnects, the pipeline is cancelled; the interrupt reaches whichever stage is running and
+ * that stage cancels its own model or database call in turn.
+ * </p>
+ */
+@Component
+public class AsyncRequestRunner {
+    private static final Logger log = LoggerFactory.getLogger(AsyncRequestRunner.class);
+    private static final String METRIC_NAME = "ai.request.deadline";
+
+    private final Counter completed;
+    private final Counter expired;
+    private final Counter abandoned;
+    private final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public AsyncRequestRunner(MeterRegistry meterRegistry) {
+        this.completed = outcome("completed", meterRegistry);
+        this.expired = outcome("expired", meterRegistry);
+        this.abandoned = outcome("abandoned", meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        requestExecutor.shutdownNow();
+    }
+
+    /**
+     * Starts {@code pipeline} and returns a result that is completed with its value, or with a
+     * {@link DeadlineExceededException} once {@code deadline} passes.
+     */
+    public <T> DeferredResult<T> run(Deadline deadline, Callable<T> pipeline) {
+        var result = new DeferredResult<T>(Math.max(1, deadline.remaining().toMillis()));
+        Future<?> running = requestExecutor.submit(() -> {
+            try {
+                result.setResult(pipeline.call());
+                completed.increment();
+            } catch (DeadlineExceededException e) {
+                expired.increment();
+                result.setErrorResult(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.debug("run - pipeline interrupted");
+            } catch (Exception e) {
+                result.setErrorResult(e);
+            }
+        });
+        result.onTimeout(() -> {
+            running.cancel(true);
+            expired.increment();
+            result.setErrorResult(new DeadlineExceededException("Deadline exceeded"));
+        });
+        result.onError(e -> {
+            running.cancel(true);
+            abandoned.increment();
+        });
+        result.onCompletion(() -> running.cancel(true));
+        return result;
+    }
+
+    /**
+     * Runs one stage of a pipeline within its share of the request budget.
+     */
+    public <T> T stage(Deadline deadline, String stage, Duration cap, Callable<T> task) throws InterruptedException {
+        return deadline.call(stage, cap, requestExecutor, task);
+    }
+
+    /**
+     * A result that is already known, for requests rejected before any work starts.
+     */
+    public <T> DeferredResult<T> completed(T value) {
+        var result = new DeferredResult<T>();
+        result.setResult(value);
+        return result;
+    }
+
+    private static Counter outcome(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder(METRIC_NAME)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
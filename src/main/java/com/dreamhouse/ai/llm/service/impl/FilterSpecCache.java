@@ -0,0 +1,283 @@
+package com.dreamhouse.ai.llm.service.impl;
+
+import com.dreamhouse.ai.llm.agent.keyword.Gazetteer;
+import com.dreamhouse.ai.llm.configuration.llm.properties.SearchPlanningProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.SearchPlanningProperties.CacheMode;
+import com.dreamhouse.ai.llm.model.auxilary.FilterSpec;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Two-tier cache of extracted {@link FilterSpec}s, so rephrasings of a search already seen do not pay for
+ * another extractor agent call.
+ * <p>
+ * The first tier is keyed by the normalized query text. The second embeds the normalized query and scans
+ * a small in-memory index for the most similar query seen before; above the configured cosine similarity
+ * its spec is reused. Two queries only match semantically when they mention exactly the same numbers, the
+ * same {@link Gazetteer} places and the same negations, amenities and property types, since "3 beds in austin
+ * with parking" and "4 beds in dallas without parking" embed almost identically but must not share a filter.
+ * </p>
+ * <p>
+ * In {@code SHADOW} mode the fresh extraction is always returned, and the lookup, the embedding call and the
+ * comparison with what the cache would have served run afterwards on a background thread, so shadowing adds
+ * no latency; lookups are skipped while {@code MAX_SHADOW_LOOKUPS} are already running. {@code ACTIVE} serves
+ * hits and re-checks a sample of them.
+ * </p>
+ */
+@Component
+public class FilterSpecCache {
+    private static final Logger log = LoggerFactory.getLogger(FilterSpecCache.class);
+    private static final String CACHE_METRIC = "ai.filter.cache";
+    private static final String SHADOW_METRIC = "ai.filter.cache.shadow";
+    private static final Pattern SENTENCE_DOT = Pattern.compile("\\.(?!\\d)");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9$.]+");
+    private static final Pattern NUMBER = Pattern.compile("\\d+(?:\\.\\d+)?[km]?");
+    /** Words that flip or add a filter without changing the embedding much. */
+    private static final Pattern QUALIFIER = Pattern.compile(
+            "\\b(?:no|not|without|except|excluding|non"
+                    + "|parking|garage|driveway|carport|pets?|dogs?|cats?"
+                    + "|waterfront|lakefront|beachfront|oceanfront|riverfront|water"
+                    + "|condo(?:minium)?s?|apartments?|flats?|town(?:house|home)s?|studios?|villas?|lofts?"
+                    + "|duplex(?:es)?|cottages?|bungalows?)\\b");
+    private static final int MAX_SHADOW_LOOKUPS = 4;
+
+    private final EmbeddingModel embeddingModel;
+    private final Gazetteer gazetteer;
+    private final SearchPlanningProperties.SemanticCache properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, FilterSpec> exact;
+    private final Cache<String, Entry> index;
+    private final DistributionSummary nearestSimilarity;
+    private final ExecutorService shadowExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore shadowLookups = new Semaphore(MAX_SHADOW_LOOKUPS);
+
+    @Autowired
+    public FilterSpecCache(EmbeddingModel embeddingModel,
+                           Gazetteer gazetteer,
+                           SearchPlanningProperties searchPlanningProperties,
+                           MeterRegistry meterRegistry) {
+        this.embeddingModel = embeddingModel;
+        this.gazetteer = gazetteer;
+        this.properties = searchPlanningProperties.semanticCache();
+        this.meterRegistry = meterRegistry;
+        this.exact = Caffeine.newBuilder()
+                .maximumSize(properties.maxEntries())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.index = Caffeine.newBuilder()
+                .maximumSize(properties.maxEntries())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.nearestSimilarity = DistributionSummary.builder("ai.filter.cache.similarity")
+                .description("Cosine similarity of the nearest cached query, for tuning the threshold")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shadowExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the cached filter for {@code message} or extracts and caches a fresh one.
+     *
+     * @param message the user's search message
+     * @param extract fresh extraction, typically the extractor agent
+     * @return a filter the caller may modify
+     */
+    public FilterSpec get(String message, Supplier<FilterSpec> extract) {
+        if (properties.mode() == CacheMode.OFF) return extract.get();
+
+        var key = normalize(message);
+        if (properties.mode() == CacheMode.SHADOW) {
+            var fresh = extract.get();
+            var snapshot = fresh == null ? null : copy(fresh);
+            if (shadowLookups.tryAcquire()) {
+                shadowExecutor.execute(() -> {
+                    try {
+                        lookUpAndStore(key, snapshot);
+                    } finally {
+                        shadowLookups.release();
+                    }
+                });
+            } else {
+                count("shadow", "skipped");
+            }
+            return fresh;
+        }
+
+        var lookup = lookUp(key);
+        if (lookup.spec() != null && ThreadLocalRandom.current().nextDouble() >= properties.verifySampleRate()) {
+            return copy(lookup.spec());
+        }
+
+        var fresh = extract.get();
+        if (lookup.spec() != null) compare(lookup.tier(), lookup.spec(), fresh);
+        store(key, lookup.vector(), fresh);
+        return fresh;
+    }
+
+    private void lookUpAndStore(String key, FilterSpec fresh) {
+        try {
+            var lookup = lookUp(key);
+            if (lookup.spec() != null) compare(lookup.tier(), lookup.spec(), fresh);
+            store(key, lookup.vector(), fresh);
+        } catch (RuntimeException e) {
+            log.warn("get - shadow lookup failed: {}", e.getMessage());
+        }
+    }
+
+    private Lookup lookUp(String key) {
+        var cached = exact.getIfPresent(key);
+        if (cached != null) {
+            count("exact", "hit");
+            return new Lookup("exact", cached, null);
+        }
+        count("exact", "miss");
+        var vector = embed(key);
+        cached = vector == null ? null : nearest(key, vector);
+        count("semantic", cached == null ? "miss" : "hit");
+        return new Lookup("semantic", cached, vector);
+    }
+
+    private void store(String key, float[] vector, FilterSpec fresh) {
+        if (fresh == null) return;
+        exact.put(key, copy(fresh));
+        if (vector != null) index.put(key, new Entry(vector, anchors(key), copy(fresh)));
+    }
+
+    private FilterSpec nearest(String key, float[] vector) {
+        var anchors = anchors(key);
+        Entry best = null;
+        double bestSimilarity = -1;
+        for (var entry : index.asMap().values()) {
+            double similarity = dot(vector, entry.vector());
+            if (similarity > bestSimilarity && entry.anchors().equals(anchors)) {
+                best = entry;
+                bestSimilarity = similarity;
+            }
+        }
+        if (best == null) return null;
+        nearestSimilarity.record(bestSimilarity);
+        return bestSimilarity >= properties.threshold() ? best.spec() : null;
+    }
+
+    private float[] embed(String text) {
+        try {
+            var vector = embeddingModel.embed(text).content().vector();
+            double norm = Math.sqrt(dot(vector, vector));
+            if (norm == 0) return null;
+            for (int i = 0; i < vector.length; i++) vector[i] /= (float) norm;
+            return vector;
+        } catch (RuntimeException e) {
+            log.warn("get - query embedding failed, skipping semantic tier: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void compare(String tier, FilterSpec cached, FilterSpec fresh) {
+        boolean same = fresh != null && copy(cached).equals(copy(fresh));
+        if (!same) log.debug("get - cached {} filter {} differs from fresh {}", tier, cached, fresh);
+        Counter.builder(SHADOW_METRIC)
+                .tag("tier", tier)
+                .tag("result", same ? "same" : "different")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void count(String tier, String result) {
+        Counter.builder(CACHE_METRIC)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static double dot(float[] a, float[] b) {
+        if (a.length != b.length) return -1;
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) sum += a[i] * b[i];
+        return sum;
+    }
+
+    /**
+     * Lowercase, punctuation folded to single spaces, so trivially different spellings share an entry.
+     */
+    private static String normalize(String message) {
+        var lower = message == null ? "" : message.toLowerCase(Locale.ROOT).replace(",", "");
+        return NON_WORD.matcher(SENTENCE_DOT.matcher(lower).replaceAll(" ")).replaceAll(" ").trim();
+    }
+
+    /**
+     * What two queries must share exactly to match semantically: the numbers in order, the places the
+     * {@link Gazetteer} finds, and the negation, amenity and property type words.
+     */
+    private Anchors anchors(String normalized) {
+        var numbers = new ArrayList<String>();
+        var matcher = NUMBER.matcher(normalized);
+        while (matcher.find()) numbers.add(matcher.group());
+
+        var places = new TreeSet<String>();
+        var words = Arrays.asList(normalized.split(" "));
+        for (int i = 0; i < words.size(); ) {
+            var match = gazetteer.longestMatch(words, i);
+            if (match == null) {
+                i++;
+                continue;
+            }
+            match.places().forEach(place -> places.add(place.name() + "," + place.state()));
+            i += match.length();
+        }
+
+        var qualifiers = new TreeSet<String>();
+        matcher = QUALIFIER.matcher(normalized);
+        while (matcher.find()) qualifiers.add(matcher.group());
+
+        return new Anchors(numbers, places, qualifiers);
+    }
+
+    /**
+     * Callers normalize filters in place, so cached specs are never handed out directly. Going through the
+     * getters also maps zero bounds and empty lists to {@code null}, which makes specs comparable.
+     */
+    private static FilterSpec copy(FilterSpec f) {
+        return new FilterSpec(f.getCity(), f.getState(), f.getNeighborhoods(),
+                f.getMinPrice(), f.getMaxPrice(),
+                f.getMinBeds(), f.getMaxBeds(), f.getMinBaths(),
+                f.getMinSqft(), f.getMaxSqft(), f.getMinYearBuilt(),
+                f.getTypes(), f.getHasParking(), f.getPetsAllowed(),
+                f.getWaterfront(), f.getPolygon());
+    }
+
+    private record Anchors(List<String> numbers, Set<String> places, Set<String> qualifiers) {
+    }
+
+    private record Entry(float[] vector, Anchors anchors, FilterSpec spec) {
+    }
+
+    private record Lookup(String tier, FilterSpec spec, float[] vector) {
+    }
+}
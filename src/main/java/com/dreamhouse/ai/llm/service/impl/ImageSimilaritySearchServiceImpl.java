@@ -2,6 +2,7 @@ package com.dreamhouse.ai.llm.service.impl;
 
 import com.dreamhouse.ai.house.dto.HouseAdDTO;
 import com.dreamhouse.ai.house.model.entity.HouseAdEntity;
+import com.dreamhouse.ai.llm.metrics.LlmMetrics;
 import com.dreamhouse.ai.llm.model.dto.ImageSearchDTO;
 import com.dreamhouse.ai.llm.service.ImageSimilaritySearchService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,8 +39,9 @@ public class ImageSimilaritySearchServiceImpl implements ImageSimilaritySearchSe
     private EntityManager em;
 
     @Autowired
-    public ImageSimilaritySearchServiceImpl(ChatModel visionChatModel, EmbeddingModel embeddingModel, ModelMapper mapper, ObjectMapper objectMapper) {
-        this.visionChatModel = visionChatModel;
+    public ImageSimilaritySearchServiceImpl(ChatModel visionChatModel, EmbeddingModel embeddingModel, ModelMapper mapper, ObjectMapper objectMapper,
+                                            LlmMetrics llmMetrics) {
+        this.visionChatModel = llmMetrics.instrument(visionChatModel, "vision");
         this.embeddingModel = embeddingModel;
         this.mapper = mapper;
         this.objectMapper = objectMapper;
@@ -0,0 +1,212 @@
+package com.dreamhouse.ai.llm.service.impl;
+
+import com.dreamhouse.ai.llm.agent.keyword.KeywordExtractorAgent;
+import com.dreamhouse.ai.llm.agent.keyword.RuleBasedFilterParser;
+import com.dreamhouse.ai.llm.agent.router.RouterAgent;
+import com.dreamhouse.ai.llm.agent.router.RuleBasedRouter;
+import com.dreamhouse.ai.llm.agent.router.RuleBasedRouter.RouteDecision;
+import com.dreamhouse.ai.llm.configuration.llm.properties.DeadlineProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.SearchPlanningProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.SearchPlanningProperties.FastPathMode;
+import com.dreamhouse.ai.llm.model.auxilary.FilterSpec;
+import com.dreamhouse.ai.llm.model.auxilary.RequestCategory;
+import com.dreamhouse.ai.llm.model.auxilary.SearchPlan;
+import com.dreamhouse.ai.llm.scheduler.AdmissionContext;
+import com.dreamhouse.ai.llm.service.SearchPlanningService;
+import com.dreamhouse.ai.llm.util.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Default {@link SearchPlanningService} backed by the {@link RouterAgent} and the {@link KeywordExtractorAgent}.
+ * <p>
+ * In speculative mode the filter extraction is forked onto a virtual thread while the router classifies the
+ * message on the calling thread, so a search costs roughly one model round trip instead of two. When the
+ * router answers {@link RequestCategory#CHAT} the extraction is cancelled (interrupting its HTTP call), and
+ * the fork never outlives the call: it is either joined or cancelled before {@link #plan} returns.
+ * </p>
+ * <p>
+ * A {@link RuleBasedRouter} runs first. In {@code ACTIVE} mode a confident rule decision replaces the router
+ * call entirely; in {@code SHADOW} mode it is only compared with the agent's answer, so the agreement rate
+ * can be measured before the fast path is trusted.
+ * </p>
+ * <p>
+ * Filters are first attempted by the {@link RuleBasedFilterParser}; the extractor agent is only called (and
+ * only speculated on) when the message contains something the parser does not fully understand, and
+ * even then a {@link FilterSpecCache} hit for the same or a similar query may answer first.
+ * </p>
+ */
+@Service
+public class SearchPlanningServiceImpl implements SearchPlanningService {
+    private static final Logger log = LoggerFactory.getLogger(SearchPlanningServiceImpl.class);
+    private static final String METRIC_NAME = "ai.search.speculation";
+    private static final String FAST_PATH_METRIC = "ai.router.fastpath";
+    private static final String AGREEMENT_METRIC = "ai.router.fastpath.agreement";
+    private static final String EXTRACTION_METRIC = "ai.filter.extraction";
+    private final RouterAgent routerAgent;
+    private final KeywordExtractorAgent keywordExtractorAgent;
+    private final RuleBasedRouter ruleBasedRouter;
+    private final RuleBasedFilterParser ruleBasedFilterParser;
+    private final FilterSpecCache filterSpecCache;
+    private final SearchPlanningProperties properties;
+    private final DeadlineProperties deadlines;
+    private final MeterRegistry meterRegistry;
+    private final Counter speculationUsed;
+    private final Counter speculationCancelled;
+    private final Counter extractedByRules;
+    private final Counter extractedByAgent;
+    private final ExecutorService agentExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public SearchPlanningServiceImpl(RouterAgent routerAgent,
+                                     KeywordExtractorAgent keywordExtractorAgent,
+                                     RuleBasedRouter ruleBasedRouter,
+                                     RuleBasedFilterParser ruleBasedFilterParser,
+                                     FilterSpecCache filterSpecCache,
+                                     SearchPlanningProperties properties,
+                                     DeadlineProperties deadlines,
+                                     MeterRegistry meterRegistry) {
+        this.routerAgent = routerAgent;
+        this.keywordExtractorAgent = keywordExtractorAgent;
+        this.ruleBasedRouter = ruleBasedRouter;
+        this.ruleBasedFilterParser = ruleBasedFilterParser;
+        this.filterSpecCache = filterSpecCache;
+        this.properties = properties;
+        this.deadlines = deadlines;
+        this.meterRegistry = meterRegistry;
+        this.speculationUsed = Counter.builder(METRIC_NAME)
+                .tag("outcome", "used")
+                .register(meterRegistry);
+        this.speculationCancelled = Counter.builder(METRIC_NAME)
+                .tag("outcome", "cancelled")
+                .register(meterRegistry);
+        this.extractedByRules = Counter.builder(EXTRACTION_METRIC)
+                .tag("source", "rules")
+                .register(meterRegistry);
+        this.extractedByAgent = Counter.builder(EXTRACTION_METRIC)
+                .tag("source", "agent")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        agentExecutor.shutdownNow();
+    }
+
+    /** {@inheritDoc}
+     * Confident rule decisions skip the router agent in {@code ACTIVE} mode; otherwise routing and extraction
+     * run one after the other unless {@code llm.search.speculative} is enabled. Every agent call is bounded by
+     * its stage budget and by what is left of {@code deadline}.
+     */
+    @Override
+    public SearchPlan plan(String message, Deadline deadline) throws InterruptedException {
+        var fastPath = properties.fastPath();
+        var decision = fastPath.mode() == FastPathMode.OFF ? null : ruleBasedRouter.decide(message);
+        boolean confident = decision != null && decision.confidence() >= fastPath.threshold();
+
+        if (confident && fastPath.mode() == FastPathMode.ACTIVE) {
+            countFastPath("hit");
+            if (ThreadLocalRandom.current().nextDouble() < fastPath.verifySampleRate()) {
+                agentExecutor.submit(AdmissionContext.inLane(AdmissionContext.BACKGROUND,
+                        () -> recordAgreement(decision, routerAgent.classify(message))));
+            }
+            return decision.category() == RequestCategory.CHAT
+                    ? SearchPlan.chat()
+                    : SearchPlan.search(extract(message, deadline));
+        }
+
+        if (decision != null) countFastPath(confident ? "shadow" : "miss");
+        var plan = planWithAgent(message, deadline);
+        if (confident) recordAgreement(decision, plan.category());
+        return plan;
+    }
+
+    private SearchPlan planWithAgent(String message, Deadline deadline) throws InterruptedException {
+        var parsed = parseWithRules(message);
+        if (parsed.isPresent()) {
+            return classify(message, deadline) == RequestCategory.CHAT
+                    ? SearchPlan.chat()
+                    : SearchPlan.search(parsed.get());
+        }
+
+        if (!properties.speculative()) {
+            return classify(message, deadline) == RequestCategory.CHAT
+                    ? SearchPlan.chat()
+                    : SearchPlan.search(extract(message, deadline));
+        }
+
+        Future<FilterSpec> extraction = agentExecutor.submit(() -> extractWithAgent(message));
+        try {
+            if (classify(message, deadline) == RequestCategory.CHAT) {
+                extraction.cancel(true);
+                speculationCancelled.increment();
+                return SearchPlan.chat();
+            }
+
+            var filter = deadline.await("extraction", deadlines.extraction(), extraction);
+            speculationUsed.increment();
+            return SearchPlan.search(filter);
+        } catch (RuntimeException e) {
+            log.error("plan - filter extraction failed: {}", e.getMessage());
+            throw e;
+        } finally {
+            if (!extraction.isDone()) extraction.cancel(true);
+        }
+    }
+
+    private RequestCategory classify(String message, Deadline deadline) throws InterruptedException {
+        return deadline.call("routing", deadlines.routing(), agentExecutor,
+                () -> AdmissionContext.idempotent(() -> routerAgent.classify(message)));
+    }
+
+    private FilterSpec extract(String message, Deadline deadline) throws InterruptedException {
+        var parsed = parseWithRules(message);
+        if (parsed.isPresent()) return parsed.get();
+        return deadline.call("extraction", deadlines.extraction(), agentExecutor, () -> extractWithAgent(message));
+    }
+
+    private Optional<FilterSpec> parseWithRules(String message) {
+        if (!properties.ruleBasedExtraction()) return Optional.empty();
+        var parsed = ruleBasedFilterParser.parse(message);
+        if (parsed.isPresent()) extractedByRules.increment();
+        return parsed;
+    }
+
+    private FilterSpec extractWithAgent(String message) {
+        return filterSpecCache.get(message, () -> {
+            extractedByAgent.increment();
+            return AdmissionContext.idempotent(() -> keywordExtractorAgent.getFilterSpec(message));
+        });
+    }
+
+    private void countFastPath(String outcome) {
+        Counter.builder(FAST_PATH_METRIC)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void recordAgreement(RouteDecision decision, RequestCategory agentCategory) {
+        boolean agrees = decision.category() == agentCategory;
+        if (!agrees) {
+            log.debug("plan - fast path chose {} (confidence {}), router agent chose {}",
+                    decision.category(), decision.confidence(), agentCategory);
+        }
+        Counter.builder(AGREEMENT_METRIC)
+                .tag("result", agrees ? "agree" : "disagree")
+                .tag("category", decision.category().name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,218 @@
+package com.dreamhouse.ai.llm.service.impl;
+
+import com.dreamhouse.ai.llm.agent.conversation.StreamingConversationalistAgent;
+import com.dreamhouse.ai.llm.agent.house.ListingPromptSerializer;
+import com.dreamhouse.ai.llm.agent.house.ListingsNarrator;
+import com.dreamhouse.ai.llm.configuration.guardrails.properties.GuardrailProperties;
+import com.dreamhouse.ai.llm.configuration.llm.properties.DeadlineProperties;
+import com.dreamhouse.ai.llm.exception.DeadlineExceededException;
+import com.dreamhouse.ai.llm.exception.LlmOverloadedException;
+import com.dreamhouse.ai.llm.service.SearchPlanningService;
+import com.dreamhouse.ai.llm.service.SearchStreamingService;
+import com.dreamhouse.ai.llm.tool.HouseSearchTool;
+import com.dreamhouse.ai.llm.util.AIUtil;
+import com.dreamhouse.ai.llm.util.Deadline;
+import dev.langchain4j.service.TokenStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default {@link SearchStreamingService}.
+ * <p>
+ * Planning and the database query run on a virtual thread so the request thread is released immediately,
+ * within the same {@link DeadlineProperties} budgets as the blocking {@code /search} endpoint.
+ * Listings are pushed as soon as they are loaded and the prose follows token by token from the streaming
+ * model, so the client sees the first bytes long before a full generation would have finished. Once the
+ * client goes away the pipeline is cancelled, so planning and the database query stop holding model slots and
+ * connections, and remaining tokens are dropped instead of written to a closed connection.
+ * </p>
+ */
+@Service
+public class SearchStreamingServiceImpl implements SearchStreamingService {
+    private static final Logger log = LoggerFactory.getLogger(SearchStreamingServiceImpl.class);
+    private static final Duration EMITTER_TIMEOUT = Duration.ofMinutes(3);
+    private static final String FIRST_EVENT_METRIC = "ai.stream.first_event";
+
+    private final SearchPlanningService searchPlanningService;
+    private final HouseSearchTool houseSearchTool;
+    private final StreamingConversationalistAgent streamingConversationalistAgent;
+    private final ListingsNarrator listingsNarrator;
+    private final ListingPromptSerializer listingPromptSerializer;
+    private final AIUtil aiUtil;
+    private final DeadlineProperties deadlines;
+    private final int maxOutputChars;
+    private final Timer chatFirstEvent;
+    private final Timer searchFirstEvent;
+    private final ExecutorService streamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public SearchStreamingServiceImpl(SearchPlanningService searchPlanningService,
+                                      HouseSearchTool houseSearchTool,
+                                      StreamingConversationalistAgent streamingConversationalistAgent,
+                                      ListingsNarrator listingsNarrator,
+                                      ListingPromptSerializer listingPromptSerializer,
+                                      AIUtil aiUtil,
+                                      DeadlineProperties deadlines,
+                                      GuardrailProperties guardrailProperties,
+                                      MeterRegistry meterRegistry) {
+        this.searchPlanningService = searchPlanningService;
+        this.houseSearchTool = houseSearchTool;
+        this.streamingConversationalistAgent = streamingConversationalistAgent;
+        this.listingsNarrator = listingsNarrator;
+        this.listingPromptSerializer = listingPromptSerializer;
+        this.aiUtil = aiUtil;
+        this.deadlines = deadlines;
+        this.maxOutputChars = guardrailProperties.formatting().maxOutputChars();
+        this.chatFirstEvent = firstEventTimer("chat", meterRegistry);
+        this.searchFirstEvent = firstEventTimer("search", meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter stream(String sessionId, String message) {
+        var emitter = new SseEmitter(EMITTER_TIMEOUT.toMillis());
+        var stream = new Stream(emitter, System.nanoTime());
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(stream::close);
+        emitter.onError(e -> stream.close());
+        stream.start(streamExecutor.submit(() -> run(sessionId, message, stream)));
+        return emitter;
+    }
+
+    private void run(String sessionId, String message, Stream stream) {
+        try {
+            var deadline = Deadline.after(deadlines.total());
+            var plan = searchPlanningService.plan(message, deadline);
+            if (plan.isChat()) {
+                stream.firstEventTimer = chatFirstEvent;
+                relay(streamingConversationalistAgent.chat(sessionId, message), stream);
+                return;
+            }
+
+            stream.firstEventTimer = searchFirstEvent;
+            var found = deadline.call("database", deadlines.database(), streamExecutor,
+                    () -> houseSearchTool.searchHouses(plan.filter()));
+            try {
+                deadline.call("presign", deadlines.presign(), streamExecutor, () -> aiUtil.setImageViewUrls(found));
+            } catch (DeadlineExceededException e) {
+                log.warn("stream - presigning ran out of time, sending listings without image URLs");
+            }
+            var houses = found.getHouseAdDTOs();
+            if (!stream.send("listings", Map.of("houseAdDTOs", houses))) return;
+            relay(listingsNarrator.explain(plan.filter(), listingPromptSerializer.serialize(houses)), stream);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stream.fail("Search was interrupted, please try again.");
+        } catch (LlmOverloadedException e) {
+            stream.fail(e.getMessage());
+        } catch (DeadlineExceededException e) {
+            log.warn("stream - {}", e.getMessage());
+            stream.fail("Search took too long, please try again.");
+        } catch (RuntimeException e) {
+            log.error("stream - search pipeline failed: {}", e.getMessage(), e);
+            stream.fail("Search failed, please try again.");
+        }
+    }
+
+    private void relay(TokenStream tokens, Stream stream) {
+        var relayed = new AtomicInteger();
+        tokens.onPartialResponse(token -> {
+                    if (stream.closed.get()) return;
+                    int room = maxOutputChars > 0 ? maxOutputChars - relayed.get() : token.length();
+                    if (room <= 0) return;
+                    var text = token.length() > room ? token.substring(0, room) : token;
+                    relayed.addAndGet(text.length());
+                    stream.send("token", Map.of("text", text));
+                })
+                .onCompleteResponse(response -> stream.finish())
+                .onError(e -> {
+                    log.error("stream - generation failed: {}", e.getMessage());
+                    stream.fail("Generation failed, please try again.");
+                })
+                .start();
+    }
+
+    private static Timer firstEventTimer(String kind, MeterRegistry meterRegistry) {
+        return Timer.builder(FIRST_EVENT_METRIC)
+                .description("Time from request to the first event written to the client")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Per-request emitter state. Events are written from one thread at a time: the worker until generation
+     * starts, then the model's callback thread.
+     */
+    private static final class Stream {
+        private final SseEmitter emitter;
+        private final long startedAt;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean firstEventSent = new AtomicBoolean();
+        private volatile Timer firstEventTimer;
+        private volatile Future<?> worker;
+
+        private Stream(SseEmitter emitter, long startedAt) {
+            this.emitter = emitter;
+            this.startedAt = startedAt;
+        }
+
+        private boolean send(String name, Object data) {
+            if (closed.get()) return false;
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+                if (firstEventTimer != null && firstEventSent.compareAndSet(false, true)) {
+                    firstEventTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("stream - client went away: {}", e.getMessage());
+                close();
+                return false;
+            }
+        }
+
+        private void start(Future<?> worker) {
+            this.worker = worker;
+            if (closed.get()) worker.cancel(true);
+        }
+
+        /**
+         * Stops the pipeline if it is still planning or querying. Also called when the stream completes
+         * normally, by which time the worker has already handed over to the model's callbacks.
+         */
+        private void close() {
+            closed.set(true);
+            var running = worker;
+            if (running != null) running.cancel(true);
+        }
+
+        private void finish() {
+            if (send("done", Map.of())) emitter.complete();
+        }
+
+        private void fail(String message) {
+            if (send("error", Map.of("message", message))) emitter.complete();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.dreamhouse.ai.llm.tool;
 
 import com.dreamhouse.ai.cache.service.impl.QueryKeyServiceImpl;
+import com.dreamhouse.ai.cache.service.impl.SingleFlightServiceImpl;
 
 import com.dreamhouse.ai.house.dto.HouseAdDTO;
 import com.dreamhouse.ai.house.dto.HouseAdImageDTO;
@@ -12,26 +13,19 @@ import com.dreamhouse.ai.llm.model.dto.HouseSearchDTO;
 import com.dreamhouse.ai.llm.model.auxilary.HouseAdSpecs;
 import com.dreamhouse.ai.mapper.HouseAdImageMapper;
 import com.dreamhouse.ai.mapper.HouseAdMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.apache.commons.compress.utils.Lists;
 import org.apache.logging.log4j.util.PerformanceSensitive;
-import org.hibernate.exception.LockAcquisitionException;
 import org.jetbrains.annotations.NotNull;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
-import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executor;
-import java.util.concurrent.TimeUnit;
 
 
 @Component
@@ -40,15 +34,14 @@ public class HouseSearchTool {
     private static final Integer MAX_PAGE_SIZE = 50;
     private static final String SORT_PROPERTY = "price";
     private static final Integer PAGE_NUMBER = 0;
+    private static final TypeReference<HouseSearchDTO> HOUSE_SEARCH_TYPE = new TypeReference<>() {};
     private final StorageServiceImpl storageService;
     private final HouseAdRepository repository;
     private final HouseAdSpecs houseAdSpecs;
     private final HouseAdImageMapper houseAdImageMapper;
     private final HouseAdMapper houseAdMapper;
-    private final ConcurrentHashMap<String, CompletableFuture<HouseSearchDTO>> houseSearchInflight;
-    private final RedissonClient redissonClient;
+    private final SingleFlightServiceImpl singleFlightService;
     private final QueryKeyServiceImpl queryKeyService;
-    private final Executor executor;
 
     @Autowired
     public HouseSearchTool(HouseAdRepository repository,
@@ -56,86 +49,73 @@ public class HouseSearchTool {
                            StorageServiceImpl storageService,
                            HouseAdImageMapper houseAdImageMapper,
                            HouseAdMapper houseAdMapper,
-                           RedissonClient redissonClient,
-                           QueryKeyServiceImpl queryKeyService,
-                           ConcurrentHashMap<String, CompletableFuture<HouseSearchDTO>> houseSearchInflight,
-                           @Qualifier("houseSearchExecutor") Executor executor) {
+                           SingleFlightServiceImpl singleFlightService,
+                           QueryKeyServiceImpl queryKeyService) {
         this.repository = repository;
         this.houseAdSpecs = houseAdSpecs;
         this.storageService = storageService;
         this.houseAdImageMapper = houseAdImageMapper;
         this.houseAdMapper = houseAdMapper;
-        this.redissonClient = redissonClient;
+        this.singleFlightService = singleFlightService;
         this.queryKeyService = queryKeyService;
-        this.houseSearchInflight = houseSearchInflight;
-        this.executor = executor;
     }
 
 
     @PerformanceSensitive
     public HouseSearchDTO searchHouses(@NotNull FilterSpec filterSpec) throws InterruptedException {
-        String lockKey = queryKeyService.lockKey(
-                "house-search", 1,
-                filterSpec.getCity(),
-                filterSpec.getState(),
-                filterSpec.getMinBeds(),
-                filterSpec.getMaxPrice(),
-                filterSpec.getMinPrice(),
-                filterSpec.getMinSqft(),
-                filterSpec.getTypes(),
-                filterSpec.getPolygon(),
-                filterSpec.getHasParking()
-        );
-
-        RLock lock = redissonClient.getLock(lockKey);
-
-        try {
-            if (!lock.tryLock(3, 10, TimeUnit.SECONDS)) {
-                throw new LockAcquisitionException("Request Throttled", new SQLException("Request Throttled"));
-            }
-
-            CompletableFuture<HouseSearchDTO> houseSearchReply = houseSearchInflight.computeIfAbsent(lockKey, __ ->
-                    CompletableFuture.supplyAsync(() -> {
-                        log.info("Searching for houses matching the given filters");
+        FilterSpec normalized = houseAdSpecs.normalizeFilter(filterSpec);
+        String flightKey = flightKey(normalized);
 
-                        FilterSpec normalized = houseAdSpecs.normalizeFilter(filterSpec);
-                        PageRequest pageRequest = PageRequest.of(PAGE_NUMBER, MAX_PAGE_SIZE, Sort.by(SORT_PROPERTY).ascending());
-                        var spec = houseAdSpecs.byFilter(normalized);
-                        List<HouseAdEntity> houseAdEntities = repository.findAll(spec, pageRequest).getContent();
+        return singleFlightService.execute("house-search", flightKey, HOUSE_SEARCH_TYPE, () -> {
+            log.info("Searching for houses matching the given filters");
 
+            PageRequest pageRequest = PageRequest.of(PAGE_NUMBER, MAX_PAGE_SIZE, Sort.by(SORT_PROPERTY).ascending());
+            var spec = houseAdSpecs.byFilter(normalized);
+            List<HouseAdEntity> houseAdEntities = repository.findAll(spec, pageRequest).getContent();
 
-                        var houseAdDTOS = Lists.<HouseAdDTO>newArrayList();
-                        for (var entity : houseAdEntities) {
-                            var dto = houseAdMapper.apply(entity);
 
-                            var houseAdImageDTOs = Lists.<HouseAdImageDTO>newArrayList();
-                            for (var image : entity.getImages()) {
-                                var imageDTO = houseAdImageMapper.apply(image);
-                                houseAdImageDTOs.add(imageDTO);
-                            }
-                            dto.setImages(houseAdImageDTOs);
-                            houseAdDTOS.add(dto);
-                        }
-                        var reply = new HouseSearchDTO();
-                        reply.setHouseAdDTOs(houseAdDTOS);
-                        return reply;
-                    }, executor)
-            );
+            var houseAdDTOS = Lists.<HouseAdDTO>newArrayList();
+            for (var entity : houseAdEntities) {
+                var dto = houseAdMapper.apply(entity);
 
-            try {
-                return houseSearchReply.join();
-            } finally {
-                houseSearchInflight.remove(lockKey, houseSearchReply);
+                var houseAdImageDTOs = Lists.<HouseAdImageDTO>newArrayList();
+                for (var image : entity.getImages()) {
+                    var imageDTO = houseAdImageMapper.apply(image);
+                    houseAdImageDTOs.add(imageDTO);
+                }
+                dto.setImages(houseAdImageDTOs);
+                houseAdDTOS.add(dto);
             }
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw e;
-        } finally {
-            if (lock.isHeldByCurrentThread())
-                lock.unlock();
-        }
-
+            var reply = new HouseSearchDTO();
+            reply.setHouseAdDTOs(houseAdDTOS);
+            return reply;
+        });
     }
 
+    /**
+     * Keys the flight on every field of the normalized filter, so only identical searches share a result.
+     */
+    private String flightKey(FilterSpec filter) {
+        var polygon = filter.getPolygon() == null ? null
+                : filter.getPolygon().stream().map(Arrays::toString).toList();
+        return queryKeyService.build(
+                "house-search", 2,
+                filter.getCity(),
+                filter.getState(),
+                filter.getNeighborhoods(),
+                filter.getMinPrice(),
+                filter.getMaxPrice(),
+                filter.getMinBeds(),
+                filter.getMaxBeds(),
+                filter.getMinBaths(),
+                filter.getMinSqft(),
+                filter.getMaxSqft(),
+                filter.getMinYearBuilt(),
+                filter.getTypes(),
+                filter.getHasParking(),
+                filter.getPetsAllowed(),
+                filter.getWaterfront(),
+                polygon
+        );
+    }
 }
@@ -26,7 +26,7 @@ import java.util.regex.Pattern;
 @Component
 public class AIUtil {
 
-    private static final Pattern BED_PATTERN =
+    public static final Pattern BED_PATTERN =
             Pattern.compile("\\b(\\d+)\\s*-?\\s*bed(room)?s?\\b");
 
     private static final Pattern MESSAGE_JSON_PATTERN =
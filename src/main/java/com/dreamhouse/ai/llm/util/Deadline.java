@@ -0,0 +1,86 @@
+package com.dreamhouse.ai.llm.util;
+
+import com.dreamhouse.ai.llm.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Time budget of one request, shared by every stage it passes through.
+ * <p>
+ * Each stage gets the smaller of its own cap and whatever is left of the request budget, so a slow early
+ * stage shortens the later ones instead of pushing the request past its deadline. A stage that runs out of
+ * time is cancelled, which interrupts its thread and with it any blocking model or database call.
+ * </p>
+ */
+public final class Deadline {
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return the smaller of {@code cap} and the remaining budget
+     * @throws DeadlineExceededException if nothing is left for {@code stage}
+     */
+    public Duration budgetFor(String stage, Duration cap) {
+        var remaining = remaining();
+        if (remaining.isZero()) {
+            throw new DeadlineExceededException("Deadline exceeded before " + stage);
+        }
+        return cap.compareTo(remaining) < 0 ? cap : remaining;
+    }
+
+    /**
+     * Runs {@code task} on {@code executor} and waits at most {@link #budgetFor} for it.
+     *
+     * @throws DeadlineExceededException if the stage does not finish in time; the task is cancelled
+     * @throws InterruptedException      if the caller is interrupted; the task is cancelled as well
+     */
+    public <T> T call(String stage, Duration cap, ExecutorService executor, Callable<T> task) throws InterruptedException {
+        var budget = budgetFor(stage, cap);
+        Future<T> future = executor.submit(task);
+        try {
+            return await(stage, future, budget);
+        } finally {
+            if (!future.isDone()) future.cancel(true);
+        }
+    }
+
+    /**
+     * Waits for an already running stage at most {@link #budgetFor} and cancels it on timeout.
+     */
+    public <T> T await(String stage, Duration cap, Future<T> future) throws InterruptedException {
+        return await(stage, future, budgetFor(stage, cap));
+    }
+
+    private static <T> T await(String stage, Future<T> future, Duration budget) throws InterruptedException {
+        try {
+            return future.get(budget.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new DeadlineExceededException("Deadline exceeded during " + stage);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(stage + " failed", e.getCause());
+        }
+    }
+}
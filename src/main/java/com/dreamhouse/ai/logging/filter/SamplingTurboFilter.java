@@ -0,0 +1,77 @@
+package com.dreamhouse.ai.logging.filter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.joran.spi.DefaultClass;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that keeps only a fraction of the events of chatty logging categories.
+ * <p>
+ * Turbo filters run before a logging event is created, so a dropped event costs one random draw and
+ * no allocation, message formatting or queueing. Each {@code <sample>} names a category, the logger
+ * name prefixes that belong to it and the fraction of events to keep. WARN and ERROR are never dropped,
+ * and level checks such as {@code isDebugEnabled()} are left alone so guarded blocks behave normally.
+ * </p>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private final List<Sample> samples = new ArrayList<>();
+
+    @DefaultClass(Sample.class)
+    public void addSample(Sample sample) {
+        samples.add(sample);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        var name = logger.getName();
+        for (var sample : samples) {
+            if (sample.matches(name)) {
+                return ThreadLocalRandom.current().nextDouble() < sample.rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    /**
+     * One sampled category: comma-separated logger name prefixes and the fraction of events to keep.
+     */
+    public static class Sample {
+        private String category;
+        private String[] loggers = new String[0];
+        private double rate = 1.0;
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public void setLoggers(String loggers) {
+            this.loggers = loggers == null ? new String[0] : loggers.trim().split("\\s*,\\s*");
+        }
+
+        public void setRate(double rate) {
+            this.rate = Math.max(0.0, Math.min(1.0, rate));
+        }
+
+        boolean matches(String loggerName) {
+            for (var prefix : loggers) {
+                if (!prefix.isEmpty() && loggerName.startsWith(prefix)) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.dreamhouse.ai.ratelimit.configuration.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(
+        boolean enabled,
+        int leaseSize,
+        Duration leaseTtl,
+        Map<String, EndpointLimit> endpoints
+) {
+    public RateLimitProperties {
+        if (leaseSize < 1) leaseSize = 1;
+        if (leaseTtl == null) leaseTtl = Duration.ofSeconds(1);
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+    }
+
+    public record EndpointLimit(
+            BucketLimit defaults,
+            Map<String, BucketLimit> plans
+    ) {
+        public EndpointLimit {
+            plans = plans == null ? Map.of() : Map.copyOf(plans);
+        }
+    }
+
+    public record BucketLimit(
+            long capacity,
+            long refillPerMinute
+    ) {
+        public BucketLimit {
+            if (capacity < 1) throw new IllegalArgumentException("Bucket capacity must be positive");
+            if (refillPerMinute < 1) throw new IllegalArgumentException("Bucket refill rate must be positive");
+        }
+    }
+
+    /**
+     * Limit for the endpoint and plan; falls back to the endpoint default when the plan has no entry.
+     */
+    public BucketLimit limitFor(String endpoint, String plan) {
+        var endpointLimit = endpoints.get(endpoint);
+        if (endpointLimit == null) return null;
+        if (plan != null) {
+            var planLimit = endpointLimit.plans().get(plan.toLowerCase());
+            if (planLimit != null) return planLimit;
+        }
+        return endpointLimit.defaults();
+    }
+}
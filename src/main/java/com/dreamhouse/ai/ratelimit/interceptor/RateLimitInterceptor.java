@@ -0,0 +1,87 @@
+package com.dreamhouse.ai.ratelimit.interceptor;
+
+import com.dreamhouse.ai.authentication.model.entity.UserEntity;
+import com.dreamhouse.ai.authentication.repository.UserRepository;
+import com.dreamhouse.ai.llm.entity.AITokenEntity;
+import com.dreamhouse.ai.llm.repository.AITokenRepository;
+import com.dreamhouse.ai.ratelimit.annotation.RateLimited;
+import com.dreamhouse.ai.ratelimit.exception.RateLimitExceededException;
+import com.dreamhouse.ai.ratelimit.service.RateLimiterService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Applies {@link RateLimited} buckets before the controller runs. Authenticated callers are limited per
+ * username and by their AI plan; anonymous callers per client IP with the endpoint default.
+ * <p>
+ * Endpoints returning a {@code DeferredResult} or {@code SseEmitter} are dispatched a second time to write
+ * their result. That dispatch is not charged again: the request already paid on the way in, and the
+ * authentication filter does not run for it, so it would otherwise be billed as an anonymous caller.
+ * </p>
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String NO_PLAN = "";
+
+    private final RateLimiterService rateLimiterService;
+    private final UserRepository userRepository;
+    private final AITokenRepository aiTokenRepository;
+    private final Cache<String, String> plans;
+
+    @Autowired
+    public RateLimitInterceptor(RateLimiterService rateLimiterService,
+                                UserRepository userRepository,
+                                AITokenRepository aiTokenRepository) {
+        this.rateLimiterService = rateLimiterService;
+        this.userRepository = userRepository;
+        this.aiTokenRepository = aiTokenRepository;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(@NotNull HttpServletRequest request,
+                             @NotNull HttpServletResponse response,
+                             @NotNull Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) return true;
+        if (!(handler instanceof HandlerMethod method)) return true;
+
+        var rateLimited = method.getMethodAnnotation(RateLimited.class);
+        if (rateLimited == null) return true;
+
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken);
+
+        String subject = authenticated ? "user:" + auth.getName() : "ip:" + request.getRemoteAddr();
+        String plan = authenticated ? planOf(auth.getName()) : null;
+
+        if (!rateLimiterService.tryAcquire(rateLimited.value(), subject, plan)) {
+            throw new RateLimitExceededException("Rate limit exceeded. Please try again shortly.");
+        }
+        return true;
+    }
+
+    private String planOf(String username) {
+        var plan = plans.get(username, name -> userRepository.findByUsername(name)
+                .map(UserEntity::getAiAuthToken)
+                .flatMap(aiTokenRepository::findByToken)
+                .map(AITokenEntity::getPlanCode)
+                .orElse(NO_PLAN));
+        return Optional.ofNullable(plan).filter(p -> !p.isEmpty()).orElse(null);
+    }
+}
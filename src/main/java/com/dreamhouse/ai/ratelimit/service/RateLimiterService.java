@@ -0,0 +1,8 @@
+package com.dreamhouse.ai.ratelimit.service;
+
+import com.dreamhouse.ai.ratelimit.configuration.properties.RateLimitProperties.BucketLimit;
+
+public interface RateLimiterService {
+    boolean tryAcquire(String endpoint, String subject, String plan);
+    boolean tryAcquire(String endpoint, String subject, BucketLimit limit);
+}
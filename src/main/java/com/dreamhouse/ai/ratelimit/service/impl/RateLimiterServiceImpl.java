@@ -0,0 +1,200 @@
+package com.dreamhouse.ai.ratelimit.service.impl;
+
+import com.dreamhouse.ai.cache.service.impl.QueryKeyServiceImpl;
+import com.dreamhouse.ai.ratelimit.configuration.properties.RateLimitProperties;
+import com.dreamhouse.ai.ratelimit.configuration.properties.RateLimitProperties.BucketLimit;
+import com.dreamhouse.ai.ratelimit.service.RateLimiterService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets kept in Redis and refilled lazily by a Lua script, so every node sees the same budget.
+ * <p>
+ * To avoid a Redis round trip per request, a node takes a small batch of tokens at once and hands them out
+ * locally until the batch is spent or its lease expires. Unused leased tokens are simply forgotten, which errs
+ * on the side of admitting slightly fewer requests, never more.
+ */
+@Service
+public class RateLimiterServiceImpl implements RateLimiterService {
+    private static final Logger log = LoggerFactory.getLogger(RateLimiterServiceImpl.class);
+    private static final String METRIC_NAME = "ratelimit.decisions";
+    private static final int LEASE_CACHE_SIZE = 100_000;
+
+    /*
+     * KEYS[1] bucket hash, ARGV[1] capacity, ARGV[2] refill per millisecond, ARGV[3] tokens requested.
+     * Returns the number of tokens granted, between 0 and ARGV[3]. Uses the Redis clock so nodes need not agree.
+     */
+    private static final String TOKEN_BUCKET_SCRIPT = """
+            local capacity = tonumber(ARGV[1])
+            local refill_per_ms = tonumber(ARGV[2])
+            local requested = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill_per_ms)
+            local granted = math.min(requested, math.floor(tokens))
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens - granted), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / refill_per_ms) + 1000)
+            return granted
+            """;
+
+    private final RateLimitProperties properties;
+    private final RedissonClient redissonClient;
+    private final QueryKeyServiceImpl queryKeyService;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Lease> leases;
+    private volatile String scriptSha;
+
+    @Autowired
+    public RateLimiterServiceImpl(RateLimitProperties properties,
+                                  RedissonClient redissonClient,
+                                  QueryKeyServiceImpl queryKeyService,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redissonClient = redissonClient;
+        this.queryKeyService = queryKeyService;
+        this.meterRegistry = meterRegistry;
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(LEASE_CACHE_SIZE)
+                .expireAfterWrite(properties.leaseTtl())
+                .build();
+    }
+
+    /**
+     * Takes one token from the bucket configured for the endpoint and plan.
+     * @param endpoint the endpoint name under {@code rate-limit.endpoints}
+     * @param subject who is being limited, usually the username or client IP
+     * @param plan the caller's AI plan code, or {@code null} for the endpoint default
+     * @return true if the request may proceed
+     */
+    @Override
+    public boolean tryAcquire(String endpoint, String subject, String plan) {
+        return tryAcquire(endpoint, subject, properties.limitFor(endpoint, plan));
+    }
+
+    /**
+     * Takes one token from a bucket with an explicit limit.
+     * @param endpoint the endpoint name, used for the bucket key and metrics
+     * @param subject who is being limited
+     * @param limit the bucket capacity and refill rate; {@code null} means unlimited
+     * @return true if the request may proceed
+     */
+    @Override
+    public boolean tryAcquire(String endpoint, String subject, BucketLimit limit) {
+        if (!properties.enabled() || limit == null) return true;
+
+        final String bucketKey = queryKeyService.build("rate-limit:" + endpoint, 1, subject,
+                limit.capacity(), limit.refillPerMinute());
+
+        var lease = leases.getIfPresent(bucketKey);
+        if (lease != null && lease.tryTake()) {
+            count(endpoint, "allowed_local");
+            return true;
+        }
+
+        long batch = leaseBatch(limit);
+        long granted;
+        try {
+            granted = takeFromBucket(bucketKey, limit, batch);
+        } catch (RedisException e) {
+            log.warn("tryAcquire - Redis unavailable, admitting request for {}", endpoint, e);
+            count(endpoint, "error");
+            return true;
+        }
+
+        if (granted <= 0) {
+            count(endpoint, "rejected");
+            return false;
+        }
+
+        final long spare = granted - 1;
+        if (spare > 0) {
+            leases.asMap().merge(bucketKey, new Lease(spare, properties.leaseTtl().toNanos()),
+                    (current, fresh) -> current.isExpired() ? fresh : current.add(spare));
+        }
+        count(endpoint, "allowed_remote");
+        return true;
+    }
+
+    /**
+     * Tokens taken per Redis round trip: what the bucket refills during one lease, capped by
+     * {@code lease-size}. A batch never strands more than a lease's worth of refill on one node, so slow
+     * buckets get single tokens and leasing only kicks in for buckets refilling faster than one token per
+     * lease TTL.
+     */
+    private long leaseBatch(BucketLimit limit) {
+        double refilledPerLease = limit.refillPerMinute() / 60_000d * properties.leaseTtl().toMillis();
+        return Math.max(1, Math.min(properties.leaseSize(), (long) refilledPerLease));
+    }
+
+    private long takeFromBucket(String bucketKey, BucketLimit limit, long requested) {
+        RScript script = redissonClient.getScript(StringCodec.INSTANCE);
+        List<Object> keys = List.of(bucketKey);
+        String capacity = Long.toString(limit.capacity());
+        String refillPerMs = Double.toString(limit.refillPerMinute() / 60_000d);
+        String tokens = Long.toString(requested);
+
+        if (scriptSha == null) {
+            scriptSha = script.scriptLoad(TOKEN_BUCKET_SCRIPT);
+        }
+
+        Long granted;
+        try {
+            granted = script.evalSha(RScript.Mode.READ_WRITE, scriptSha, RScript.ReturnType.INTEGER,
+                    keys, capacity, refillPerMs, tokens);
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) throw e;
+            scriptSha = script.scriptLoad(TOKEN_BUCKET_SCRIPT);
+            granted = script.evalSha(RScript.Mode.READ_WRITE, scriptSha, RScript.ReturnType.INTEGER,
+                    keys, capacity, refillPerMs, tokens);
+        }
+        return granted == null ? 0 : granted;
+    }
+
+    private void count(String endpoint, String outcome) {
+        Counter.builder(METRIC_NAME)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static final class Lease {
+        private final AtomicLong tokens;
+        private final long expiresAtNanos;
+
+        private Lease(long tokens, long ttlNanos) {
+            this.tokens = new AtomicLong(tokens);
+            this.expiresAtNanos = System.nanoTime() + ttlNanos;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+
+        private boolean tryTake() {
+            if (isExpired()) return false;
+            return tokens.getAndUpdate(t -> t > 0 ? t - 1 : 0) > 0;
+        }
+
+        private Lease add(long more) {
+            tokens.addAndGet(more);
+            return this;
+        }
+    }
+}
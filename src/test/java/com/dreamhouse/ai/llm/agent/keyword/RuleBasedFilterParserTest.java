@@ -0,0 +1,63 @@
+package com.dreamhouse.ai.llm.agent.keyword;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two-letter state codes that are also ordinary words must not turn a filler into a state filter, since a
+ * parsed message never reaches the agent.
+ */
+class RuleBasedFilterParserTest {
+    private final RuleBasedFilterParser parser = new RuleBasedFilterParser(new Gazetteer());
+
+    @Test
+    void orBetweenCitiesIsNotOregon() {
+        var spec = parser.parse("condo in Boston or Cambridge under 600k").orElseThrow();
+        assertEquals(List.of("boston", "cambridge"), spec.getCity());
+        assertNull(spec.getState());
+        assertEquals(List.of("condo"), spec.getTypes());
+        assertEquals(600_000, spec.getMaxPrice());
+    }
+
+    @Test
+    void inAfterCityIsNotIndiana() {
+        var spec = parser.parse("condos in Austin in TX").orElseThrow();
+        assertEquals(List.of("austin"), spec.getCity());
+        assertEquals(List.of("tx"), spec.getState());
+    }
+
+    @Test
+    void meAfterCityIsNotMaine() {
+        var spec = parser.parse("show Denver me condos").orElseThrow();
+        assertEquals(List.of("denver"), spec.getCity());
+        assertNull(spec.getState());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"3 bed condo in Boston, MA", "3 bed condo in boston, ma", "3 bed condo in Boston MA"})
+    void codeAfterCityIsAStateWhenUppercaseOrAfterAComma(String message) {
+        var spec = parser.parse(message).orElseThrow();
+        assertEquals(List.of("boston"), spec.getCity());
+        assertEquals(List.of("ma"), spec.getState());
+        assertEquals(3, spec.getMinBeds());
+    }
+
+    @Test
+    void uppercaseCodeWithoutCityIsAState() {
+        var spec = parser.parse("homes in OR under 500k").orElseThrow();
+        assertEquals(List.of("or"), spec.getState());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"house in Miami oh", "homes in Seattle ok", "condo in Austin hi there", "house in boston ma"})
+    void lowercaseCodeThatIsNoFillerGoesToTheAgent(String message) {
+        assertTrue(parser.parse(message).isEmpty(), message);
+    }
+}